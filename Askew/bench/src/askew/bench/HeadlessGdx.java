@@ -0,0 +1,29 @@
+package askew.bench;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.physics.box2d.Box2D;
+
+/**
+ * Boots just enough of Gdx for the benchmarks.
+ * <p>
+ * A HeadlessApplication gives us files, the native libraries and stub audio and
+ * input, but no GL context.  The benchmarks must be run from the assets directory,
+ * which is what the jmh task does.
+ */
+public class HeadlessGdx {
+
+    /**
+     * Starts the headless application, if it has not been started already.
+     */
+    public static synchronized void init() {
+        if (Gdx.app == null) {
+            new HeadlessApplication(new ApplicationAdapter() {
+            }, new HeadlessApplicationConfiguration());
+            // Levels can be parsed before any World has loaded the natives
+            Box2D.init();
+        }
+    }
+}
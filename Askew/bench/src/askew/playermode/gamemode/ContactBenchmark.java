@@ -0,0 +1,90 @@
+package askew.playermode.gamemode;
+
+import askew.bench.HeadlessGdx;
+import askew.entity.Entity;
+import askew.entity.FilterGroup;
+import askew.entity.obstacle.Obstacle;
+import askew.entity.sloth.SlothModel;
+import askew.entity.vine.Vine;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the contact callbacks in PhysicsController.
+ * <p>
+ * The callbacks are fed real fixtures out of a loaded level: a sloth hand touching
+ * a vine (the grab bookkeeping), the sloth body touching the owl (the win check on
+ * the owl's filter category, with the sloth read off the body's SlothFixture tag)
+ * and two vine planks (the early out when neither fixture is tagged as a sloth's).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ContactBenchmark {
+
+    @Param({"level1"})
+    public String level;
+
+    private HeadlessRunner runner;
+    private PhysicsController collisions;
+    private Fixture hand;
+    private Fixture body;
+    private Fixture vine;
+    private Fixture otherVine;
+    private Fixture owl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGdx.init();
+        runner = new HeadlessRunner(level);
+        collisions = runner.getController().collisions;
+
+        SlothModel sloth = runner.getController().getSloth();
+        body = sloth.getMainBody().getFixtureList().first();
+        for (Fixture fixture : sloth.getLeftHand().getFixtureList()) {
+            if ((fixture.getFilterData().categoryBits & FilterGroup.HAND) != 0) {
+                hand = fixture;
+            }
+        }
+        for (Entity e : runner.getController().levelModel.getEntities()) {
+            if (e instanceof Vine && vine == null) {
+                Iterator<Obstacle> planks = ((Vine) e).getBodies().iterator();
+                vine = planks.next().getBody().getFixtureList().first();
+                otherVine = planks.next().getBody().getFixtureList().first();
+            }
+        }
+        owl = runner.getController().owl.getBody().getFixtureList().first();
+        if (hand == null || vine == null) {
+            throw new IllegalStateException(level + " needs a sloth and a vine");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runner.dispose();
+    }
+
+    @Benchmark
+    public void handTouchesVine() {
+        collisions.beginContact(hand, vine);
+        collisions.endContact(hand, vine);
+    }
+
+    @Benchmark
+    public void bodyTouchesOwl() {
+        collisions.beginContact(owl, body);
+        collisions.endContact(owl, body);
+    }
+
+    @Benchmark
+    public void vineTouchesVine() {
+        collisions.beginContact(vine, otherVine);
+        collisions.endContact(vine, otherVine);
+    }
+}
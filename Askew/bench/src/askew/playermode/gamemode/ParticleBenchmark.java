@@ -0,0 +1,91 @@
+package askew.playermode.gamemode;
+
+import askew.bench.HeadlessGdx;
+import askew.playermode.WorldController;
+import askew.playermode.gamemode.Particles.ParticleController;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures Effect.update.
+ * <p>
+ * fullPool fills the whole particle pool and updates it with no elapsed time, so
+ * nothing dies and every invocation walks all MAX_PARTICLES particles.  fogFrame is
+ * a steady state game frame: new fog is spawned and the fog advanced one step.  The
+ * fog is animated on the graphics card, so this is only the CPU side of it, writing
+ * the new particles into their vertex buffer.  Neither should allocate; run with
+ * -prof gc to check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ParticleBenchmark {
+
+    @Benchmark
+    public void fullPool(PoolState state) {
+        state.particles.testEffect.update(0);
+    }
+
+    @Benchmark
+    public void fogFrame(FogState state) {
+        state.particles.fogEffect.spawn(0, 0);
+        state.particles.fogEffect.update(WorldController.WORLD_STEP);
+    }
+
+    /**
+     * The particles of a headless level, on the high graphics setting.
+     */
+    @State(Scope.Thread)
+    public static class ParticleState {
+        HeadlessRunner runner;
+        ParticleController particles;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            HeadlessGdx.init();
+            runner = new HeadlessRunner("level1");
+            particles = runner.getController().particleController;
+            particles.setGraphicsSetting(1);
+            prepare();
+        }
+
+        /**
+         * Puts the particles into the state to be measured.
+         */
+        void prepare() {
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            runner.dispose();
+        }
+    }
+
+    /**
+     * Every particle in the pool spawned into a single effect.
+     */
+    public static class PoolState extends ParticleState {
+        @Override
+        void prepare() {
+            while (particles.store.getAvailable() > 0) {
+                particles.testEffect.spawn(0, 0);
+            }
+        }
+    }
+
+    /**
+     * Fog that has been running long enough to reach its steady state.
+     */
+    public static class FogState extends ParticleState {
+        @Override
+        void prepare() {
+            for (int i = 0; i < 60 * 10; i++) {
+                particles.fogEffect.spawn(0, 0);
+                particles.fogEffect.update(WorldController.WORLD_STEP);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package askew.playermode.gamemode;
+
+import askew.bench.HeadlessGdx;
+import askew.entity.sloth.SlothModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures SlothModel.doThePhysics, the arm torque solve run for every sloth every step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SlothPhysicsBenchmark {
+
+    @Param({"level1"})
+    public String level;
+
+    private HeadlessRunner runner;
+    private SlothModel sloth;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGdx.init();
+        runner = new HeadlessRunner(level);
+        // Let the level settle before we start pushing the arms around
+        runner.run(60);
+        sloth = runner.getController().getSloth();
+        sloth.setLeftHori(1);
+        sloth.setLeftVert(-0.5f);
+        sloth.setRightHori(-0.5f);
+        sloth.setRightVert(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        runner.dispose();
+    }
+
+    @Benchmark
+    public void doThePhysics() {
+        sloth.doThePhysics();
+    }
+}
@@ -0,0 +1,49 @@
+package askew.util.json;
+
+import askew.bench.HeadlessGdx;
+import askew.playermode.leveleditor.LevelModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures JSONLoaderSaver.loadLevel, which every reset of the game mode goes through.
+ * <p>
+ * The levels are loaded without an asset manager, so this is building the entities
+ * of a level that is already compiled in memory, as on a restart, but not texture
+ * lookup.  The first load in setup does the read and compile.
+ * <p>
+ * The levels are not listed here, so that a new level is benchmarked without
+ * anyone remembering to add it.  Outside the jmh task only level1 is run
+ * unless others are given with -p levelFile=level1,level2.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadLevelBenchmark {
+
+    /**
+     * The jmh task replaces this with every level in the levels directory
+     */
+    @Param({"level1"})
+    public String levelFile;
+
+    private JSONLoaderSaver loader;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessGdx.init();
+        loader = new JSONLoaderSaver(false);
+        if (loader.loadLevel(levelFile) == null) {
+            throw new IllegalStateException("Missing level " + levelFile);
+        }
+    }
+
+    @Benchmark
+    public LevelModel loadLevel() {
+        return loader.loadLevel(levelFile);
+    }
+}
@@ -12,6 +12,10 @@ import com.badlogic.gdx.graphics.Texture;
 class AssetTraversalController {
 
     private static final String TEXTURE_MANIFEST = "texture_manifest.txt";
+    /**
+     * Level pieces and backgrounds, which are left for the levels that use them
+     */
+    private static final String LEVEL_TEXTURE_DIRECTORY = "texture/background/BackgroundStuff/";
     private boolean preloaded;
 
     AssetTraversalController() {
@@ -23,8 +27,16 @@ class AssetTraversalController {
         FileHandle textureManifestHandle = Gdx.files.internal(TEXTURE_MANIFEST);
         String[] allPaths = textureManifestHandle.readString().split("\\R");
         manager.setTexturePaths(allPaths);
+        manager.preloadStaticAtlas();
         for (String handleString : allPaths) {
-            manager.load(handleString, Texture.class);
+            if (manager.isPacked(handleString)) {
+                continue;
+            }
+            if (handleString.startsWith(LEVEL_TEXTURE_DIRECTORY)) {
+                manager.deferLevelTexture(handleString);
+            } else {
+                manager.load(handleString, Texture.class);
+            }
         }
 
         preloaded = true;
@@ -26,13 +26,19 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.Mesh.VertexDataType;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.VertexAttribute;
 import com.badlogic.gdx.graphics.VertexAttributes.Usage;
 import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.NumberUtils;
+import com.badlogic.gdx.utils.ObjectMap;
+
+import java.util.Arrays;
 
 /** A PolygonSpriteBatch is used to draw 2D polygons that reference a texture (region). The class will batch the drawing commands
  * and optimize them for processing by the GPU.
@@ -61,7 +67,8 @@ import com.badlogic.gdx.utils.NumberUtils;
 public class CustomSpriteBatch implements Batch {
     private Mesh mesh;
 
-    private final int VERTEX_SIZE = 6;
+    /** The number of floats in a vertex: x, y, z, packed color, u and v. **/
+    public static final int VERTEX_SIZE = 6;
     private final int SPRITE_SIZE = 4 * VERTEX_SIZE;
 
 
@@ -75,6 +82,8 @@ public class CustomSpriteBatch implements Batch {
     private final Matrix4 transformMatrix = new Matrix4();
     private final Matrix4 projectionMatrix = new Matrix4();
     private final Matrix4 combinedMatrix = new Matrix4();
+    /** The combined matrix with the depth of a static draw worked in. **/
+    private final Matrix4 staticMatrix = new Matrix4();
 
     private boolean blendingDisabled;
     private int blendSrcFunc = GL20.GL_SRC_ALPHA;
@@ -96,6 +105,26 @@ public class CustomSpriteBatch implements Batch {
     /** The maximum number of triangles rendered in one batch so far. **/
     public int maxTrianglesInBatch = 0;
 
+    /** The least depth between consecutive draws of a deferred pass. Two steps of a 16 bit depth buffer. **/
+    private static final float DEFERRED_DEPTH_STEP = 1f / (1 << 14);
+    /** The nearest depth a deferred pass steps to, safely behind the near plane of the camera. **/
+    private static final float DEFERRED_DEPTH_FLOOR = 0.05f;
+
+    /** Whether draws are being grouped by texture until the end of the pass. **/
+    private boolean deferred;
+    /** Whether the mesh holds translucent draws that must be rendered in order. **/
+    private boolean immediate;
+    /** The depth of the last draw in this deferred pass. **/
+    private float deferredDepth;
+    /** The grouped draws, in the order their textures were first used this pass. **/
+    private final Array<TextureBatch> pending = new Array<>();
+    /** The draw groups of every texture seen, kept between passes to reuse their arrays. **/
+    private final ObjectMap<Texture, TextureBatch> textureBatches = new ObjectMap<>();
+    /** Where the alpha of each texture is looked up. Without it every texture is drawn in order. **/
+    private MantisAssetManager assets;
+    /** The level texture generation of the assets when the draw groups were last emptied. **/
+    private int textureGeneration;
+
     /** Constructs a new PolygonSpriteBatch with a size of 2000, the default shader, and one buffer.
      * @see PolygonSpriteBatch#PolygonSpriteBatch(int, ShaderProgram) */
     public CustomSpriteBatch () {
@@ -125,10 +154,7 @@ public class CustomSpriteBatch implements Batch {
         if (Gdx.gl30 != null) {
             vertexDataType = VertexDataType.VertexBufferObjectWithVAO;
         }
-        mesh = new Mesh(vertexDataType, false, size, size * 3,
-                new VertexAttribute(Usage.Position, 3, ShaderProgram.POSITION_ATTRIBUTE),
-                new VertexAttribute(Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
-                new VertexAttribute(Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0"));
+        mesh = new Mesh(vertexDataType, false, size, size * 3, createAttributes());
 
         vertices = new float[size * VERTEX_SIZE];
         triangles = new short[size * 3];
@@ -184,6 +210,26 @@ public class CustomSpriteBatch implements Batch {
         return shader;
     }
 
+    private static VertexAttribute[] createAttributes () {
+        return new VertexAttribute[] {
+                new VertexAttribute(Usage.Position, 3, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE),
+                new VertexAttribute(Usage.TextureCoordinates, 2, ShaderProgram.TEXCOORD_ATTRIBUTE + "0")};
+    }
+
+    /** Creates a mesh in the vertex format of this batch, uploaded once to be drawn with
+     * {@link #draw(Texture[], Mesh[], int, int)}.  The mesh must be disposed by the caller.
+     * @param vertices the vertices, VERTEX_SIZE floats apiece
+     * @param vertexCount the number of floats of vertices to use
+     * @param triangles the vertex indices, three per triangle
+     * @param triangleCount the number of indices to use */
+    public static Mesh createStaticMesh (float[] vertices, int vertexCount, short[] triangles, int triangleCount) {
+        Mesh mesh = new Mesh(true, vertexCount / VERTEX_SIZE, triangleCount, createAttributes());
+        mesh.setVertices(vertices, 0, vertexCount);
+        mesh.setIndices(triangles, 0, triangleCount);
+        return mesh;
+    }
+
     @Override
     public void begin () {
         if (drawing) throw new IllegalStateException("PolygonSpriteBatch.end must be called before begin.");
@@ -200,6 +246,28 @@ public class CustomSpriteBatch implements Batch {
         drawing = true;
     }
 
+    /** Begins a pass that groups draws by texture, binding each texture once when the pass ends or is flushed.
+     * <p>
+     * Every draw keeps the z it was drawn with, unless that is not in front of the draw before it, in which case it is
+     * moved one step in front of that one.  So the depth test reproduces the order of the draw calls however they are
+     * grouped, and each draw stays at (or just in front of) the depth it had, which particles drawn afterwards test
+     * against.  Once the steps reach the near end of the depth range the rest of the pass is drawn in order, at that
+     * depth, rather than clearing the depth buffer under what is already drawn.  This is only exact for opaque
+     * pixels; the shader discards clear ones, but a soft edge would hide something drawn behind it later in the pass.
+     * So only textures whose pixels are all either clear or opaque are grouped (see {@link #isOpaque(Texture)}).  Draws
+     * of other textures, and draws tinted with alpha, render in order, after everything drawn before them. */
+    public void beginDeferred () {
+        begin();
+        if (assets != null && assets.getLevelTextureGeneration() != textureGeneration) {
+            // Level textures have been disposed of since the last pass, so let go of their groups
+            textureBatches.clear();
+            textureGeneration = assets.getLevelTextureGeneration();
+        }
+        deferred = true;
+        immediate = false;
+        deferredDepth = Float.MAX_VALUE;
+    }
+
     public void beginParticle () {
         if (drawing) throw new IllegalStateException("PolygonSpriteBatch.end must be called before begin.");
         renderCalls = 0;
@@ -217,9 +285,10 @@ public class CustomSpriteBatch implements Batch {
     @Override
     public void end () {
         if (!drawing) throw new IllegalStateException("PolygonSpriteBatch.begin must be called before end.");
-        if (vertexIndex > 0) flush();
+        flush();
         lastTexture = null;
         drawing = false;
+        deferred = false;
 
         GL20 gl = Gdx.gl;
         gl.glDepthMask(true);
@@ -275,10 +344,7 @@ public class CustomSpriteBatch implements Batch {
         final int regionVerticesLength = regionVertices.length;
 
         final Texture texture = region.getRegion().getTexture();
-        if (texture != lastTexture)
-            switchTexture(texture);
-        else if (triangleIndex + regionTrianglesLength > triangles.length
-                || vertexIndex + regionVerticesLength * VERTEX_SIZE / 2 > vertices.length) flush();
+        z = prepare(texture, z, regionTrianglesLength, regionVerticesLength * VERTEX_SIZE / 2);
 
         int triangleIndex = this.triangleIndex;
         int vertexIndex = this.vertexIndex;
@@ -319,10 +385,7 @@ public class CustomSpriteBatch implements Batch {
         final TextureRegion textureRegion = region.getRegion();
 
         final Texture texture = textureRegion.getTexture();
-        if (texture != lastTexture)
-            switchTexture(texture);
-        else if (triangleIndex + regionTrianglesLength > triangles.length
-                || vertexIndex + regionVerticesLength * VERTEX_SIZE / 2 > vertices.length) flush();
+        z = prepare(texture, z, regionTrianglesLength, regionVerticesLength * VERTEX_SIZE / 2);
 
         int triangleIndex = this.triangleIndex;
         int vertexIndex = this.vertexIndex;
@@ -369,10 +432,7 @@ public class CustomSpriteBatch implements Batch {
         final TextureRegion textureRegion = region.getRegion();
 
         Texture texture = textureRegion.getTexture();
-        if (texture != lastTexture)
-            switchTexture(texture);
-        else if (triangleIndex + regionTrianglesLength > triangles.length
-                || vertexIndex + regionVerticesLength * VERTEX_SIZE / 2 > vertices.length) flush();
+        z = prepare(texture, z, regionTrianglesLength, regionVerticesLength * VERTEX_SIZE / 2);
 
         int triangleIndex = this.triangleIndex;
         int vertexIndex = this.vertexIndex;
@@ -453,10 +513,7 @@ public class CustomSpriteBatch implements Batch {
         final short[] triangles = this.triangles;
         final float[] vertices = this.vertices;
 
-        if (texture != lastTexture)
-            switchTexture(texture);
-        else if (triangleIndex + 6 > triangles.length || vertexIndex + SPRITE_SIZE > vertices.length) //
-            flush();
+        z = prepare(texture, z, 6, SPRITE_SIZE);
 
         int triangleIndex = this.triangleIndex;
         final int startVertex = vertexIndex / VERTEX_SIZE;
@@ -514,11 +571,7 @@ public class CustomSpriteBatch implements Batch {
         final short[] triangles = this.triangles;
         final float[] vertices = this.vertices;
         final int triangleCount = count / 20 * 6;
-        if (texture != lastTexture) {
-            switchTexture(texture);
-        }
-        else if (triangleIndex + triangleCount > triangles.length || vertexIndex + count > vertices.length) //
-            flush();
+        final float z = prepare(texture, 0f, triangleCount, count / 5 * VERTEX_SIZE);
 
         int vertexIndex = this.vertexIndex;
         int triangleIndex = this.triangleIndex;
@@ -536,7 +589,7 @@ public class CustomSpriteBatch implements Batch {
         for (int i = 0; i < count; i += 5) {
             vertices[vertexIndex++] = spriteVertices[offset + i];
             vertices[vertexIndex++] = spriteVertices[offset + i + 1];
-            vertices[vertexIndex++] = 0f;
+            vertices[vertexIndex++] = z;
             vertices[vertexIndex++] = spriteVertices[offset + i + 2];
             vertices[vertexIndex++] = spriteVertices[offset + i + 3];
             vertices[vertexIndex++] = spriteVertices[offset + i + 4];
@@ -563,10 +616,7 @@ public class CustomSpriteBatch implements Batch {
         final float[] vertices = this.vertices;
 
         Texture texture = region.getTexture();
-        if (texture != lastTexture)
-            switchTexture(texture);
-        else if (triangleIndex + 6 > triangles.length || vertexIndex + SPRITE_SIZE > vertices.length) //
-            flush();
+        z = prepare(texture, z, 6, SPRITE_SIZE);
 
         int triangleIndex = this.triangleIndex;
         final int startVertex = vertexIndex / VERTEX_SIZE;
@@ -640,10 +690,7 @@ public class CustomSpriteBatch implements Batch {
         final float[] vertices = this.vertices;
 
         Texture texture = region.getTexture();
-        if (texture != lastTexture)
-            switchTexture(texture);
-        else if (triangleIndex + 6 > triangles.length || vertexIndex + SPRITE_SIZE > vertices.length) //
-            flush();
+        z = prepare(texture, z, 6, SPRITE_SIZE);
 
         int triangleIndex = this.triangleIndex;
         final int startVertex = vertexIndex / VERTEX_SIZE;
@@ -701,8 +748,213 @@ public class CustomSpriteBatch implements Batch {
         vertices[idx++] = v;
         vertexIndex = idx;
     }
+    /** Draws meshes made with {@link #createStaticMesh(float[], int, short[], int)} as the next layerCount draws.
+     * <p>
+     * The z of every vertex is the index, from 0, of the depth layer it belongs to.  In a deferred pass the meshes take
+     * layerCount depth steps from the standard z, exactly as that many draw calls would, so each layer is in front of the
+     * ones before it.  Within a layer, geometry is drawn in mesh order and then in index order, each piece over what came
+     * before it at that depth, so geometry laid out once keeps the order it was laid out in as long as a layer spans no
+     * two textures.  Otherwise everything is drawn at the standard z, ordered by mesh and then within each mesh.  The
+     * meshes are never grouped with other draws; if any of their textures has soft edges, everything drawn before them
+     * goes first.
+     * @param textures the texture of each mesh
+     * @param meshes the meshes to draw
+     * @param count the number of meshes to draw
+     * @param layerCount the number of depth layers laid out in the meshes */
+    public void draw (Texture[] textures, Mesh[] meshes, int count, int layerCount) {
+        if (!drawing) throw new IllegalStateException("PolygonSpriteBatch.begin must be called before draw.");
+        if (layerCount == 0) return;
+
+        float base = 0.5f;
+        float step = 0;
+        if (deferred) {
+            base = Math.min(base, deferredDepth - DEFERRED_DEPTH_STEP);
+            step = DEFERRED_DEPTH_STEP;
+            if (base - (layerCount - 1) * step < DEFERRED_DEPTH_FLOOR) {
+                // More layers than the depth left share steps rather than pass the near plane
+                base = Math.max(base, DEFERRED_DEPTH_FLOOR);
+                step = layerCount > 1 ? (base - DEFERRED_DEPTH_FLOOR) / (layerCount - 1) : 0;
+            }
+            deferredDepth = base - (layerCount - 1) * step;
+        }
+        if (deferred && !immediate && !allOpaque(textures, count)) {
+            // Soft edges blend with whatever is behind them, so that must be drawn already
+            flush();
+        } else if (!deferred || immediate) {
+            // Anything drawn in order so far must go first
+            renderMesh();
+        }
+
+        // The projection passes z straight through, so the depth can be worked into the matrix
+        staticMatrix.set(combinedMatrix);
+        staticMatrix.val[Matrix4.M22] = -step;
+        staticMatrix.val[Matrix4.M23] += base;
+        ShaderProgram shader = customShader != null ? customShader : this.shader;
+        shader.setUniformMatrix("u_projTrans", staticMatrix);
+        if (blendingDisabled) {
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+        } else {
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            if (blendSrcFunc != -1) Gdx.gl.glBlendFunc(blendSrcFunc, blendDstFunc);
+        }
+        for (int i = 0; i < count; i++) {
+            renderCalls++;
+            totalRenderCalls++;
+            textures[i].bind();
+            meshes[i].render(shader, GL20.GL_TRIANGLES);
+        }
+        shader.setUniformMatrix("u_projTrans", combinedMatrix);
+    }
+
+    /** Draws the triangles of a mesh with the current shader, after everything drawn so far.
+     * <p>
+     * The mesh keeps its own vertex format, which the current shader (set with {@link #setShader(ShaderProgram)}) must
+     * read; its uniforms other than u_projTrans and u_texture are up to the caller.  This is how geometry animated on the
+     * graphics card is drawn in the middle of a pass.  It is never grouped with other draws.
+     * @param mesh the mesh to draw
+     * @param texture the texture to draw it with
+     * @param count the number of indices to draw, from the first */
+    public void draw (Mesh mesh, Texture texture, int count) {
+        if (!drawing) throw new IllegalStateException("PolygonSpriteBatch.begin must be called before draw.");
+        if (count == 0) return;
+
+        flush();
+        if (blendingDisabled) {
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+        } else {
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            if (blendSrcFunc != -1) Gdx.gl.glBlendFunc(blendSrcFunc, blendDstFunc);
+        }
+        renderCalls++;
+        totalRenderCalls++;
+        texture.bind();
+        mesh.render(customShader != null ? customShader : shader, GL20.GL_TRIANGLES, 0, count);
+    }
+
     @Override
     public void flush () {
+        if (deferred) {
+            flushBatch();
+            flushDeferred();
+        } else {
+            renderMesh();
+        }
+    }
+
+    /** Makes room for a draw of the given size with the given texture.
+     * @return the z the draw should use */
+    private float prepare (Texture texture, float z, int triangleCount, int vertexCount) {
+        if (deferred) {
+            z = Math.min(z, deferredDepth - DEFERRED_DEPTH_STEP);
+            boolean translucent = (NumberUtils.floatToIntColor(color) >>> 24) < 0xfe || !isOpaque(texture);
+            if (z < DEFERRED_DEPTH_FLOOR) {
+                // Out of depth; draws at one depth pass the depth test in the order they are drawn
+                z = DEFERRED_DEPTH_FLOOR;
+                translucent = true;
+            }
+            if (translucent && !immediate) {
+                flush();
+                immediate = true;
+            } else if (!translucent && immediate) {
+                renderMesh();
+                immediate = false;
+            }
+            deferredDepth = z;
+        }
+
+        if (texture != lastTexture)
+            switchTexture(texture);
+        else if (triangleIndex + triangleCount > triangles.length || vertexIndex + vertexCount > vertices.length)
+            flushBatch();
+        return z;
+    }
+
+    /** Sets where the alpha of each texture is looked up, which the assets work out as the textures load.
+     * @param assets the asset manager the textures are loaded by */
+    public void setAssetManager (MantisAssetManager assets) {
+        this.assets = assets;
+    }
+
+    /** Returns whether every pixel the texture draws is either clear or opaque, so that its draws can be grouped.
+     * <p>
+     * The shader discards clear pixels and opaque ones hide whatever is behind them, so for such a texture the depth
+     * test gives the same picture as drawing in order.  A soft edge instead blends with what is behind it, which must
+     * be drawn first.  A texture with clear pixels only draws hard edges if it is sampled with Nearest filtering; any
+     * other filter blends clear pixels into their opaque neighbours.  Textures the assets did not classify (made from a
+     * pixmap in code) are drawn in order. */
+    private boolean isOpaque (Texture texture) {
+        if (assets == null) return false;
+        switch (assets.getAlpha(texture)) {
+            case OPAQUE:
+                return true;
+            case HARD:
+                return texture.getMinFilter() == TextureFilter.Nearest && texture.getMagFilter() == TextureFilter.Nearest;
+            default:
+                return false;
+        }
+    }
+
+    private boolean allOpaque (Texture[] textures, int count) {
+        for (int i = 0; i < count; i++) {
+            if (!isOpaque(textures[i])) return false;
+        }
+        return true;
+    }
+
+    /** Empties the mesh, either to the screen or, in a deferred pass, to the group of its texture. */
+    private void flushBatch () {
+        if (deferred && !immediate) {
+            deferBatch();
+        } else {
+            renderMesh();
+        }
+    }
+
+    /** Moves the contents of the mesh to the group of the current texture. */
+    private void deferBatch () {
+        if (vertexIndex == 0) return;
+
+        TextureBatch batch = textureBatches.get(lastTexture);
+        if (batch == null) {
+            batch = new TextureBatch(lastTexture);
+            textureBatches.put(lastTexture, batch);
+        }
+        if (batch.segments.size == 0) pending.add(batch);
+        batch.add(vertices, vertexIndex, triangles, triangleIndex);
+
+        vertexIndex = 0;
+        triangleIndex = 0;
+    }
+
+    /** Renders every group, one texture at a time, packing as many of its segments into each render call as fit. */
+    private void flushDeferred () {
+        for (TextureBatch batch : pending) {
+            lastTexture = batch.texture;
+            int vertexStart = 0;
+            int triangleStart = 0;
+            IntArray segments = batch.segments;
+            for (int i = 0; i < segments.size; i += 2) {
+                int vertexCount = segments.get(i);
+                int triangleCount = segments.get(i + 1);
+                if (triangleIndex + triangleCount > triangles.length || vertexIndex + vertexCount > vertices.length)
+                    renderMesh();
+
+                final short startVertex = (short)(vertexIndex / VERTEX_SIZE);
+                System.arraycopy(batch.vertices, vertexStart, vertices, vertexIndex, vertexCount);
+                for (int j = 0; j < triangleCount; j++)
+                    triangles[triangleIndex + j] = (short)(batch.triangles[triangleStart + j] + startVertex);
+                vertexIndex += vertexCount;
+                triangleIndex += triangleCount;
+                vertexStart += vertexCount;
+                triangleStart += triangleCount;
+            }
+            renderMesh();
+            batch.clear();
+        }
+        pending.clear();
+    }
+
+    private void renderMesh () {
         if (vertexIndex == 0) return;
 
         renderCalls++;
@@ -801,7 +1053,7 @@ public class CustomSpriteBatch implements Batch {
     }
 
     private void switchTexture (Texture texture) {
-        flush();
+        flushBatch();
         lastTexture = texture;
         invTexWidth = 1.0f / texture.getWidth();
         invTexHeight = 1.0f / texture.getHeight();
@@ -843,4 +1095,41 @@ public class CustomSpriteBatch implements Batch {
     public boolean isDrawing () {
         return drawing;
     }
+
+    /** The draws of one texture in a deferred pass.
+     * <p>
+     * Each segment is the contents of the mesh when it was last moved here, with its triangles indexed from the start of
+     * the segment, so that segments can later be packed into the mesh in any grouping. */
+    private static class TextureBatch {
+        final Texture texture;
+        float[] vertices = new float[256];
+        short[] triangles = new short[64];
+        /** Pairs of vertex and triangle counts, one pair per segment. */
+        final IntArray segments = new IntArray();
+        int vertexCount;
+        int triangleCount;
+
+        TextureBatch (Texture texture) {
+            this.texture = texture;
+        }
+
+        void add (float[] vertices, int vertexCount, short[] triangles, int triangleCount) {
+            if (this.vertexCount + vertexCount > this.vertices.length)
+                this.vertices = Arrays.copyOf(this.vertices, Math.max(this.vertices.length * 2, this.vertexCount + vertexCount));
+            if (this.triangleCount + triangleCount > this.triangles.length)
+                this.triangles = Arrays.copyOf(this.triangles, Math.max(this.triangles.length * 2, this.triangleCount + triangleCount));
+            System.arraycopy(vertices, 0, this.vertices, this.vertexCount, vertexCount);
+            System.arraycopy(triangles, 0, this.triangles, this.triangleCount, triangleCount);
+            this.vertexCount += vertexCount;
+            this.triangleCount += triangleCount;
+            segments.add(vertexCount);
+            segments.add(triangleCount);
+        }
+
+        void clear () {
+            vertexCount = 0;
+            triangleCount = 0;
+            segments.clear();
+        }
+    }
 }
@@ -18,6 +18,8 @@ import askew.playermode.gamemode.TutorialModeController;
 import askew.playermode.leveleditor.LevelEditorController;
 import askew.playermode.loading.LoadingMode;
 import askew.playermode.mainmenu.MainMenuController;
+import askew.util.InputRecorder;
+import askew.util.InputReplay;
 import askew.util.ScreenListener;
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
@@ -29,6 +31,9 @@ import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
 import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGeneratorLoader;
 import com.badlogic.gdx.graphics.g2d.freetype.FreetypeFontLoader;
 
+import java.io.File;
+import java.io.IOException;
+
 /**
  * Root class for a LibGDX.
  * <p>
@@ -67,6 +72,14 @@ public class GDXRoot extends Game implements ScreenListener {
      * List of all WorldControllers
      */
     private WorldController[] controllers;
+    /**
+     * Records the input of the game proper, if the configuration asks for it
+     */
+    private InputRecorder inputRecorder;
+    /**
+     * Replays recorded input into the game proper, if the configuration asks for it
+     */
+    private InputReplay inputReplay;
 
 
     /**
@@ -94,6 +107,7 @@ public class GDXRoot extends Game implements ScreenListener {
      */
     public void create() {
         canvas = new GameCanvas();
+        canvas.setAssetManager(manager);
         loading = new LoadingMode(canvas, manager, 1);
 
         // Initialize the three game worlds
@@ -108,6 +122,7 @@ public class GDXRoot extends Game implements ScreenListener {
             controller.setWorldScale(canvas);
             controller.preLoadContent(manager);
         }
+        startInputRecording();
 
         assetTraversalController.preLoadEverything(manager);
         manager.preloadProcess();
@@ -116,6 +131,39 @@ public class GDXRoot extends Game implements ScreenListener {
         setScreen(loading);
     }
 
+    /**
+     * Records or replays the input of the game proper, if the configuration
+     * names a file for it (inputRecording and inputReplay).
+     * <p>
+     * Only the game mode is recorded, a level at a time, so that a recording
+     * can also be replayed headless (see desktop.ReplayLauncher).  A replay
+     * starts once the recorded level is started from the menus as usual.
+     */
+    private void startInputRecording() {
+        String replayPath = GlobalConfiguration.getInstance().getAsString("inputReplay", "");
+        String recordPath = GlobalConfiguration.getInstance().getAsString("inputRecording", "");
+        if (!replayPath.isEmpty()) {
+            try {
+                inputReplay = new InputReplay(new File(replayPath));
+                controllers[CON_GM].setSeed(inputReplay.getSeed());
+                controllers[CON_GM].setInputReplay(inputReplay);
+            } catch (IOException e) {
+                System.err.println("Could not open the input recording " + replayPath);
+                e.printStackTrace();
+            }
+        }
+        if (!recordPath.isEmpty()) {
+            try {
+                inputRecorder = new InputRecorder(new File(recordPath),
+                        InputControllerManager.NUM_CONTROLLERS, controllers[CON_GM].getSeed());
+                controllers[CON_GM].setInputRecorder(inputRecorder);
+            } catch (IOException e) {
+                System.err.println("Could not start the input recording " + recordPath);
+                e.printStackTrace();
+            }
+        }
+    }
+
     /**
      * Called when the Application is destroyed.
      * <p>
@@ -128,6 +176,12 @@ public class GDXRoot extends Game implements ScreenListener {
             controller.unloadContent(manager);
             controller.dispose();
         }
+        if (inputRecorder != null) {
+            inputRecorder.close();
+        }
+        if (inputReplay != null) {
+            inputReplay.close();
+        }
 
         canvas.dispose();
         canvas = null;
@@ -215,6 +269,7 @@ public class GDXRoot extends Game implements ScreenListener {
 
         } else if (exitCode == WorldController.EXIT_GM_MM) {
             current = CON_MM;
+            manager.unloadLevelTextures();
             controllers[current].reset();
             setScreen(controllers[current]);
 
@@ -225,6 +280,7 @@ public class GDXRoot extends Game implements ScreenListener {
 
         } else if (exitCode == WorldController.EXIT_LE_MM) {
             current = CON_MM;
+            manager.unloadLevelTextures();
             controllers[current].reset();
             setScreen(controllers[current]);
 
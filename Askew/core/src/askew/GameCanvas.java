@@ -19,9 +19,11 @@ package askew;/*
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
 import com.badlogic.gdx.graphics.OrthographicCamera;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.*;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.Matrix4;
@@ -90,6 +92,14 @@ public class GameCanvas {
      * Cache object to handle raw texture
      */
     private TextureRegion holder;
+    /**
+     * The total number of render calls made before this frame
+     */
+    private int frameStartRenderCalls;
+    /**
+     * Cache object to lay out text
+     */
+    private final GlyphLayout textLayout = new GlyphLayout();
 
     /**
      * Creates a new askew.GameCanvas determined by the application configuration.
@@ -140,6 +150,16 @@ public class GameCanvas {
         holder = null;
     }
 
+    /**
+     * Sets the asset manager the textures drawn are loaded by, which knows
+     * which of them can be grouped in a deferred pass (see beginDeferred).
+     *
+     * @param manager the asset manager
+     */
+    public void setAssetManager(MantisAssetManager manager) {
+        spriteBatch.setAssetManager(manager);
+    }
+
     /**
      * Returns the width of this canvas
      * <p>
@@ -323,10 +343,21 @@ public class GameCanvas {
         blend = state;
     }
 
+    /**
+     * Returns the number of render calls made so far this frame.
+     *
+     * @return the number of render calls made since the last clear()
+     */
+    public int getRenderCalls() {
+        return spriteBatch.totalRenderCalls - frameStartRenderCalls;
+    }
+
     /**
      * Clear the screen so we can start a new animation frame
      */
     public void clear() {
+        frameStartRenderCalls = spriteBatch.totalRenderCalls;
+
         // Clear the screen
 
         Gdx.gl.glClearColor(0.81f, 0.81f, 0.83f, 1.0f);  // Homage to the XNA years
@@ -350,6 +381,26 @@ public class GameCanvas {
         active = DrawPass.STANDARD;
     }
 
+    /**
+     * Start a drawing sequence that binds each texture only once.
+     * <p>
+     * Draws are grouped by texture and sent to the graphics card when end() is
+     * called, with the depth buffer keeping them in the order they were drawn.
+     * Only images with hard edges are grouped; images with soft edges and draws
+     * tinted with alpha are drawn in order.
+     *
+     * @param affine the global transform apply to the camera
+     */
+    public void beginDeferred(Affine2 affine) {
+        global.setAsAffine(affine);
+        global.mulLeft(camera.combined);
+        spriteBatch.setProjectionMatrix(global);
+
+        setBlendState(BlendState.NO_PREMULT);
+        spriteBatch.beginDeferred();
+        active = DrawPass.STANDARD;
+    }
+
     /**
      * Start a standard drawing sequence.
      * <p>
@@ -964,6 +1015,61 @@ public class GameCanvas {
         computeVertices(local, region.getVertices());
     }
 
+    /**
+     * Draws geometry that was laid out in advance and uploaded as static meshes.
+     * <p>
+     * The meshes are made with CustomSpriteBatch.createStaticMesh, in world
+     * pixels, with the z of each vertex the index of the depth layer it belongs
+     * to.  They count as one draw per layer for ordering, so in a deferred pass
+     * they are drawn in front of everything before them and behind everything
+     * after.
+     *
+     * @param textures   The texture of each mesh
+     * @param meshes     The meshes to draw
+     * @param count      The number of meshes to draw
+     * @param layerCount The number of depth layers laid out in the meshes
+     */
+    public void draw(Texture[] textures, Mesh[] meshes, int count, int layerCount) {
+        if (active != DrawPass.STANDARD) {
+            Gdx.app.error("askew.GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+            return;
+        }
+
+        spriteBatch.draw(textures, meshes, count, layerCount);
+    }
+
+    /**
+     * Sets the shader for everything drawn after this, or restores the standard
+     * one if it is null.
+     * <p>
+     * Anything drawn so far is flushed first.  The shader is given the camera as
+     * u_projTrans and the texture unit as u_texture; any other uniform is up to
+     * the caller, after this call.  It is safe to call between begin and end.
+     *
+     * @param shader the shader to draw with, or null for the standard one
+     */
+    public void setShader(ShaderProgram shader) {
+        spriteBatch.setShader(shader);
+    }
+
+    /**
+     * Draws a mesh with the shader set by setShader, after everything drawn so far.
+     * <p>
+     * The mesh is in world pixels, in whatever vertex format the shader reads.
+     *
+     * @param mesh    The mesh to draw
+     * @param texture The texture to draw it with
+     * @param count   The number of indices to draw
+     */
+    public void drawMesh(Mesh mesh, Texture texture, int count) {
+        if (active != DrawPass.STANDARD) {
+            Gdx.app.error("askew.GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
+            return;
+        }
+
+        spriteBatch.draw(mesh, texture, count);
+    }
+
     /**
      * Transform the given vertices by the affine transform
      */
@@ -984,16 +1090,16 @@ public class GameCanvas {
      * @param x    The x-coordinate of the lower-left corner
      * @param y    The y-coordinate of the lower-left corner
      */
-    public void drawText(String text, BitmapFont font, float x, float y) {
+    public void drawText(CharSequence text, BitmapFont font, float x, float y) {
         if (active != DrawPass.STANDARD) {
             Gdx.app.error("askew.GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
             return;
         }
-        GlyphLayout layout = new GlyphLayout(font, text);
+        textLayout.setText(font, text);
         BitmapFontCache cache = font.getCache();
         //font.draw(spriteBatch, layout, x, y);
         cache.clear();
-        cache.addText(layout, x, y);
+        cache.addText(textLayout, x, y);
         cache.draw(spriteBatch);
     }
 
@@ -1010,10 +1116,10 @@ public class GameCanvas {
             return;
         }
 
-        GlyphLayout layout = new GlyphLayout(font, text);
-        float x = (getWidth() - layout.width) / 2.0f;
-        float y = (getHeight() + layout.height) / 2.0f;
-        font.draw(spriteBatch, layout, x, y + offset);
+        textLayout.setText(font, text);
+        float x = (getWidth() - textLayout.width) / 2.0f;
+        float y = (getHeight() + textLayout.height) / 2.0f;
+        font.draw(spriteBatch, textLayout, x, y + offset);
     }
 
     public void drawTextAlignedRight(String text, BitmapFont font, float x, float y, Color c) {
@@ -1021,8 +1127,8 @@ public class GameCanvas {
             Gdx.app.error("askew.GameCanvas", "Cannot draw without active begin()", new IllegalStateException());
             return;
         }
-        GlyphLayout layout = new GlyphLayout(font, text, c, 0, Align.right, false);
-        font.draw(spriteBatch, layout, x, y);
+        textLayout.setText(font, text, c, 0, Align.right, false);
+        font.draw(spriteBatch, textLayout, x, y);
     }
 
     /**
@@ -1087,7 +1193,7 @@ public class GameCanvas {
     /**
      * [Trevor]
      */
-    public void drawTextStandard(String text, float x, float y) {
+    public void drawTextStandard(CharSequence text, float x, float y) {
         drawText(text, font, x, y);
     }
 
@@ -11,12 +11,15 @@ import com.google.gson.JsonObject;
 public class GlobalConfiguration {
 
     private static final String CONFIG_PATH = "data/config.json";
-    private static GlobalConfiguration instance;
+    /**
+     * Volatile so that a world built on another thread sees the whole configuration
+     */
+    private static volatile GlobalConfiguration instance;
 
-    private JsonObject dataBlob;
+    private final JsonObject dataBlob;
 
-    private GlobalConfiguration() {
-        dataBlob = new JsonObject();
+    private GlobalConfiguration(JsonObject dataBlob) {
+        this.dataBlob = dataBlob;
     }
 
     public static GlobalConfiguration getInstance() {
@@ -32,8 +35,7 @@ public class GlobalConfiguration {
      */
     public static void update() {
         JsonObject newBlob = JSONLoaderSaver.loadArbitrary(CONFIG_PATH).orElseThrow(RuntimeException::new);
-        instance = new GlobalConfiguration();
-        instance.dataBlob = newBlob;
+        instance = new GlobalConfiguration(newBlob);
     }
 
     /**
@@ -46,6 +48,17 @@ public class GlobalConfiguration {
         return dataBlob.get(key).getAsBoolean();
     }
 
+    /**
+     * Returns the boolean represented by a key that a config.json may not have.
+     *
+     * @param key      The unique key at the top level of the config.json
+     * @param fallback What to return if the key is not there
+     * @return The boolean, or the fallback if the key does not exist.
+     */
+    public boolean getAsBoolean(String key, boolean fallback) {
+        return dataBlob.has(key) ? dataBlob.get(key).getAsBoolean() : fallback;
+    }
+
     /**
      * Similar to getAsBoolean
      */
@@ -53,6 +66,17 @@ public class GlobalConfiguration {
         return dataBlob.get(key).getAsString();
     }
 
+    /**
+     * Returns the string represented by a key that a config.json may not have.
+     *
+     * @param key      The unique key at the top level of the config.json
+     * @param fallback What to return if the key is not there
+     * @return The string, or the fallback if the key does not exist.
+     */
+    public String getAsString(String key, String fallback) {
+        return dataBlob.has(key) ? dataBlob.get(key).getAsString() : fallback;
+    }
+
     /**
      * Similar to getAsBoolean
      */
@@ -67,6 +91,17 @@ public class GlobalConfiguration {
         return dataBlob.get(key).getAsFloat();
     }
 
+    /**
+     * Returns the float represented by a key that a config.json may not have.
+     *
+     * @param key      The unique key at the top level of the config.json
+     * @param fallback What to return if the key is not there
+     * @return The float, or the fallback if the key does not exist.
+     */
+    public float getAsFloat(String key, float fallback) {
+        return dataBlob.has(key) ? dataBlob.get(key).getAsFloat() : fallback;
+    }
+
     public int getCurrentLevel() {
         return dataBlob.get("currentLevel").getAsInt();
     }
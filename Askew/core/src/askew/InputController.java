@@ -32,6 +32,10 @@ public class InputController {
     private static final float GP_ACCELERATE = 1.0f;
     private static final float GP_MAX_SPEED = 10.0f;
     private static final float GP_THRESHOLD = 0.01f;
+    /**
+     * The number of buttons and keys in getButtonState()
+     */
+    private static final int BUTTON_COUNT = 41;
 
     private final int id;
     /**
@@ -43,7 +47,11 @@ public class InputController {
      */
     private final Vector2 crosscache;
     /**
-     * An X-Box controller (if it is connected)
+     * The buttons in the order of getButtonState(), so that it allocates nothing
+     */
+    private final boolean[] buttonCache = new boolean[BUTTON_COUNT];
+    /**
+     * An X-Box controller (if it is connected), or null for a controller driven only by replayInput
      */
     @Getter
     private final XBox360Controller xbox;
@@ -180,8 +188,23 @@ public class InputController {
      * if it exists.  Otherwise, it falls back to the keyboard control.
      */
     public InputController(int id) {
+        this(id, true);
+    }
+
+    /**
+     * Creates a new input controller, with or without a device.
+     * <p>
+     * A controller without a device never looks for a game-pad, so it registers
+     * nothing with the shared Controllers and can be made on any thread.  It
+     * must not read input; it is driven by replayInput (or by setting it
+     * directly), as headless worlds drive their sloths.
+     *
+     * @param id     the player index
+     * @param device whether to connect to the X-Box controller for the player
+     */
+    public InputController(int id, boolean device) {
         // If we have a game-pad for id, then use it.
-        xbox = new XBox360Controller(id);
+        xbox = device ? new XBox360Controller(id) : null;
         crosshair = new Vector2();
         crosscache = new Vector2();
         this.id = id;
@@ -393,8 +416,25 @@ public class InputController {
      * @param scale  The drawing scale
      */
     public void readInput(Rectangle bounds, Vector2 scale) {
-        // Copy state from last animation frame
-        // Helps us ignore buttons that are held down
+        savePrevious();
+
+        // Check to see if a GamePad is connected
+        if (xbox != null && xbox.isConnected()) {
+            readGamepad(bounds, scale);
+            if (id == 0)
+                readKeyboard(bounds, scale, true); // Read as a back-up
+        } else {
+            if (id == 0)
+                readKeyboard(bounds, scale, false);
+        }
+    }
+
+    /**
+     * Copies state from last animation frame.
+     * <p>
+     * Helps us ignore buttons that are held down.
+     */
+    private void savePrevious() {
         bottomButtonPrevious = bottomButtonPressed;
         startButtonPrevious = startButtonPressed;
         topButtonPrevious = topButtonPressed;
@@ -424,16 +464,135 @@ public class InputController {
         vKeyPrevious = isVKeyPressed();
         upKeyPrevious = isUpKeyPressed();
         downKeyPrevious = isDownKeyPressed();
+    }
 
-        // Check to see if a GamePad is connected
-        if (xbox.isConnected()) {
-            readGamepad(bounds, scale);
-            if (id == 0)
-                readKeyboard(bounds, scale, true); // Read as a back-up
-        } else {
-            if (id == 0)
-                readKeyboard(bounds, scale, false);
+    /**
+     * Returns every button and key this controller has pressed, one bit apiece.
+     * <p>
+     * Together with the sticks and the crosshair, this is all the state that
+     * readInput produces, so it is what an input recording keeps of each step.
+     *
+     * @return the pressed buttons and keys, as bits
+     */
+    public long getButtonState() {
+        boolean[] pressed = buttonCache;
+        pressed[0] = rightClickPressed;
+        pressed[1] = leftClickPressed;
+        pressed[2] = sKeyPressed;
+        pressed[3] = nKeyPressed;
+        pressed[4] = lKeyPressed;
+        pressed[5] = leftKeyPressed;
+        pressed[6] = rightKeyPressed;
+        pressed[7] = enterKeyPressed;
+        pressed[8] = tKeyPressed;
+        pressed[9] = eKeyPressed;
+        pressed[10] = gKeyPressed;
+        pressed[11] = hKeyPressed;
+        pressed[12] = bKeyPressed;
+        pressed[13] = shiftKeyPressed;
+        pressed[14] = spaceKeyPressed;
+        pressed[15] = vKeyPressed;
+        pressed[16] = lShiftKeyPressed;
+        pressed[17] = rShiftKeyPressed;
+        pressed[18] = oneKeyPressed;
+        pressed[19] = twoKeyPressed;
+        pressed[20] = threeKeyPressed;
+        pressed[21] = zKeyPressed;
+        pressed[22] = xKeyPressed;
+        pressed[23] = startButtonPressed;
+        pressed[24] = leftButtonPressed;
+        pressed[25] = rightButtonPressed;
+        pressed[26] = bottomButtonPressed;
+        pressed[27] = topButtonPressed;
+        pressed[28] = backButtonPressed;
+        pressed[29] = topDPadPressed;
+        pressed[30] = rightDPadPressed;
+        pressed[31] = leftDPadPressed;
+        pressed[32] = bottomDPadPressed;
+        pressed[33] = upKeyPressed;
+        pressed[34] = downKeyPressed;
+        pressed[35] = leftGrabPressed;
+        pressed[36] = rightGrabPressed;
+        pressed[37] = leftStickPressed;
+        pressed[38] = rightStickPressed;
+        pressed[39] = altKeyPressed;
+        pressed[40] = dotKeyPressed;
+
+        long state = 0;
+        for (int i = 0; i < BUTTON_COUNT; i++) {
+            if (pressed[i]) {
+                state |= 1L << i;
+            }
         }
+        return state;
+    }
+
+    /**
+     * Takes the input for this frame from a recording rather than the devices.
+     * <p>
+     * This is readInput for a replay: the state of the last frame is kept in
+     * the same way, so presses and releases are seen exactly as they were.
+     *
+     * @param buttons   the pressed buttons and keys, as from getButtonState()
+     * @param leftHori  sideways movement of the left arm
+     * @param leftVert  vertical movement of the left arm
+     * @param rightHori sideways movement of the right arm
+     * @param rightVert vertical movement of the right arm
+     * @param crossX    the x-coordinate of the crosshair
+     * @param crossY    the y-coordinate of the crosshair
+     */
+    public void replayInput(long buttons, float leftHori, float leftVert, float rightHori, float rightVert,
+                            float crossX, float crossY) {
+        savePrevious();
+
+        boolean[] pressed = buttonCache;
+        for (int i = 0; i < BUTTON_COUNT; i++) {
+            pressed[i] = (buttons & (1L << i)) != 0;
+        }
+        rightClickPressed = pressed[0];
+        leftClickPressed = pressed[1];
+        sKeyPressed = pressed[2];
+        nKeyPressed = pressed[3];
+        lKeyPressed = pressed[4];
+        leftKeyPressed = pressed[5];
+        rightKeyPressed = pressed[6];
+        enterKeyPressed = pressed[7];
+        tKeyPressed = pressed[8];
+        eKeyPressed = pressed[9];
+        gKeyPressed = pressed[10];
+        hKeyPressed = pressed[11];
+        bKeyPressed = pressed[12];
+        shiftKeyPressed = pressed[13];
+        spaceKeyPressed = pressed[14];
+        vKeyPressed = pressed[15];
+        lShiftKeyPressed = pressed[16];
+        rShiftKeyPressed = pressed[17];
+        oneKeyPressed = pressed[18];
+        twoKeyPressed = pressed[19];
+        threeKeyPressed = pressed[20];
+        zKeyPressed = pressed[21];
+        xKeyPressed = pressed[22];
+        startButtonPressed = pressed[23];
+        leftButtonPressed = pressed[24];
+        rightButtonPressed = pressed[25];
+        bottomButtonPressed = pressed[26];
+        topButtonPressed = pressed[27];
+        backButtonPressed = pressed[28];
+        topDPadPressed = pressed[29];
+        rightDPadPressed = pressed[30];
+        leftDPadPressed = pressed[31];
+        bottomDPadPressed = pressed[32];
+        upKeyPressed = pressed[33];
+        downKeyPressed = pressed[34];
+        leftGrabPressed = pressed[35];
+        rightGrabPressed = pressed[36];
+        leftStickPressed = pressed[37];
+        rightStickPressed = pressed[38];
+        altKeyPressed = pressed[39];
+        dotKeyPressed = pressed[40];
+
+        setSticks(leftHori, leftVert, rightHori, rightVert);
+        crosshair.set(crossX, crossY);
     }
 
     /**
@@ -494,6 +653,34 @@ public class InputController {
         rightGrabPressed = false;
     }
 
+    /**
+     * Sets the arm sticks directly, bypassing the devices.
+     * <p>
+     * This is how headless worlds are driven, as they never call readInput.
+     *
+     * @param leftHori  sideways movement of the left arm
+     * @param leftVert  vertical movement of the left arm
+     * @param rightHori sideways movement of the right arm
+     * @param rightVert vertical movement of the right arm
+     */
+    public void setSticks(float leftHori, float leftVert, float rightHori, float rightVert) {
+        leftHorizontal = leftHori;
+        leftVertical = leftVert;
+        rightHorizontal = rightHori;
+        rightVertical = rightVert;
+    }
+
+    /**
+     * Sets the grab buttons directly, bypassing the devices.
+     *
+     * @param left  whether the left hand is grabbing
+     * @param right whether the right hand is grabbing
+     */
+    public void setGrabs(boolean left, boolean right) {
+        leftGrabPressed = left;
+        rightGrabPressed = right;
+    }
+
     /**
      * Reads input from the keyboard.
      * <p>
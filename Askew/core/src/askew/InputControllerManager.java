@@ -6,7 +6,7 @@ import java.util.List;
 
 public class InputControllerManager {
 
-    private static final int NUM_CONTROLLERS = 2;
+    public static final int NUM_CONTROLLERS = 2;
 
     private static InputControllerManager instance;
 
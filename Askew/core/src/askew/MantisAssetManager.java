@@ -4,15 +4,25 @@ import askew.playermode.gamemode.MenuManager;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.TextureAtlas;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FileTextureData;
+import com.badlogic.gdx.utils.Array;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * In addition to being the actual asset manager, this holds references to certain textures which require
@@ -21,9 +31,23 @@ import java.util.Map;
 @SuppressWarnings("MismatchedQueryAndUpdateOfCollection")
 public class MantisAssetManager extends AssetManager {
 
+    /**
+     * What the alpha of a texture's pixels is like, which decides whether the
+     * sprite batch can group its draws
+     */
+    public enum Alpha {
+        /** Every pixel is opaque */
+        OPAQUE,
+        /** Every pixel is either clear or opaque */
+        HARD,
+        /** Some pixels are partly clear, or the pixels could not be read */
+        SOFT
+    }
+
     public static final String WALL_TEXTURE = "texture/wall/wall.png";
     public static final String EDGE_TEXTURE = "texture/wall/edge.png";
     public static final String THORN_TEXTURE = "texture/wall/edge4.png";
+    public static final String STATIC_ATLAS = "texture/packed/static.atlas";
     @Getter
     private final Map<String, TextureRegion> processedTextureMap;
     private boolean loaded;
@@ -33,6 +57,34 @@ public class MantisAssetManager extends AssetManager {
     private String[] texturePaths;
     @Getter
     private TextureAtlas textureAtlas;
+    /**
+     * The packed static textures, or null if they have not been packed
+     */
+    private TextureAtlas staticAtlas;
+    /**
+     * The texture paths that are regions of the static atlas
+     */
+    private final Set<String> packedPaths;
+    private final Map<String, TextureRegion> packedRegions;
+    /**
+     * Textures that are not loaded at startup, but when a level uses them
+     */
+    private final Set<String> levelTexturePaths;
+    /**
+     * The level textures currently loaded
+     */
+    private final Set<String> loadedLevelTextures;
+    /**
+     * Goes up every time a level texture is disposed, so anything holding on to
+     * level textures can tell whether they are still alive
+     */
+    @Getter
+    private int levelTextureGeneration;
+    /**
+     * The alpha of every loaded texture, worked out as it loads
+     */
+    private final Map<Texture, Alpha> textureAlpha;
+    private final Array<Texture> loadedTextures = new Array<>();
 
     @Getter
     private MenuManager menuManager;
@@ -41,6 +93,202 @@ public class MantisAssetManager extends AssetManager {
         super();
         processedTextureMap = new HashMap<>();
         textureAtlas = new TextureAtlas();
+        packedPaths = new HashSet<>();
+        packedRegions = new HashMap<>();
+        levelTexturePaths = new HashSet<>();
+        loadedLevelTextures = new HashSet<>();
+        textureAlpha = new HashMap<>();
+    }
+
+    /**
+     * Marks a texture to be loaded only when a level uses it.
+     *
+     * @param path The texture path
+     */
+    public void deferLevelTexture(String path) {
+        levelTexturePaths.add(path);
+    }
+
+    /**
+     * Returns every texture that is only loaded when a level uses it.
+     *
+     * @return every texture that is only loaded when a level uses it.
+     */
+    public Set<String> getLevelTexturePaths() {
+        return Collections.unmodifiableSet(levelTexturePaths);
+    }
+
+    /**
+     * Makes the given textures the loaded level textures, blocking until they are loaded.
+     * <p>
+     * Paths that are not deferred level textures are ignored, as those are always
+     * loaded.  The asset manager counts references, so the new textures are loaded
+     * before the old ones are unloaded; a texture used by both is never reloaded.
+     *
+     * @param paths The textures the level uses
+     */
+    public void loadLevelTextures(Collection<String> paths) {
+        Set<String> wanted = new HashSet<>();
+        for (String path : paths) {
+            if (!levelTexturePaths.contains(path)) {
+                continue;
+            }
+            if (Gdx.files.internal(path).exists()) {
+                wanted.add(path);
+            } else {
+                System.err.println("Missing level texture: " + path);
+            }
+        }
+        for (String path : wanted) {
+            load(path, Texture.class);
+        }
+        finishLoading();
+        classifyTextures();
+        for (String path : loadedLevelTextures) {
+            if (!wanted.contains(path)) {
+                textureAlpha.remove(get(path, Texture.class));
+                levelTextureGeneration++;
+            }
+            unload(path);
+        }
+        loadedLevelTextures.clear();
+        loadedLevelTextures.addAll(wanted);
+    }
+
+    /**
+     * Unloads every level texture.
+     */
+    public void unloadLevelTextures() {
+        loadLevelTextures(Collections.emptySet());
+    }
+
+    /**
+     * Queues the static atlas for loading, if it has been packed.
+     * <p>
+     * Only the atlas file is read here, to learn which textures it holds so
+     * that they are not also loaded on their own.
+     */
+    public void preloadStaticAtlas() {
+        FileHandle handle = Gdx.files.internal(STATIC_ATLAS);
+        if (!handle.exists()) {
+            return;
+        }
+        TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(handle, handle.parent(), false);
+        for (TextureAtlas.TextureAtlasData.Region region : data.getRegions()) {
+            packedPaths.add(region.name + ".png");
+        }
+        load(STATIC_ATLAS, TextureAtlas.class);
+    }
+
+    /**
+     * Returns whether the texture is a region of the static atlas.
+     *
+     * @param path The texture path
+     * @return whether the texture is a region of the static atlas.
+     */
+    public boolean isPacked(String path) {
+        return packedPaths.contains(path);
+    }
+
+    /**
+     * Returns a new region showing the whole of the given texture.
+     * <p>
+     * The region is cut from the static atlas if the texture was packed, so that
+     * it shares a page with the other static textures.  Otherwise it covers the
+     * standalone texture.  Either way the caller may flip or alter it freely.
+     *
+     * @param path The texture path
+     * @return a new region showing the whole of the given texture.
+     */
+    public TextureRegion getRegion(String path) {
+        if (!isPacked(path)) {
+            return new TextureRegion(get(path, Texture.class));
+        }
+        TextureRegion region = packedRegions.get(path);
+        if (region == null) {
+            if (staticAtlas == null) {
+                staticAtlas = get(STATIC_ATLAS, TextureAtlas.class);
+            }
+            region = staticAtlas.findRegion(path.substring(0, path.lastIndexOf('.')));
+            packedRegions.put(path, region);
+        }
+        return new TextureRegion(region);
+    }
+
+    /**
+     * Returns what the alpha of a texture's pixels is like.
+     * <p>
+     * Textures that were not loaded by this (made from a pixmap in code) are
+     * soft, as their pixels are not known.
+     *
+     * @param texture The texture
+     * @return what the alpha of the texture's pixels is like.
+     */
+    public Alpha getAlpha(Texture texture) {
+        Alpha alpha = textureAlpha.get(texture);
+        return alpha == null ? Alpha.SOFT : alpha;
+    }
+
+    /**
+     * Works out the alpha of every loaded texture that does not have it yet.
+     * <p>
+     * This reads each image back from its file, so it is done as textures are
+     * loaded rather than the first time they are drawn, which could be in the
+     * middle of play.
+     */
+    private void classifyTextures() {
+        loadedTextures.clear();
+        getAll(Texture.class, loadedTextures);
+        for (Texture texture : textureAtlas.getTextures()) {
+            loadedTextures.add(texture);
+        }
+        for (Texture texture : loadedTextures) {
+            if (!textureAlpha.containsKey(texture)) {
+                textureAlpha.put(texture, readAlpha(texture.getTextureData()));
+            }
+        }
+        loadedTextures.clear();
+    }
+
+    /**
+     * Reads what the alpha of an image is like, counting alpha the shader
+     * discards as clear and alpha within a step of full as opaque.
+     */
+    private static Alpha readAlpha(TextureData data) {
+        Pixmap.Format format = data.getFormat();
+        if (format == Pixmap.Format.RGB888 || format == Pixmap.Format.RGB565) {
+            return Alpha.OPAQUE;
+        }
+        if (!(data instanceof FileTextureData)) {
+            return Alpha.SOFT;
+        }
+
+        if (!data.isPrepared()) {
+            data.prepare();
+        }
+        Pixmap pixmap = data.consumePixmap();
+        boolean clear = false;
+        boolean soft = false;
+        if (pixmap.getFormat() == Pixmap.Format.RGBA8888) {
+            ByteBuffer pixels = pixmap.getPixels();
+            for (int i = 3, n = pixels.limit(); i < n && !soft; i += 4) {
+                int alpha = pixels.get(i) & 0xff;
+                clear |= alpha <= 2;
+                soft = alpha > 2 && alpha < 0xfe;
+            }
+        } else {
+            for (int y = 0; y < pixmap.getHeight() && !soft; y++) {
+                for (int x = 0; x < pixmap.getWidth() && !soft; x++) {
+                    int alpha = pixmap.getPixel(x, y) & 0xff;
+                    clear |= alpha <= 2;
+                    soft = alpha > 2 && alpha < 0xfe;
+                }
+            }
+        }
+        if (data.disposePixmap()) {
+            pixmap.dispose();
+        }
+        return soft ? Alpha.SOFT : clear ? Alpha.HARD : Alpha.OPAQUE;
     }
 
     public void preloadProcess() {
@@ -61,6 +309,7 @@ public class MantisAssetManager extends AssetManager {
             createTexture(THORN_TEXTURE);
             createTexture(EDGE_TEXTURE);
             textureAtlas = new TextureAtlas(Gdx.files.internal("texture/packed/packed.atlas"));
+            classifyTextures();
         }
 
         menuManager = new MenuManager(get("shared/ReginaFree.ttf", BitmapFont
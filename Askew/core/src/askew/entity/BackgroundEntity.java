@@ -2,8 +2,8 @@ package askew.entity;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import lombok.Getter;
@@ -161,13 +161,17 @@ public class BackgroundEntity extends Entity {
         texturePath = path;
     }
 
+    @Override
+    protected float getDrawDepth() {
+        return depth;
+    }
+
 
     @Override
     public void setTextures(MantisAssetManager manager) {
-        Texture tex = manager.get(texturePath);
-        texture = new TextureRegion(tex);
+        texture = manager.getRegion(texturePath);
         origin.set(texture.getRegionWidth() / 2.0f, texture.getRegionHeight() / 2.0f);
-        aspectRatio = (float) tex.getWidth() / (float) tex.getHeight();
+        aspectRatio = (float) texture.getRegionWidth() / (float) texture.getRegionHeight();
     }
 
     @Override
@@ -180,6 +184,20 @@ public class BackgroundEntity extends Entity {
         draw(canvas, tint);
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        return view.overlaps(x, y, depth, getViewRadius());
+    }
+
+    /**
+     * Returns how far from its position this entity is drawn, in world coordinates.
+     *
+     * @return a radius around the position that holds everything drawn
+     */
+    protected float getViewRadius() {
+        return (Math.abs(width * scalex * aspectRatio) + Math.abs(height * scaley)) / 2;
+    }
+
     void draw(GameCanvas canvas, Color tint) {
         if (texture != null) {
             canvas.drawBackgroundEntity(texture, tint, origin.x, origin.y, getX() * drawScale.x, getY() * drawScale.y, getDepth(), (float)Math.toRadians(getAngle()),
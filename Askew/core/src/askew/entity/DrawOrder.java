@@ -0,0 +1,108 @@
+package askew.entity;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The entities of a level, kept in the order they should be drawn.
+ * <p>
+ * The order almost never changes during play, so rather than sorting every frame
+ * we keep the entities sorted by their draw key and only do work when an entity
+ * is added or removed.  Keys are taken when an entity is added, so an entity whose
+ * depth or draw number changes must be removed and added again.
+ */
+@SuppressWarnings("WeakerAccess")
+public class DrawOrder {
+
+    private final Array<Entity> entities = new Array<>();
+    private long[] keys = new long[64];
+
+    /**
+     * Adds an entity in draw order.
+     * <p>
+     * Entities with equal keys are drawn in the order they were added.
+     *
+     * @param entity The entity to add
+     */
+    public void add(Entity entity) {
+        long key = entity.getDrawKey();
+        int size = entities.size;
+        if (size == keys.length) {
+            long[] grown = new long[size * 2];
+            System.arraycopy(keys, 0, grown, 0, size);
+            keys = grown;
+        }
+
+        // Insert after every entity with the same key
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        System.arraycopy(keys, lo, keys, lo + 1, size - lo);
+        keys[lo] = key;
+        entities.insert(lo, entity);
+    }
+
+    /**
+     * Removes an entity, if it is present.
+     *
+     * @param entity The entity to remove
+     * @return true if the entity was removed
+     */
+    public boolean remove(Entity entity) {
+        int index = entities.indexOf(entity, true);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(keys, index + 1, keys, index, entities.size - index - 1);
+        entities.removeIndex(index);
+        return true;
+    }
+
+    /**
+     * Makes this hold the same entities in the same order as another.
+     *
+     * @param other The order to copy
+     */
+    public void set(DrawOrder other) {
+        entities.clear();
+        entities.addAll(other.entities);
+        if (keys.length < other.keys.length) {
+            keys = new long[other.keys.length];
+        }
+        System.arraycopy(other.keys, 0, keys, 0, other.entities.size);
+    }
+
+    /**
+     * Removes every entity.
+     */
+    public void clear() {
+        entities.clear();
+    }
+
+    /**
+     * Returns the number of entities.
+     *
+     * @return the number of entities.
+     */
+    public int size() {
+        return entities.size;
+    }
+
+    /**
+     * Returns the entity drawn at the given position.
+     * <p>
+     * Index 0 is drawn first (it is the furthest back).
+     *
+     * @param index The draw position
+     * @return the entity drawn at the given position.
+     */
+    public Entity get(int index) {
+        return entities.get(index);
+    }
+}
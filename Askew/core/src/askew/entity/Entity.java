@@ -3,7 +3,7 @@ package askew.entity;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
-import askew.playermode.gamemode.Particles.Particle;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.math.Vector2;
 import lombok.Getter;
 
@@ -81,6 +81,51 @@ public abstract class Entity implements Comparable {
 
     public abstract void draw(GameCanvas canvas);
 
+    /**
+     * Draws this entity a fraction of the way through the last physics step.
+     * <p>
+     * Only physics objects move between steps, so everything else is drawn where it is.
+     *
+     * @param canvas Drawing context
+     * @param alpha  How far the frame is from the previous step to the current one (0 to 1)
+     */
+    public void draw(GameCanvas canvas, float alpha) {
+        draw(canvas);
+    }
+
+    /**
+     * Remembers where this entity is before a physics step, so that it can be
+     * drawn between steps.
+     */
+    public void savePreviousTransform() {
+    }
+
+    /**
+     * Copies what drawing needs from the physics, so that this can be drawn
+     * while another thread steps the world.
+     */
+    public void captureSnapshot() {
+    }
+
+    /**
+     * Goes back to drawing from the physics, once no other thread steps the world.
+     */
+    public void releaseSnapshot() {
+    }
+
+    /**
+     * Returns whether this entity may be seen, so that it has to be drawn.
+     * <p>
+     * This only has to be conservative.  Entities that do not know how far they
+     * reach are always drawn.
+     *
+     * @param view the part of the world the camera can see
+     * @return whether this entity may be seen
+     */
+    public boolean isInView(ViewBounds view) {
+        return true;
+    }
+
     public Vector2 getModifiedPosition(float adjustedCxCamera, float adjustedCyCamera) {
         Vector2 pos = getPosition();
         if (this instanceof BackgroundEntity) {
@@ -103,6 +148,48 @@ public abstract class Entity implements Comparable {
         }
     }
 
+    /**
+     * Returns the depth used to order this entity for drawing.
+     * <p>
+     * Everything in the plane of play is at depth 1; parallax layers override this.
+     *
+     * @return the depth used to order this entity for drawing.
+     */
+    protected float getDrawDepth() {
+        return 1;
+    }
+
+    /**
+     * Returns the primitive key that orders entities for drawing.
+     * <p>
+     * Entities are drawn in ascending key order: deepest first, then highest draw
+     * number.  Entities with equal keys keep the order they were added in (the
+     * order of the level file), as overlapping backgrounds at one depth rely on
+     * it.  Grouping by texture is left to the deferred pass of the sprite batch,
+     * which can do it without changing what covers what.
+     *
+     * @return the draw key of this entity.
+     */
+    public long getDrawKey() {
+        return drawKey(getDrawDepth(), drawNumber);
+    }
+
+    /**
+     * Packs a depth and draw number into a single sortable key.
+     *
+     * @param depth      The parallax depth (larger is further back)
+     * @param drawNumber The draw number (larger is further back)
+     * @return the packed draw key.
+     */
+    public static long drawKey(float depth, int drawNumber) {
+        // Make the float bits order like ints, then flip so deeper sorts first
+        int depthBits = Float.floatToIntBits(depth);
+        depthBits ^= (depthBits >> 31) & 0x7fffffff;
+        long high = ~depthBits;
+        long low = (0x7fff - drawNumber) & 0xffffL;
+        return (high << 32) | low;
+    }
+
     @Override
     public int compareTo(Object o) {
         //noinspection ConstantConditions
@@ -110,37 +197,11 @@ public abstract class Entity implements Comparable {
             return -1;
         }
 
-        float thisDepth = 1;
-        float oDepth = 1;
-        int oDrawNum = 0;
-
-        if (this instanceof BackgroundEntity) {
-            thisDepth = ((BackgroundEntity) this).getDepth();
-        }
+        long oKey = drawKey(1, 0);
         if (o instanceof Entity) {
-            if (o instanceof BackgroundEntity) {
-                oDepth = ((BackgroundEntity) o).getDepth();
-            }
-            oDrawNum = ((Entity) o).getDrawNumber();
+            oKey = ((Entity) o).getDrawKey();
         }
-
-        if (o instanceof Particle) {
-            oDepth = ((Particle) o).getDepth();
-            oDrawNum = ((Particle) o).getDrawNumber();
-        }
-
-        int comp = java.lang.Float.compare(thisDepth, oDepth);
-        if (comp == 0) {
-            if( this instanceof BackgroundEntity && o instanceof  BackgroundEntity){
-                ((BackgroundEntity) this).getTexturePath().compareTo(((BackgroundEntity) o).getTexturePath());
-            }else {
-                comp = java.lang.Integer.compare(this.drawNumber, oDrawNum);
-            }
-        }
-        comp *= -1;
-
-
-        return comp;
+        return Long.compare(getDrawKey(), oKey);
     }
 
 
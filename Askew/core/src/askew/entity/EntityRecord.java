@@ -0,0 +1,297 @@
+package askew.entity;
+
+import askew.MantisAssetManager;
+import askew.entity.ghost.GhostModel;
+import askew.entity.owl.OwlModel;
+import askew.entity.sloth.SlothModel;
+import askew.entity.thorn.ThornModel;
+import askew.entity.tree.PoleVault;
+import askew.entity.tree.StiffBranch;
+import askew.entity.tree.Trunk;
+import askew.entity.vine.Vine;
+import askew.entity.wall.WallModel;
+import com.badlogic.gdx.math.Vector2;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The values an entity is built from, read once from a level.
+ * <p>
+ * Records are immutable, so a level that has been read once can build fresh
+ * entities from its records every time it restarts, without going back to the
+ * JSON.  They can also be written to and read from a compiled level file.  The
+ * JSON loader builds its entities through records too, so entities are always
+ * constructed the same way.
+ * <p>
+ * Changing what a record holds changes the compiled level format, so bump
+ * CompiledLevel.FORMAT_VERSION when you do.
+ */
+public final class EntityRecord {
+
+    private static final byte SLOTH = 0;
+    private static final byte VINE = 1;
+    private static final byte TRUNK = 2;
+    private static final byte POLE_VAULT = 3;
+    private static final byte STIFF_BRANCH = 4;
+    private static final byte OWL = 5;
+    private static final byte WALL = 6;
+    private static final byte THORN = 7;
+    private static final byte GHOST = 8;
+    private static final byte BACKGROUND = 9;
+    private static final byte EYE = 10;
+
+    private static final float[] NO_POINTS = new float[0];
+
+    /**
+     * Which kind of entity this builds
+     */
+    private final byte type;
+    /**
+     * The numeric constructor arguments, in constructor order
+     */
+    private final float[] values;
+    /**
+     * The outline of a wall, empty for everything else
+     */
+    private final float[] points;
+    /**
+     * The tint of a wall or background entity
+     */
+    private final int color;
+    /**
+     * Whether a wall is covered in thorns
+     */
+    private final boolean thorn;
+    /**
+     * The texture of a background entity, null for everything else
+     */
+    private final String texturePath;
+
+    private EntityRecord(byte type, float[] values, float[] points, int color, boolean thorn, String texturePath) {
+        this.type = type;
+        this.values = values;
+        this.points = points;
+        this.color = color;
+        this.thorn = thorn;
+        this.texturePath = texturePath;
+    }
+
+    private EntityRecord(byte type, float... values) {
+        this(type, values, NO_POINTS, 0, false, null);
+    }
+
+    /**
+     * Reads the record of an entity instance, as written by EntityWrapper.
+     *
+     * @param className the CLASSNAME of the entity
+     * @param instance  the INSTANCE of the entity
+     * @return the record, or null if entities of this class are not recorded
+     */
+    public static EntityRecord fromJson(String className, JsonObject instance) {
+        switch (className.substring(className.lastIndexOf("."))) {
+            case ".SlothModel":
+                return new EntityRecord(SLOTH, getFloat(instance, "x"), getFloat(instance, "y"));
+            case ".Vine":
+                return new EntityRecord(VINE, getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "numLinks"), getFloat(instance, "angle"),
+                        getFloat(instance, "omega"), instance.get("texture").getAsInt());
+            case ".Trunk":
+                return new EntityRecord(TRUNK, getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "numLinks"), getFloat(instance, "angle"));
+            case ".PoleVault":
+                return new EntityRecord(POLE_VAULT, getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "numLinks"), getFloat(instance, "angle"));
+            case ".StiffBranch":
+                return new EntityRecord(STIFF_BRANCH, getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "numLinks"), getFloat(instance, "angle"));
+            case ".OwlModel":
+                return new EntityRecord(OWL, getFloat(instance, "x"), getFloat(instance, "y"));
+            case ".WallModel":
+                JsonArray outline = instance.get("points").getAsJsonArray();
+                float[] points = new float[outline.size()];
+                for (int i = 0; i < points.length; i++) {
+                    points[i] = outline.get(i).getAsFloat();
+                }
+                boolean thorn = instance.has("thorn") && instance.get("thorn").getAsBoolean();
+                return new EntityRecord(WALL, new float[]{getFloat(instance, "x"), getFloat(instance, "y")},
+                        points, getColor(instance), thorn, null);
+            case ".ThornModel":
+                return new EntityRecord(THORN, getFloat(instance, "realX"), getFloat(instance, "realY"),
+                        getFloat(instance, "width"), getFloat(instance, "angle"));
+            case ".GhostModel":
+                return new EntityRecord(GHOST, getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "patroldx1"), getFloat(instance, "patroldy1"),
+                        getFloat(instance, "patroldx2"), getFloat(instance, "patroldy2"));
+            case ".BackgroundEntity":
+                return new EntityRecord(BACKGROUND, new float[]{getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "width"), getFloat(instance, "height"), getFloat(instance, "depth"),
+                        getFloat(instance, "angle"), getFloat(instance, "scalex"), getFloat(instance, "scaley")},
+                        NO_POINTS, getColor(instance), false, instance.get("texturePath").getAsString());
+            case ".EyeEntity":
+                return new EntityRecord(EYE, new float[]{getFloat(instance, "x"), getFloat(instance, "y"),
+                        getFloat(instance, "depth"), getFloat(instance, "angle"),
+                        getFloat(instance, "scalex"), getFloat(instance, "scaley")},
+                        NO_POINTS, getColor(instance), false, null);
+            default:
+                return null;
+        }
+    }
+
+    private static float getFloat(JsonObject instance, String name) {
+        return instance.get(name).getAsFloat();
+    }
+
+    /**
+     * Reads a color, which older levels saved as a hex string rather than a number.
+     */
+    private static int getColor(JsonObject instance) {
+        String colorString;
+        try {
+            colorString = instance.get("color").getAsString();
+        } catch (NullPointerException e) {
+            colorString = "0xffffffff";
+        }
+        int intColor;
+        try {
+            long color = instance.get("color").getAsLong();
+            intColor = (int) color;
+        } catch (Exception e) {
+            try {
+                long color = Long.decode(colorString);
+                intColor = (int) color;
+            } catch (Exception ee) {
+                long color = Long.valueOf(colorString, 16);
+                intColor = (int) color;
+            }
+        }
+        return intColor;
+    }
+
+    /**
+     * Builds a new entity from this record.
+     * <p>
+     * There is no asset manager when a level is loaded for headless simulation,
+     * in which case the entity is left untextured.
+     *
+     * @param manager the asset manager to texture the entity with, or null
+     * @return the new entity
+     */
+    public Entity build(MantisAssetManager manager) {
+        Entity entity;
+        switch (type) {
+            case SLOTH:
+                SlothModel sloth = new SlothModel(values[0], values[1]);
+                if (manager == null) {
+                    // The sloth normally builds its parts once it has textures
+                    sloth.build();
+                    return sloth;
+                }
+                entity = sloth;
+                break;
+            case VINE:
+                entity = new Vine(values[0], values[1], values[2], values[3], values[4], (int) values[5]);
+                break;
+            case TRUNK:
+                entity = new Trunk(values[0], values[1], values[2], values[3]);
+                break;
+            case POLE_VAULT:
+                entity = new PoleVault(values[0], values[1], values[2], new Vector2(1, 1), values[3]);
+                break;
+            case STIFF_BRANCH:
+                entity = new StiffBranch(values[0], values[1], values[2], new Vector2(1, 1), values[3]);
+                break;
+            case OWL:
+                entity = new OwlModel(values[0], values[1]);
+                break;
+            case WALL:
+                // The wall keeps its points, and this record must outlive it
+                entity = new WallModel(values[0], values[1], points.clone(), color, thorn);
+                break;
+            case THORN:
+                entity = new ThornModel(values[0], values[1], values[2], values[3]);
+                break;
+            case GHOST:
+                entity = new GhostModel(values[0], values[1], values[2], values[3], values[4], values[5]);
+                break;
+            case BACKGROUND:
+                entity = new BackgroundEntity(values[0], values[1], values[2], values[3], values[4],
+                        values[5], values[6], values[7], texturePath, color);
+                break;
+            case EYE:
+                entity = new EyeEntity(values[0], values[1], values[2], values[3], values[4], values[5], color);
+                break;
+            default:
+                throw new IllegalStateException("Unknown entity record type " + type);
+        }
+        if (manager != null) {
+            entity.setTextures(manager);
+        }
+        return entity;
+    }
+
+    /**
+     * Returns the texture this entity was placed with, if it has one.
+     * <p>
+     * Only background entities name their texture; everything else uses the
+     * textures of its type.
+     *
+     * @return the texture path, or null
+     */
+    public String getTexturePath() {
+        return texturePath;
+    }
+
+    /**
+     * Writes this record to a compiled level.
+     *
+     * @param out the compiled level being written
+     * @throws IOException if the record cannot be written
+     */
+    public void write(DataOutputStream out) throws IOException {
+        out.writeByte(type);
+        writeFloats(out, values);
+        writeFloats(out, points);
+        out.writeInt(color);
+        out.writeBoolean(thorn);
+        out.writeBoolean(texturePath != null);
+        if (texturePath != null) {
+            out.writeUTF(texturePath);
+        }
+    }
+
+    /**
+     * Reads a record from a compiled level.
+     *
+     * @param in the compiled level being read
+     * @return the record
+     * @throws IOException if the record cannot be read
+     */
+    public static EntityRecord read(DataInputStream in) throws IOException {
+        byte type = in.readByte();
+        float[] values = readFloats(in);
+        float[] points = readFloats(in);
+        int color = in.readInt();
+        boolean thorn = in.readBoolean();
+        String texturePath = in.readBoolean() ? in.readUTF() : null;
+        return new EntityRecord(type, values, points.length == 0 ? NO_POINTS : points, color, thorn, texturePath);
+    }
+
+    private static void writeFloats(DataOutputStream out, float[] floats) throws IOException {
+        out.writeShort(floats.length);
+        for (float f : floats) {
+            out.writeFloat(f);
+        }
+    }
+
+    private static float[] readFloats(DataInputStream in) throws IOException {
+        float[] floats = new float[in.readUnsignedShort()];
+        for (int i = 0; i < floats.length; i++) {
+            floats[i] = in.readFloat();
+        }
+        return floats;
+    }
+}
@@ -39,41 +39,21 @@ public class EntityWrapper implements JsonSerializer<Entity>, JsonDeserializer<E
         String className = prim.getAsString();
 
         // Interpret the class, construct as appropriate
-        String obstacleClass = className.substring(className.lastIndexOf("."));
         JsonObject instance = jsonObject.get("INSTANCE").getAsJsonObject();
-        switch (obstacleClass) {
-            case ".SlothModel":
-                return JsonEntityFactory.createSloth(manager, instance);
-            case ".Vine":
-                return JsonEntityFactory.createVine(manager, instance);
-            case ".Trunk":
-                return JsonEntityFactory.createTrunk(manager, instance);
-            case ".PoleVault":
-                return JsonEntityFactory.createPoleVault(manager, instance);
-            case ".StiffBranch":
-                return JsonEntityFactory.createStiffBranch(manager, instance);
-            case ".OwlModel":
-                return JsonEntityFactory.createOwl(manager, instance);
-            case ".WallModel":
-                return JsonEntityFactory.createWall(manager, instance);
-            case ".ThornModel":
-                return JsonEntityFactory.createThorn(manager, instance);
-            case ".GhostModel":
-                return JsonEntityFactory.createGhost(manager, instance);
-            case ".BackgroundEntity":
-                return JsonEntityFactory.createBGEntity(manager, instance);
-            case ".EyeEntity":
-                return JsonEntityFactory.createEyeEntity(manager, instance);
-            default:
-                System.err.println("Unrecognized in wrapper: " + obstacleClass);
-                Class<?> klass;
-                try {
-                    klass = Class.forName(className);
-                } catch (ClassNotFoundException e) {
-                    e.printStackTrace();
-                    throw new JsonParseException(e.getMessage());
-                }
-                return context.deserialize(jsonObject.get(INSTANCE), klass);
+        EntityRecord record = EntityRecord.fromJson(className, instance);
+        if (record != null) {
+            return record.build(manager);
+        }
+
+        String obstacleClass = className.substring(className.lastIndexOf("."));
+        System.err.println("Unrecognized in wrapper: " + obstacleClass);
+        Class<?> klass;
+        try {
+            klass = Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            e.printStackTrace();
+            throw new JsonParseException(e.getMessage());
         }
+        return context.deserialize(jsonObject.get(INSTANCE), klass);
     }
 }
\ No newline at end of file
@@ -4,7 +4,6 @@ import askew.GameCanvas;
 import askew.MantisAssetManager;
 import askew.entity.sloth.SlothModel;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
@@ -12,6 +11,11 @@ import com.badlogic.gdx.math.Vector2;
 public class EyeEntity extends BackgroundEntity {
 
     private transient Vector2 pupilOffset;
+    /**
+     * Where the pupils look, copied for drawing while the world is stepped
+     */
+    private transient Vector2 snapshotPupilOffset;
+    private transient boolean inSnapshot;
     private final String pathEyes = "texture/eye/eyes.png";
     private final String pathPupils = "texture/eye/pupils.png";
     private transient TextureRegion texture2;
@@ -24,12 +28,12 @@ public class EyeEntity extends BackgroundEntity {
                      float angle, float scalex, float scaley, int color) {
         super(x, y, 1, 1, depth, angle, scalex, scaley, "texture/eye/eyes.png", color);
         pupilOffset = new Vector2();
+        snapshotPupilOffset = new Vector2();
     }
 
     public void setTextures(MantisAssetManager manager) {
         super.setTextures(manager);
-        Texture tex = manager.get(pathPupils);
-        texture2 = new TextureRegion(tex);
+        texture2 = manager.getRegion(pathPupils);
         origin.set(texture2.getRegionWidth() / 2.0f, texture2.getRegionHeight() / 2.0f);
 //        aspectRatio =(float)tex.getWidth()/(float)tex.getHeight();
     }
@@ -45,6 +49,26 @@ public class EyeEntity extends BackgroundEntity {
         pupilOffset.set(diffx,diffy);
     }
 
+    /**
+     * Copies where the pupils look, as update() moves them along with the physics.
+     */
+    @Override
+    public void captureSnapshot() {
+        snapshotPupilOffset.set(pupilOffset);
+        inSnapshot = true;
+    }
+
+    @Override
+    public void releaseSnapshot() {
+        inSnapshot = false;
+    }
+
+    @Override
+    protected float getViewRadius() {
+        // Both images are drawn around the origin of the pupils, and the pupils wander
+        return 2 * super.getViewRadius() + 0.2f;
+    }
+
     @Override
     public void draw(GameCanvas canvas) {
         draw(canvas, tint);
@@ -52,6 +76,7 @@ public class EyeEntity extends BackgroundEntity {
 
     public void draw(GameCanvas canvas, Color tint) {
         if (texture != null && texture2 != null) {
+            Vector2 pupilOffset = inSnapshot ? snapshotPupilOffset : this.pupilOffset;
             canvas.drawBackgroundEntity(texture, tint, origin.x, origin.y, getX() * drawScale.x, getY() * drawScale.y, getDepth(), getAngle(),
                     (1.0f / texture.getRegionWidth()) * getWidth() * getDrawScale().x * objectScale.x * aspectRatio,
                     (1.0f / texture.getRegionHeight() * getHeight() * getDrawScale().y * objectScale.y), 1);
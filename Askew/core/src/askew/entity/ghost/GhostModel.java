@@ -4,6 +4,7 @@ import askew.GameCanvas;
 import askew.MantisAssetManager;
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.BoxObstacle;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
@@ -54,6 +55,10 @@ public class GhostModel extends BoxObstacle {
     private transient float elapseTime;
 
     private transient boolean faceRight;
+    /**
+     * Cache vector for the way to the next destination
+     */
+    private final transient Vector2 dPos = new Vector2();
 
     /**
      * Creates a new ragdoll with its head at the given position.
@@ -98,6 +103,12 @@ public class GhostModel extends BoxObstacle {
         setTexture(ghostTextureRegion);
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        // Drawing advances the animation, so always draw the ghost
+        return true;
+    }
+
     @Override
     public void draw(GameCanvas canvas) {
         elapseTime += Gdx.graphics.getDeltaTime();
@@ -112,7 +123,7 @@ public class GhostModel extends BoxObstacle {
             if (drawFrame.isFlipX())
                 drawFrame.flip(true, false);
         }
-        canvas.draw(drawFrame, Color.WHITE, origin.x, origin.y, getPosition().x * drawScale.x, getPosition().y * drawScale.y, getAngle(),
+        canvas.draw(drawFrame, Color.WHITE, origin.x, origin.y, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getDrawAngle(),
                 (1.0f / texture.getRegionWidth()) * getWidth() * getDrawScale().x * objectScale.x,
                 (1.0f / texture.getRegionHeight() * getHeight() * getDrawScale().y * objectScale.y));
 
@@ -122,14 +133,14 @@ public class GhostModel extends BoxObstacle {
     public void update(float dtime) {
         // Calculate vector to destination
         Vector2 myPos = getPosition();
-        Vector2 dPos;
+        Vector2 dPos = this.dPos;
         if (secondDestination) {
-            dPos = new Vector2(patroldx1, patroldy1);
+            dPos.set(patroldx1, patroldy1);
         } else {
-            dPos = new Vector2(patroldx2, patroldy2);
+            dPos.set(patroldx2, patroldy2);
         }
 
-        dPos = dPos.sub(myPos); // Direction now faces the destination
+        dPos.sub(myPos); // Direction now faces the destination
         float distanceToMove = dPos.len();
         float actualMoveDistance = GHOST_SPEED * dtime;
 
@@ -138,11 +149,11 @@ public class GhostModel extends BoxObstacle {
             actualMoveDistance -= distanceToMove;
             secondDestination = !secondDestination;
             if (secondDestination) {
-                dPos = new Vector2(patroldx1, patroldy1);
+                dPos.set(patroldx1, patroldy1);
             } else {
-                dPos = new Vector2(patroldx2, patroldy2);
+                dPos.set(patroldx2, patroldy2);
             }
-            dPos = dPos.sub(myPos); // Direction now faces the destination
+            dPos.sub(myPos); // Direction now faces the destination
         }
 
         // Calculate move proportions
@@ -0,0 +1,200 @@
+/*
+ * AttachedBoxObstacle.java
+ *
+ * A box that is welded to another box by sharing its body rather than by a
+ * joint.  A rigid structure of several boxes is then one body with a fixture
+ * per box, which Box2D solves exactly and for free, while each box is still an
+ * obstacle of its own to draw and to grab.
+ */
+package askew.entity.obstacle;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.World;
+
+/**
+ * Box-shaped model that is a fixture on the body of another box.
+ * <p>
+ * The box keeps where it was, relative to the other box, when its physics was
+ * activated.  Its position and angle are those of that place on the shared
+ * body, and setting them moves the whole body.  The other box must be
+ * activated first and deactivated with it (as the parts of a ComplexObstacle are).
+ * <p>
+ * Every box on the body has itself as the user data of its fixture, so that
+ * whatever touches the body can tell which box it touched.
+ */
+public class AttachedBoxObstacle extends BoxObstacle {
+    /**
+     * The box whose body this box is part of
+     */
+    private final transient BoxObstacle root;
+    /**
+     * The shape of this box, placed where it is on the shared body
+     */
+    private final transient PolygonShape attachedShape = new PolygonShape();
+    private final transient float[] attachedVertices = new float[8];
+    /**
+     * Where the centre of this box is on the shared body
+     */
+    private final transient Vector2 localCenter = new Vector2();
+    /**
+     * The angle of this box relative to the shared body
+     */
+    private transient float localAngle;
+
+    /**
+     * Creates a new box that will be part of the body of root.
+     *
+     * @param root   The box whose body this box is part of
+     * @param x      Initial x position of the box center
+     * @param y      Initial y position of the box center
+     * @param width  The object width in physics units
+     * @param height The object width in physics units
+     */
+    public AttachedBoxObstacle(BoxObstacle root, float x, float y, float width, float height) {
+        super(x, y, width, height);
+        this.root = root;
+    }
+
+    /**
+     * Adds this box to the body of the root, which must already be activated.
+     *
+     * @param world Box2D world to store body
+     * @return true if object allocation succeeded
+     */
+    @Override
+    public boolean activatePhysics(World world) {
+        Body shared = root.getBody();
+        if (shared == null) {
+            return false;
+        }
+        bodyinfo.active = true;
+        localCenter.set(shared.getLocalPoint(bodyinfo.position));
+        localAngle = bodyinfo.angle - shared.getAngle();
+        body = shared;
+        createFixtures();
+
+        // Tell the boxes on the body apart by their fixtures, as the sloth does when grabbing
+        if (root.geometry != null) {
+            root.geometry.setUserData(root);
+        }
+        return true;
+    }
+
+    /**
+     * Takes this box off the shared body.
+     * <p>
+     * If the root has already been deactivated, the box went with its body.
+     *
+     * @param world Box2D world that stores body
+     */
+    @Override
+    public void deactivatePhysics(World world) {
+        if (body != null) {
+            if (root.getBody() == body) {
+                bodyinfo.position.set(getX(), getY());
+                bodyinfo.angle = getAngle();
+                releaseFixtures();
+            }
+            geometry = null;
+            body = null;
+            bodyinfo.active = false;
+        }
+    }
+
+    @Override
+    protected void createFixtures() {
+        if (body == null) {
+            return;
+        }
+
+        releaseFixtures();
+
+        // The box, turned and moved to where it is on the shared body
+        float cos = (float) Math.cos(localAngle);
+        float sin = (float) Math.sin(localAngle);
+        float halfWidth = getWidth() / 2.0f;
+        float halfHeight = getHeight() / 2.0f;
+        for (int i = 0; i < 4; i++) {
+            float x = (i < 2 ? -halfWidth : halfWidth);
+            float y = (i == 0 || i == 3 ? -halfHeight : halfHeight);
+            attachedVertices[i * 2] = localCenter.x + x * cos - y * sin;
+            attachedVertices[i * 2 + 1] = localCenter.y + x * sin + y * cos;
+        }
+        attachedShape.set(attachedVertices);
+
+        fixture.shape = attachedShape;
+        geometry = body.createFixture(fixture);
+        geometry.setUserData(this);
+        markDirty(false);
+    }
+
+    @Override
+    public Vector2 getPosition() {
+        return (body != null ? positionCache.set(body.getWorldPoint(localCenter)) : super.getPosition());
+    }
+
+    @Override
+    public float getX() {
+        return (body != null ? body.getWorldPoint(localCenter).x : super.getX());
+    }
+
+    @Override
+    public float getY() {
+        return (body != null ? body.getWorldPoint(localCenter).y : super.getY());
+    }
+
+    @Override
+    public float getAngle() {
+        return (body != null ? body.getAngle() + localAngle : super.getAngle());
+    }
+
+    @Override
+    public void setPosition(Vector2 value) {
+        setPosition(value.x, value.y);
+    }
+
+    @Override
+    public void setPosition(float x, float y) {
+        if (body != null) {
+            place(x, y, getAngle());
+        } else {
+            super.setPosition(x, y);
+        }
+    }
+
+    @Override
+    public void setX(float value) {
+        setPosition(value, getY());
+    }
+
+    @Override
+    public void setY(float value) {
+        setPosition(getX(), value);
+    }
+
+    @Override
+    public void setAngle(float value) {
+        if (body != null) {
+            place(getX(), getY(), value);
+        } else {
+            super.setAngle(value);
+        }
+    }
+
+    /**
+     * Moves the shared body so that this box ends up at the given place.
+     *
+     * @param x     the x-coordinate of the box center
+     * @param y     the y-coordinate of the box center
+     * @param angle the angle of the box
+     */
+    private void place(float x, float y, float angle) {
+        float bodyAngle = angle - localAngle;
+        float cos = (float) Math.cos(bodyAngle);
+        float sin = (float) Math.sin(bodyAngle);
+        body.setTransform(x - (localCenter.x * cos - localCenter.y * sin),
+                y - (localCenter.x * sin + localCenter.y * cos), bodyAngle);
+    }
+}
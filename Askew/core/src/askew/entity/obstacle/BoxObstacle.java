@@ -13,8 +13,10 @@ package askew.entity.obstacle;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.Fixture;
 import com.badlogic.gdx.physics.box2d.PolygonShape;
@@ -232,15 +234,34 @@ public class BoxObstacle extends SimpleObstacle {
         draw(canvas, Color.WHITE);
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        float width = Math.abs(getWidth() * objectScale.x * customScale.x);
+        float height = Math.abs(getHeight() * objectScale.y * customScale.y);
+        return view.overlaps(getDrawX(), getDrawY(), (width + height) / 2);
+    }
+
     /**
      * Draws the physics object with a tint
      *
      * @param canvas Drawing context
      */
     public void draw(GameCanvas canvas, Color tint) {
+        draw(canvas, texture, origin, tint);
+    }
+
+    /**
+     * Draws the physics object with a tint, as the given texture
+     *
+     * @param canvas  Drawing context
+     * @param texture The texture to draw in place of this object's
+     * @param origin  The texture origin of that texture
+     * @param tint    The color to tint the texture with
+     */
+    public void draw(GameCanvas canvas, TextureRegion texture, Vector2 origin, Color tint) {
         if (texture != null) {
             texture.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            canvas.draw(texture, tint, origin.x, origin.y, getX() * drawScale.x, getY() * drawScale.y, getAngle(),
+            canvas.draw(texture, tint, origin.x, origin.y, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getDrawAngle(),
                     (1.0f / texture.getRegionWidth()) * getWidth() * getDrawScale().x * getObjectScale().x * customScale.x,
                     (1.0f / texture.getRegionHeight() * getHeight() * getDrawScale().y * getObjectScale().y * customScale.y));
         }
@@ -17,6 +17,7 @@
 package askew.entity.obstacle;
 
 import askew.GameCanvas;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
@@ -1048,9 +1049,9 @@ public abstract class ComplexObstacle extends Obstacle {
      * @param
      */
     public void update(float delta) {
-        // Delegate to components
-        for (Obstacle obj : bodies) {
-            obj.update(delta);
+        // Delegate to components; indexed, as Array's iterators can't be used by two threads at once
+        for (int i = 0; i < bodies.size; i++) {
+            bodies.get(i).update(delta);
         }
     }
 
@@ -1086,13 +1087,77 @@ public abstract class ComplexObstacle extends Obstacle {
         }
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        for (int i = 0; i < bodies.size; i++) {
+            if (bodies.get(i).isInView(view)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void savePreviousTransform() {
+        super.savePreviousTransform();
+        for (int i = 0; i < bodies.size; i++) {
+            bodies.get(i).savePreviousTransform();
+        }
+    }
+
+    @Override
+    public void captureSnapshot() {
+        super.captureSnapshot();
+        for (int i = 0; i < bodies.size; i++) {
+            bodies.get(i).captureSnapshot();
+        }
+    }
+
+    @Override
+    public void releaseSnapshot() {
+        super.releaseSnapshot();
+        for (int i = 0; i < bodies.size; i++) {
+            bodies.get(i).releaseSnapshot();
+        }
+    }
+
+    @Override
+    protected void interpolate(float alpha) {
+        super.interpolate(alpha);
+        for (int i = 0; i < bodies.size; i++) {
+            bodies.get(i).interpolate(alpha);
+        }
+    }
+
+    @Override
+    protected void endInterpolation() {
+        super.endInterpolation();
+        for (int i = 0; i < bodies.size; i++) {
+            bodies.get(i).endInterpolation();
+        }
+    }
+
     @SuppressWarnings("SameParameterValue")
     public void draw(GameCanvas canvas, Color tint) {
-        for (Obstacle obj : bodies) {
-            ((SimpleObstacle) obj).draw(canvas, tint);
+        for (int i = 0; i < bodies.size; i++) {
+            ((SimpleObstacle) bodies.get(i)).draw(canvas, tint);
         }
     }
 
+    /**
+     * Draws the physics object with a tint, a fraction of the way through the
+     * last physics step (see draw(GameCanvas, float)).
+     *
+     * @param canvas Drawing context
+     * @param tint   The color to tint every part with
+     * @param alpha  How far the frame is from the previous step to the current one (0 to 1)
+     */
+    public void draw(GameCanvas canvas, Color tint, float alpha) {
+        interpolate(alpha);
+        draw(canvas, tint);
+        endInterpolation();
+    }
+
     /**
      * Draws the outline of the physics body.
      * <p>
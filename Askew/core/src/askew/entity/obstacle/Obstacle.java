@@ -86,6 +86,39 @@ public abstract class Obstacle extends Entity {
     private transient boolean isDirty;
     @Getter
     private transient boolean grabbed;
+    /**
+     * The position and angle at the previous physics step
+     */
+    private transient float previousX;
+    private transient float previousY;
+    private transient float previousAngle;
+    /**
+     * Whether the previous transform has been saved since this was made
+     */
+    private transient boolean hasPrevious;
+    /**
+     * The position and angle to draw at, while interpolating
+     */
+    private transient float drawX;
+    private transient float drawY;
+    private transient float drawAngle;
+    /**
+     * Whether this is being drawn between the previous step and the current one
+     */
+    private transient boolean interpolating;
+    /**
+     * The previous and current transforms, copied for drawing while the world is stepped
+     */
+    private transient float snapshotPreviousX;
+    private transient float snapshotPreviousY;
+    private transient float snapshotPreviousAngle;
+    private transient float snapshotX;
+    private transient float snapshotY;
+    private transient float snapshotAngle;
+    /**
+     * Whether this is drawn from the snapshot rather than from its body
+     */
+    private transient boolean inSnapshot;
     /// BodyDef Methods
 
     /**
@@ -347,7 +380,7 @@ public abstract class Obstacle extends Entity {
      *
      * @param value whether the body is active
      */
-    void setActive(boolean value) {
+    public void setActive(boolean value) {
         bodyinfo.active = value;
     }
 
@@ -978,6 +1011,133 @@ public abstract class Obstacle extends Entity {
      */
     public abstract void drawDebug(GameCanvas canvas);
 
+    /**
+     * Draws the physics object where it was a fraction of the way through the
+     * last physics step.
+     * <p>
+     * Physics runs at a fixed rate and frames are drawn whenever they are ready,
+     * so a frame usually falls between two steps.  Drawing between them keeps
+     * the motion smooth at any refresh rate, at the cost of drawing one step late.
+     *
+     * @param canvas Drawing context
+     * @param alpha  How far the frame is from the previous step to the current one (0 to 1)
+     */
+    @Override
+    public void draw(GameCanvas canvas, float alpha) {
+        interpolate(alpha);
+        draw(canvas);
+        endInterpolation();
+    }
+
+    /**
+     * Remembers the current position and angle as those of the previous step.
+     * <p>
+     * This must be called just before each physics step.
+     */
+    @Override
+    public void savePreviousTransform() {
+        previousX = getX();
+        previousY = getY();
+        previousAngle = getAngle();
+        hasPrevious = true;
+    }
+
+    /**
+     * Makes getDrawX(), getDrawY() and getDrawAngle() return the transform a
+     * fraction of the way from the previous step to the current one.
+     *
+     * @param alpha How far from the previous step to the current one (0 to 1)
+     */
+    protected void interpolate(float alpha) {
+        if (inSnapshot) {
+            drawX = snapshotPreviousX + (snapshotX - snapshotPreviousX) * alpha;
+            drawY = snapshotPreviousY + (snapshotY - snapshotPreviousY) * alpha;
+            drawAngle = snapshotPreviousAngle + (snapshotAngle - snapshotPreviousAngle) * alpha;
+        } else {
+            drawX = getX();
+            drawY = getY();
+            drawAngle = getAngle();
+            if (hasPrevious) {
+                drawX = previousX + (drawX - previousX) * alpha;
+                drawY = previousY + (drawY - previousY) * alpha;
+                drawAngle = previousAngle + (drawAngle - previousAngle) * alpha;
+            }
+        }
+        interpolating = true;
+    }
+
+    /**
+     * Copies the previous and current transforms, so that from now on this is
+     * drawn from the copies and never reads its body.  Drawing can then go on
+     * while the world is stepped on another thread.
+     */
+    @Override
+    public void captureSnapshot() {
+        snapshotX = getX();
+        snapshotY = getY();
+        snapshotAngle = getAngle();
+        snapshotPreviousX = hasPrevious ? previousX : snapshotX;
+        snapshotPreviousY = hasPrevious ? previousY : snapshotY;
+        snapshotPreviousAngle = hasPrevious ? previousAngle : snapshotAngle;
+        inSnapshot = true;
+    }
+
+    @Override
+    public void releaseSnapshot() {
+        inSnapshot = false;
+    }
+
+    /**
+     * Returns whether this is drawn from the snapshot rather than from its body.
+     *
+     * @return whether this is drawn from the snapshot rather than from its body
+     */
+    protected boolean isInSnapshot() {
+        return inSnapshot;
+    }
+
+    /**
+     * Makes getDrawX(), getDrawY() and getDrawAngle() return the current transform again.
+     */
+    protected void endInterpolation() {
+        interpolating = false;
+    }
+
+    /**
+     * Returns the x-coordinate to draw this object at.
+     *
+     * @return the x-coordinate to draw this object at
+     */
+    public float getDrawX() {
+        if (interpolating) {
+            return drawX;
+        }
+        return inSnapshot ? snapshotX : getX();
+    }
+
+    /**
+     * Returns the y-coordinate to draw this object at.
+     *
+     * @return the y-coordinate to draw this object at
+     */
+    public float getDrawY() {
+        if (interpolating) {
+            return drawY;
+        }
+        return inSnapshot ? snapshotY : getY();
+    }
+
+    /**
+     * Returns the angle to draw this object at.
+     *
+     * @return the angle to draw this object at
+     */
+    public float getDrawAngle() {
+        if (interpolating) {
+            return drawAngle;
+        }
+        return inSnapshot ? snapshotAngle : getAngle();
+    }
 
     public void setGrabbed(boolean b) {
         this.grabbed = b;
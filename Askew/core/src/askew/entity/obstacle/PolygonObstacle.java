@@ -17,6 +17,7 @@ package askew.entity.obstacle;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.PolygonRegion;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -36,9 +37,12 @@ import com.badlogic.gdx.utils.ShortArray;
  */
 public class PolygonObstacle extends SimpleObstacle {
     /**
-     * An earclipping triangular to make sure we work with convex shapes
+     * An earclipping triangular to make sure we work with convex shapes.  It
+     * keeps its working arrays between calls, so each thread building levels
+     * (the world farm runs one per thread) needs its own.
      */
-    private static final EarClippingTriangulator TRIANGULATOR = new EarClippingTriangulator();
+    private static final ThreadLocal<EarClippingTriangulator> TRIANGULATOR =
+            ThreadLocal.withInitial(EarClippingTriangulator::new);
     /**
      * Texture information for this object
      */
@@ -217,7 +221,7 @@ public class PolygonObstacle extends SimpleObstacle {
      */
     protected void initShapes(float[] points) {
         // Triangulate
-        ShortArray array = TRIANGULATOR.computeTriangles(points);
+        ShortArray array = TRIANGULATOR.get().computeTriangles(points);
         trimColinear(points, array);
 
         tridx = new short[array.items.length];
@@ -364,6 +368,9 @@ public class PolygonObstacle extends SimpleObstacle {
      */
     public void setDrawScale(float x, float y) {
         assert x != 0 && y != 0 : "Scale cannot be 0";
+        if (x == drawScale.x && y == drawScale.y) {
+            return;
+        }
         float dx = x / drawScale.x;
         float dy = y / drawScale.y;
         // Reset the drawing shape as well
@@ -371,17 +378,57 @@ public class PolygonObstacle extends SimpleObstacle {
             scaled[ii] *= dx;
             scaled[ii + 1] *= dy;
         }
-        if (texture != null) {
-            region = new PolygonRegion(texture, scaled, tridx);
+        if (region != null) {
+            updateTextureCoords();
         }
         drawScale.set(x, y);
     }
 
+    /**
+     * Recomputes the texture coordinates of the region for the current drawing shape.
+     * <p>
+     * The region holds the drawing shape by reference, so only its texture
+     * coordinates go stale when the shape is rescaled.  This is the computation
+     * in the PolygonRegion constructor, done in place so rescaling does not allocate.
+     */
+    private void updateTextureCoords() {
+        float[] coords = region.getTextureCoords();
+        TextureRegion tex = region.getRegion();
+        float u = tex.getU();
+        float v = tex.getV();
+        float uvWidth = tex.getU2() - u;
+        float uvHeight = tex.getV2() - v;
+        int width = tex.getRegionWidth();
+        int height = tex.getRegionHeight();
+        for (int ii = 0; ii < scaled.length; ii += 2) {
+            coords[ii] = u + uvWidth * (scaled[ii] / width);
+            coords[ii + 1] = v + uvHeight * (1 - (scaled[ii + 1] / height));
+        }
+    }
+
     @Override
     public void setTextures(MantisAssetManager manager) {
         // Do nothing
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        return view.overlaps(getDrawX(), getDrawY(), getViewRadius());
+    }
+
+    /**
+     * Returns the distance from the polygon center to its furthest vertex.
+     *
+     * @return the radius of a circle around the center that holds the polygon
+     */
+    protected float getViewRadius() {
+        float radius2 = 0;
+        for (int ii = 0; ii < vertices.length; ii += 2) {
+            radius2 = Math.max(radius2, vertices[ii] * vertices[ii] + vertices[ii + 1] * vertices[ii + 1]);
+        }
+        return (float) Math.sqrt(radius2);
+    }
+
     /**
      * Draws the physics object.
      *
@@ -389,7 +436,7 @@ public class PolygonObstacle extends SimpleObstacle {
      */
     public void draw(GameCanvas canvas) {
         if (region != null) {
-            canvas.draw(region, Color.WHITE, 0, 0, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 1, 1);
+            canvas.draw(region, Color.WHITE, 0, 0, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getDrawAngle(), 1, 1);
         }
     }
 
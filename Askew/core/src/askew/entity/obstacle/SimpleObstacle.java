@@ -818,7 +818,7 @@ public abstract class SimpleObstacle extends Obstacle {
      */
     public void draw(GameCanvas canvas, Color tint) {
         if (texture != null) {
-            canvas.draw(texture, tint, origin.x, origin.y, getX() * drawScale.x, getY() * drawScale.y, getAngle(), 1, 1);
+            canvas.draw(texture, tint, origin.x, origin.y, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getDrawAngle(), 1, 1);
         }
     }
 
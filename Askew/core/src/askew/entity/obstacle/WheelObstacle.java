@@ -13,6 +13,7 @@ package askew.entity.obstacle;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.physics.box2d.CircleShape;
 import com.badlogic.gdx.physics.box2d.Fixture;
@@ -71,6 +72,17 @@ public class WheelObstacle extends SimpleObstacle {
         return shape.getRadius();
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        float radius = getRadius();
+        if (texture != null) {
+            // The texture is drawn unscaled
+            radius = Math.max(radius, (texture.getRegionWidth() / drawScale.x
+                    + texture.getRegionHeight() / drawScale.y) / 2);
+        }
+        return view.overlaps(getDrawX(), getDrawY(), radius);
+    }
+
     /**
      * Sets the radius of this circle
      *
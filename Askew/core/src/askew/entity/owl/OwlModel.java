@@ -5,6 +5,7 @@ import askew.MantisAssetManager;
 import askew.entity.Entity;
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.BoxObstacle;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.Animation;
@@ -95,6 +96,12 @@ public class OwlModel extends BoxObstacle  {
         this.owlHeight = getWidth() * ( owlTextureRegion.getRegionHeight() / owlTextureRegion.getRegionWidth());
     }
 
+    @Override
+    public boolean isInView(ViewBounds view) {
+        // Drawing advances the animation, so always draw the owl
+        return true;
+    }
+
     @Override
     public void draw(GameCanvas canvas) {
         elapseTime += Gdx.graphics.getDeltaTime();
@@ -108,7 +115,7 @@ public class OwlModel extends BoxObstacle  {
         setTexture(drawFrame);
         this.owlHeight = getWidth() * ( drawFrame.getRegionHeight() / drawFrame.getRegionWidth());
 
-        canvas.draw(drawFrame,Color.WHITE,origin.x,origin.y,getPosition().x*drawScale.x,getPosition().y*drawScale.y,getAngle(),
+        canvas.draw(drawFrame,Color.WHITE,origin.x,origin.y,getDrawX() * drawScale.x, getDrawY() * drawScale.y, getDrawAngle(),
                 (1.0f/drawFrame.getRegionWidth()) *   getWidth() * getDrawScale().x * objectScale.x,
                 (1.0f/drawFrame.getRegionHeight()  * getHeight()* getDrawScale().y * objectScale.y));
     }
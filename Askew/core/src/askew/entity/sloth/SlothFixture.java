@@ -0,0 +1,41 @@
+/*
+ * SlothFixture.java
+ *
+ * The user data of every fixture of a sloth, so that a contact can tell at
+ * once which sloth, which part and which hand it touched.
+ */
+package askew.entity.sloth;
+
+public class SlothFixture {
+
+    /**
+     * Hand side of a fixture that is not a hand sensor
+     */
+    public static final int NO_HAND = -1;
+    public static final int LEFT_HAND = 0;
+    public static final int RIGHT_HAND = 1;
+
+    /**
+     * The id of the sloth the fixture belongs to
+     */
+    public int slothId;
+    /**
+     * Which part of the sloth the fixture is on, as an index into its bodies
+     */
+    public final int part;
+    /**
+     * Which hand the fixture senses for, or NO_HAND
+     */
+    public final int hand;
+    /**
+     * The filter category bits of the fixture
+     */
+    public final int category;
+
+    SlothFixture(int slothId, int part, int hand, int category) {
+        this.slothId = slothId;
+        this.part = part;
+        this.hand = hand;
+        this.category = category;
+    }
+}
@@ -8,19 +8,20 @@ package askew.entity.sloth;
 
 import askew.GameCanvas;
 import askew.GlobalConfiguration;
-import askew.InputControllerManager;
 import askew.MantisAssetManager;
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.*;
+import askew.util.RandomController;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.*;
 import com.badlogic.gdx.physics.box2d.joints.RevoluteJointDef;
+import com.badlogic.gdx.utils.Array;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -102,9 +103,16 @@ public class SlothModel extends ComplexObstacle {
     private static final float HAND_HEIGHT = 0.1f;
     //private static final float HAND_XOFFSET  = (ARM_WIDTH / 2f) - HAND_WIDTH/2;
     private static final float HAND_XOFFSET = (ARM_WIDTH / 2f) - HAND_WIDTH * 2 - .3f;
-    private static int currentCooldown = TRANSITION_COOLDOWN;
-    private static float TIME_SINCE_LGRAB;
-    private static float TIME_SINCE_RGRAB;
+    /**
+     * The glow of a hand that is holding on, and of one reaching to grab
+     */
+    private static final Color GRAB_COLOR = new Color(0xABCDEF);
+    private static final Color REACH_COLOR = new Color(0xcfcf000f);
+    /**
+     * The tint of every sloth but the first
+     */
+    private static final Color PLAYER_TWO_TINT = new Color(0.5f, 0.5f, 1.0f, 1.0f);
+    private transient int currentCooldown = TRANSITION_COOLDOWN;
     private final transient float ARM_DENSITY;
     private final transient float TORQUE;
     private final transient float GRAVITY_SCALE;
@@ -117,6 +125,10 @@ public class SlothModel extends ComplexObstacle {
      * Cache vector for organizing body parts
      */
     private final transient Vector2 partCache = new Vector2();
+    /**
+     * Cache color for the power halo
+     */
+    private final transient Color powerTint = new Color();
     @Setter
     @Getter
     public transient int controlMode;
@@ -136,8 +148,17 @@ public class SlothModel extends ComplexObstacle {
     private transient PolygonShape sensorShape;
     private transient Fixture sensorFixture1;
     private transient Fixture sensorFixture2;
+    /**
+     * The user data of every fixture of the sloth
+     */
+    private final transient Array<SlothFixture> fixtureTags = new Array<>();
     private transient Body leftTarget;
     private transient Body rightTarget;
+    /**
+     * What each hand is holding; one body can be several obstacles, such as the planks of a trunk
+     */
+    private transient Obstacle leftTargetPart;
+    private transient Obstacle rightTargetPart;
     private transient Body grabPointR;
     private transient Body grabPointL;
     private transient WheelObstacle pin;
@@ -185,7 +206,7 @@ public class SlothModel extends ComplexObstacle {
     @Getter
     private transient Obstacle mostRecentlyGrabbed = null;
     @Getter
-    private transient Body mostRecentTarget = null;
+    private transient Obstacle mostRecentTarget = null;
     private transient int airTime;
     private static final int FRAMES_PER_BLINK = 150;
     private transient int blinkFrame = 0;
@@ -201,6 +222,20 @@ public class SlothModel extends ComplexObstacle {
     private transient boolean facingFront;
     public boolean shouldDie;
 
+    /**
+     * The frame of each body part and the grabs, copied for drawing while the world is stepped
+     */
+    private final transient Array<TextureRegion> snapshotTextures = new Array<>();
+    private final transient Array<Vector2> snapshotOrigins = new Array<>();
+    private transient float snapshotPower;
+    private transient boolean snapshotLeftGrab;
+    private transient boolean snapshotRightGrab;
+    private transient boolean snapshotActualLeftGrab;
+    private transient boolean snapshotActualRightGrab;
+    private transient boolean snapshotLeftCanGrab;
+    private transient boolean snapshotPinned;
+    private transient boolean snapshotMovingLeftArm;
+
     /**
      * Creates a new ragdoll with its head at the given position.
      *
@@ -221,8 +256,6 @@ public class SlothModel extends ComplexObstacle {
         this.movementMode = GlobalConfiguration.getInstance().getAsInt("flowMovementMode");
         this.controlMode = GlobalConfiguration.getInstance().getAsInt
                 ("flowControlMode");
-        if (!InputControllerManager.getInstance().getController(0).getXbox().isConnected())
-            controlMode = CONTROLS_ONE_ARM;
         this.rightGrabbing = false;
         this.leftGrabbing = true;
         this.drawNumber = -20;
@@ -316,8 +349,6 @@ public class SlothModel extends ComplexObstacle {
      * @return the newly created part
      */
     private BoxObstacle makePart(int part, int connect, float x, float y, float width, float height, float density, boolean collides) {
-        TextureRegion texture = partTextures[partToAsset(part)];
-
         partCache.set(x, y);
         if (connect != PART_NONE) {
             partCache.add(bodies.get(connect).getPosition());
@@ -345,7 +376,10 @@ public class SlothModel extends ComplexObstacle {
         }
 
         body.setDrawScale(drawScale);
-        body.setTexture(texture);
+        if (partTextures != null) {
+            // Headless sloths are built without textures
+            body.setTexture(partTextures[partToAsset(part)]);
+        }
         body.setDensity(density);
         body.setName("slothpart");
 
@@ -636,6 +670,85 @@ public class SlothModel extends ComplexObstacle {
         if (this.power > 1) this.power = 1;
 
         flowFacingState = bodies.get(PART_BODY).getBody().getLinearVelocity().x;
+        updateTextures();
+    }
+
+    /**
+     * Picks the textures of the body and arms for this step: which way Flow
+     * faces, blinking, and the arms that are being pushed.  This runs once per
+     * fixed step, so the blink and the turning cooldown count steps rather than
+     * rendered frames.
+     */
+    private void updateTextures() {
+        if (partTextures == null) {
+            return;
+        }
+        if (blinkFrame > 2) {
+            blinkFrame--;
+        }
+
+        // Velocity thresholds for Flow to turn
+        float upper_threshold = 9.75f;
+        float lower_threshold = 3.0f;
+
+        // Different textures for flow's body
+        BoxObstacle part = (BoxObstacle) bodies.get(PART_BODY);
+        TextureRegion old_texture = part.getTexture();
+        TextureRegion texture;
+        if (currentCooldown < 0) {
+            facingFront = false;
+            if (flowFacingState >= lower_threshold && flowFacingState <= upper_threshold) {
+                // Right
+                part.setTexture(partTextures[2]);
+                texture = partTextures[2];
+                if (!part.getTexture().isFlipX()) {
+                    texture.flip(true, false);
+                }
+            } else if (flowFacingState > upper_threshold) {
+                // Far right
+                part.setTexture(partTextures[5]);
+                texture = partTextures[5];
+                if (!texture.isFlipX()) {
+                    texture.flip(true, false);
+                }
+            } else if (flowFacingState <= -lower_threshold && flowFacingState >= -upper_threshold) {
+                // Left
+                part.setTexture(partTextures[2]);
+                texture = partTextures[2];
+                if (texture.isFlipX()) {
+                    texture.flip(true, false);
+                }
+            } else if (flowFacingState < -upper_threshold) {
+                // Far left
+                part.setTexture(partTextures[5]);
+                texture = partTextures[5];
+                if (texture.isFlipX()) {
+                    texture.flip(true, false);
+                }
+            } else {
+                facingFront = true;
+                part.setTexture(getFrontFlow());
+            }
+
+            if (old_texture != part.getTexture() || (old_texture.isFlipX() != part.getTexture().isFlipX())) {
+                currentCooldown = TRANSITION_COOLDOWN;
+            }
+        } else if (facingFront) {
+            part.setTexture(getFrontFlow());
+        }
+        currentCooldown--;
+
+        // different textures for flow's arms if controlling
+        BoxObstacle rightArm = (BoxObstacle) bodies.get(PART_RIGHT_ARM);
+        if (rightHori >= 0.15 || rightHori <= -0.15 || rightVert >= 0.15 || rightVert <= -0.15)
+            rightArm.setTexture(partTextures[6]);
+        else
+            rightArm.setTexture(partTextures[1]);
+        BoxObstacle leftArm = (BoxObstacle) bodies.get(PART_LEFT_ARM);
+        if (leftHori >= 0.15 || leftHori <= -0.15 || leftVert >= 0.15 || leftVert <= -0.15)
+            leftArm.setTexture(partTextures[7]);
+        else
+            leftArm.setTexture(partTextures[3]);
     }
 
 
@@ -665,18 +778,19 @@ public class SlothModel extends ComplexObstacle {
         grabGlow.setRadius(.12f);
         Gdx.gl.glLineWidth(3);
         canvas.beginDebug(camTrans);
-        if (isLeftGrab()) {
-            if (isActualLeftGrab()) {
-                canvas.drawPhysics(grabGlow, new Color(0xABCDEF), left.getX(), left.getY(), drawScale.x, drawScale.y);
+        boolean snapshot = isInSnapshot();
+        if (snapshot ? snapshotLeftGrab : leftGrab) {
+            if (snapshot ? snapshotActualLeftGrab : isActualLeftGrab()) {
+                canvas.drawPhysics(grabGlow, GRAB_COLOR, left.getDrawX(), left.getDrawY(), drawScale.x, drawScale.y);
             } else {
-                canvas.drawPhysics(grabGlow, new Color(0xcfcf000f), left.getX(), left.getY(), drawScale.x, drawScale.y);
+                canvas.drawPhysics(grabGlow, REACH_COLOR, left.getDrawX(), left.getDrawY(), drawScale.x, drawScale.y);
             }
         }
-        if (isRightGrab()) {
-            if (isActualRightGrab()) {
-                canvas.drawPhysics(grabGlow, new Color(0xABCDEF), right.getX(), right.getY(), drawScale.x, drawScale.y);
+        if (snapshot ? snapshotRightGrab : rightGrab) {
+            if (snapshot ? snapshotActualRightGrab : isActualRightGrab()) {
+                canvas.drawPhysics(grabGlow, GRAB_COLOR, right.getDrawX(), right.getDrawY(), drawScale.x, drawScale.y);
             } else {
-                canvas.drawPhysics(grabGlow, new Color(0xcfcf000f), right.getX(), right.getY(), drawScale.x, drawScale.y);
+                canvas.drawPhysics(grabGlow, REACH_COLOR, right.getDrawX(), right.getDrawY(), drawScale.x, drawScale.y);
             }
         }
 
@@ -737,71 +851,71 @@ public class SlothModel extends ComplexObstacle {
         return bodies.get(PART_RIGHT_HAND).getBody();
     }
 
-    public Body getLeftTarget() {
-        return leftTarget;
+    public Obstacle getLeftTarget() {
+        return leftTargetPart;
     }
 
-    public Body getRightTarget() {
-        return rightTarget;
+    public Obstacle getRightTarget() {
+        return rightTargetPart;
     }
 
-    public Body getLeftmostTarget() {
-        if (leftTarget != null && rightTarget != null) {
-            if (leftTarget.getPosition().x < rightTarget.getPosition().x) {
-                return leftTarget;
+    public Obstacle getLeftmostTarget() {
+        if (leftTargetPart != null && rightTargetPart != null) {
+            if (leftTargetPart.getPosition().x < rightTargetPart.getPosition().x) {
+                return leftTargetPart;
             } else {
-                return rightTarget;
+                return rightTargetPart;
             }
         }
-        if (rightTarget != null) {
-            return rightTarget;
+        if (rightTargetPart != null) {
+            return rightTargetPart;
         } else {
-            return leftTarget;
+            return leftTargetPart;
         }
     }
 
-    public Body getRightmostTarget() {
-        if (leftTarget != null && rightTarget != null) {
-            if (leftTarget.getPosition().x >= rightTarget.getPosition().x) {
-                return leftTarget;
+    public Obstacle getRightmostTarget() {
+        if (leftTargetPart != null && rightTargetPart != null) {
+            if (leftTargetPart.getPosition().x >= rightTargetPart.getPosition().x) {
+                return leftTargetPart;
             } else {
-                return rightTarget;
+                return rightTargetPart;
             }
         }
-        if (leftTarget != null) {
-            return leftTarget;
+        if (leftTargetPart != null) {
+            return leftTargetPart;
         } else {
-            return rightTarget;
+            return rightTargetPart;
         }
     }
 
-    public Body getTopTarget() {
-        if (leftTarget != null && rightTarget != null) {
-            if (leftTarget.getPosition().y > rightTarget.getPosition().y) {
-                return leftTarget;
+    public Obstacle getTopTarget() {
+        if (leftTargetPart != null && rightTargetPart != null) {
+            if (leftTargetPart.getPosition().y > rightTargetPart.getPosition().y) {
+                return leftTargetPart;
             } else {
-                return rightTarget;
+                return rightTargetPart;
             }
         }
-        if (rightTarget != null) {
-            return rightTarget;
+        if (rightTargetPart != null) {
+            return rightTargetPart;
         } else {
-            return leftTarget;
+            return leftTargetPart;
         }
     }
 
-    public Body getBottomTarget() {
-        if (leftTarget != null && rightTarget != null) {
-            if (leftTarget.getPosition().y <= rightTarget.getPosition().y) {
-                return leftTarget;
+    public Obstacle getBottomTarget() {
+        if (leftTargetPart != null && rightTargetPart != null) {
+            if (leftTargetPart.getPosition().y <= rightTargetPart.getPosition().y) {
+                return leftTargetPart;
             } else {
-                return rightTarget;
+                return rightTargetPart;
             }
         }
-        if (rightTarget != null) {
-            return rightTarget;
+        if (rightTargetPart != null) {
+            return rightTargetPart;
         } else {
-            return leftTarget;
+            return leftTargetPart;
         }
     }
 
@@ -858,24 +972,56 @@ public class SlothModel extends ComplexObstacle {
         //jointDef.upperAngle = (float) (Math.PI/4);
         //jointDef.enableLimit = true;
         grabJoint = world.createJoint(grabJointDef);
+        Obstacle part = getPartAt(target, pos);
         if (leftHand) {
             leftGrabJoint = grabJoint;
             leftTarget = target;
-            mostRecentTarget = target;
+            leftTargetPart = part;
         } else {
             rightGrabJoint = grabJoint;
             rightTarget = target;
-            mostRecentTarget = target;
+            rightTargetPart = part;
         }
+        mostRecentTarget = part;
         // set data as grabbed for pinned to shade grabbed stuff
-        if (target.getUserData() instanceof Obstacle) {
-            ((Obstacle) target.getUserData()).setGrabbed(true);
+        if (part != null) {
+            part.setGrabbed(true);
         }
 
         joints.add(grabJoint);
         grabbedEntity = true;
     }
 
+    /**
+     * Returns the obstacle of a body that a hand at the given position is holding.
+     * <p>
+     * A body is usually a single obstacle.  When it has a fixture per obstacle
+     * (as a trunk has a fixture per plank), this is the nearest of them.
+     *
+     * @param target   the body being grabbed
+     * @param position where the hand is
+     * @return the obstacle being grabbed, or null if the body is not an obstacle
+     */
+    private static Obstacle getPartAt(Body target, Vector2 position) {
+        Array<Fixture> fixtures = target.getFixtureList();
+        Obstacle nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < fixtures.size; i++) {
+            Object data = fixtures.get(i).getUserData();
+            if (data instanceof Obstacle) {
+                float distance = ((Obstacle) data).getPosition().dst2(position);
+                if (distance < nearestDistance) {
+                    nearest = (Obstacle) data;
+                    nearestDistance = distance;
+                }
+            }
+        }
+        if (nearest == null && target.getUserData() instanceof Obstacle) {
+            nearest = (Obstacle) target.getUserData();
+        }
+        return nearest;
+    }
+
     public void releaseLeft(World world) {
         if (didSafeGrab) return;
         if (leftGrabJoint != null) {
@@ -884,16 +1030,18 @@ public class SlothModel extends ComplexObstacle {
             leftCanGrabOrIsGrabbing = false;
             releasedEntity = true;
             leftGrabJoint = null;
-            if (leftTarget.getUserData() instanceof Obstacle) {
-                ((Obstacle) leftTarget.getUserData()).setGrabbed(false);
+            if (leftTargetPart != null) {
+                leftTargetPart.setGrabbed(false);
             }
             leftTarget = null;
+            leftTargetPart = null;
         }
         if (mostRecentlyGrabbed != null && mostRecentlyGrabbed.getBody() == getLeftHand()) {
             mostRecentlyGrabbed = null;
         }
         leftGrabJoint = null;
         leftTarget = null;
+        leftTargetPart = null;
     }
 
     public void releaseRight(World world) {
@@ -904,10 +1052,11 @@ public class SlothModel extends ComplexObstacle {
             leftCanGrabOrIsGrabbing = true;
             releasedEntity = true;
             rightGrabJoint = null;
-            if (rightTarget.getUserData() instanceof Obstacle) {
-                ((Obstacle) rightTarget.getUserData()).setGrabbed(false);
+            if (rightTargetPart != null) {
+                rightTargetPart.setGrabbed(false);
             }
             rightTarget = null;
+            rightTargetPart = null;
         }
     }
 
@@ -925,6 +1074,7 @@ public class SlothModel extends ComplexObstacle {
             releasedEntity = true;
             leftGrabJoint = null;
             leftTarget = null;
+            leftTargetPart = null;
         }
         if (rightGrabJoint != null) {
             joints.removeValue(rightGrabJoint, true);
@@ -933,13 +1083,20 @@ public class SlothModel extends ComplexObstacle {
             releasedEntity = true;
             rightGrabJoint = null;
             rightTarget = null;
+            rightTargetPart = null;
         }
         if (mostRecentlyGrabbed != null && mostRecentlyGrabbed.getBody() == getRightHand()) {
             mostRecentlyGrabbed = null;
         }
         rightGrabJoint = null;
         rightTarget = null;
+        rightTargetPart = null;
         super.deactivatePhysics(world);
+        // The pin joint went with the other joints
+        if (pin != null) {
+            pin.deactivatePhysics(world);
+            pin = null;
+        }
 
     }
 
@@ -955,12 +1112,19 @@ public class SlothModel extends ComplexObstacle {
         Filter f = new Filter();
         f.maskBits = FilterGroup.VINE | FilterGroup.WALL | FilterGroup.WIN;
         f.categoryBits = FilterGroup.HAND | FilterGroup.SLOTH;
+        // Tag the parts before the sensors, which are tagged with their hands
+        fixtureTags.clear();
+        for (int i = 0; i < bodies.size; i++) {
+            for (Fixture fixture : bodies.get(i).getBody().getFixtureList()) {
+                tagFixture(fixture, i, SlothFixture.NO_HAND);
+            }
+        }
         sensorFixture1 = bodies.get(PART_LEFT_HAND).getBody().createFixture(sensorDef);
-        sensorFixture1.setUserData("slothpart sloth left hand slothid" + id);
         sensorFixture2 = bodies.get(PART_RIGHT_HAND).getBody().createFixture(sensorDef);
-        sensorFixture2.setUserData("slothpart sloth right hand slothid" + id);
         sensorFixture1.setFilterData(f);
         sensorFixture2.setFilterData(f);
+        tagFixture(sensorFixture1, PART_LEFT_HAND, SlothFixture.LEFT_HAND);
+        tagFixture(sensorFixture2, PART_RIGHT_HAND, SlothFixture.RIGHT_HAND);
         sensorFixture1.getBody().setBullet(true);
         sensorFixture2.getBody().setBullet(true);
         BodyDef bd = new BodyDef();
@@ -974,10 +1138,17 @@ public class SlothModel extends ComplexObstacle {
         bodies.get(0).setMass(BODY_MASS);
     }
 
+    private void tagFixture(Fixture fixture, int part, int hand) {
+        SlothFixture tag = new SlothFixture(id, part, hand, fixture.getFilterData().categoryBits);
+        fixture.setUserData(tag);
+        fixtureTags.add(tag);
+    }
+
     public void setId(int id) {
         this.id = id;
-        sensorFixture1.setUserData("slothpart sloth left hand slothid" + id);
-        sensorFixture2.setUserData("slothpart sloth right hand slothid" + id);
+        for (int i = 0; i < fixtureTags.size; i++) {
+            fixtureTags.get(i).slothId = id;
+        }
     }
 
 
@@ -994,33 +1165,19 @@ public class SlothModel extends ComplexObstacle {
     @Override
     public void setTextures(MantisAssetManager manager) {
         partTextures = new TextureRegion[BODY_TEXTURE_COUNT];
-        Texture managedHand = manager.get("texture/sloth/hand.png");
-        Texture managedFrontArm = manager.get("texture/sloth/frontarm.png");
-        Texture managedFlowFront = manager.get("texture/sloth/frontflow.png");
-        Texture managedBackArm = manager.get("texture/sloth/backarm.png");
-        Texture managedFlowLeft = manager.get("texture/sloth/leftflow.png");
-        Texture managedFlowFarLeft = manager.get("texture/sloth/farleftflow.png");
-        Texture managedFrontArmMoving = manager.get("texture/sloth/frontarm_moving.png");
-        Texture managedBackArmMoving = manager.get("texture/sloth/backarm_moving.png");
-        Texture managedPowerGlow = manager.get("texture/sloth/power_glow.png");
-        Texture managedDeadFlow = manager.get("texture/sloth/dead.png");
-        Texture managedScaredFlow = manager.get("texture/sloth/scared.png");
-        Texture managedBlinkFlow = manager.get("texture/sloth/blink.png");
-        Texture managedHalfBlinkFlow = manager.get("texture/sloth/halfblink" +
-                ".png");
-        partTextures[0] = new TextureRegion(managedHand);
-        partTextures[1] = new TextureRegion(managedFrontArm);
-        partTextures[3] = new TextureRegion(managedBackArm);
-        partTextures[4] = new TextureRegion(managedFlowFront);
-        partTextures[2] = new TextureRegion(managedFlowLeft);
-        partTextures[5] = new TextureRegion(managedFlowFarLeft);
-        partTextures[6] = new TextureRegion(managedFrontArmMoving);
-        partTextures[7] = new TextureRegion(managedBackArmMoving);
-        partTextures[8] = new TextureRegion(managedPowerGlow);
-        partTextures[9] = new TextureRegion(managedDeadFlow);
-        partTextures[10] = new TextureRegion(managedScaredFlow);
-        partTextures[11] = new TextureRegion(managedBlinkFlow);
-        partTextures[12] = new TextureRegion(managedHalfBlinkFlow);
+        partTextures[0] = manager.getRegion("texture/sloth/hand.png");
+        partTextures[1] = manager.getRegion("texture/sloth/frontarm.png");
+        partTextures[3] = manager.getRegion("texture/sloth/backarm.png");
+        partTextures[4] = manager.getRegion("texture/sloth/frontflow.png");
+        partTextures[2] = manager.getRegion("texture/sloth/leftflow.png");
+        partTextures[5] = manager.getRegion("texture/sloth/farleftflow.png");
+        partTextures[6] = manager.getRegion("texture/sloth/frontarm_moving.png");
+        partTextures[7] = manager.getRegion("texture/sloth/backarm_moving.png");
+        partTextures[8] = manager.getRegion("texture/sloth/power_glow.png");
+        partTextures[9] = manager.getRegion("texture/sloth/dead.png");
+        partTextures[10] = manager.getRegion("texture/sloth/scared.png");
+        partTextures[11] = manager.getRegion("texture/sloth/blink.png");
+        partTextures[12] = manager.getRegion("texture/sloth/halfblink.png");
 
 //        for(int i = 0; i < partTextures.length; i++){
 //            partTextures[i].getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
@@ -1036,126 +1193,101 @@ public class SlothModel extends ComplexObstacle {
     }
 
     @Override
-    public void draw(GameCanvas canvas) {
-        if (blinkFrame > 2) {
-            blinkFrame--;
-        }
-        for (int body_ind = bodies.size - 1; body_ind >= 0; body_ind--) {
-            BoxObstacle part = (BoxObstacle) bodies.get(body_ind);
+    public boolean isInView(ViewBounds view) {
+        // The camera follows the sloths, and their draw also places the arms
+        return true;
+    }
+
+    /**
+     * Copies the frame of each body part and the grabs along with the transforms,
+     * as update() picks the frames and the grabs change the arms that are drawn.
+     */
+    @Override
+    public void captureSnapshot() {
+        super.captureSnapshot();
+        for (int i = 0; i < bodies.size; i++) {
+            if (i == snapshotTextures.size) {
+                snapshotTextures.add(new TextureRegion());
+                snapshotOrigins.add(new Vector2());
+            }
+            SimpleObstacle part = (SimpleObstacle) bodies.get(i);
             TextureRegion texture = part.getTexture();
+            // A copy, as the frames are flipped in place when Flow turns
             if (texture != null) {
-                // Velocity thresholds for Flow to turn
-                float upper_threshold = 9.75f;
-                float lower_threshold = 3.0f;
-
-                // Different textures for flow's body
-                TextureRegion old_texture = texture;
-
-                if (body_ind == PART_BODY) {
-                    if (currentCooldown < 0) {
-                        facingFront = false;
-                        if (flowFacingState >= lower_threshold && flowFacingState <= upper_threshold) {
-                            // Right
-                            part.setTexture(partTextures[2]);
-                            texture = partTextures[2];
-                            if (!part.getTexture().isFlipX()) {
-                                texture.flip(true, false);
-                            }
-                        } else if (flowFacingState > upper_threshold) {
-                            // Far right
-                            part.setTexture(partTextures[5]);
-                            texture = partTextures[5];
-                            if (!texture.isFlipX()) {
-                                texture.flip(true, false);
-                            }
-                        } else if (flowFacingState <= -lower_threshold && flowFacingState >= -upper_threshold) {
-                            // Left
-                            part.setTexture(partTextures[2]);
-                            texture = partTextures[2];
-                            if (texture.isFlipX()) {
-                                texture.flip(true, false);
-                            }
-                        } else if (flowFacingState < -upper_threshold) {
-                            // Far left
-                            part.setTexture(partTextures[5]);
-                            texture = partTextures[5];
-                            if (texture.isFlipX()) {
-                                texture.flip(true, false);
-                            }
-                        } else {
-                            facingFront = true;
-                            part.setTexture(getFrontFlow());
-                        }
-
-                        if (old_texture != part.getTexture() || (old_texture.isFlipX() != part.getTexture().isFlipX())) {
-                            currentCooldown = TRANSITION_COOLDOWN;
-                        }
-                    } else if (facingFront) {
-                        part.setTexture(getFrontFlow());
-                    }
-                    currentCooldown--;
-
-                }
-
-                // different textures for flow's arms if controlling
-                if (body_ind == PART_RIGHT_ARM) {
-                    if (rightHori >= 0.15 || rightHori <= -0.15 || rightVert >= 0.15 || rightVert <= -0.15)
-                        part.setTexture(partTextures[6]);
-                    else
-                        part.setTexture(partTextures[1]);
-                }
-                if (body_ind == PART_LEFT_ARM) {
-                    if (leftHori >= 0.15 || leftHori <= -0.15 || leftVert >= 0.15 || leftVert <= -0.15)
-                        part.setTexture(partTextures[7]);
-                    else
-                        part.setTexture(partTextures[3]);
-                }
+                snapshotTextures.get(i).setRegion(texture);
+            } else {
+                snapshotTextures.get(i).setTexture(null);
+            }
+            snapshotOrigins.get(i).set(part.getOrigin());
+        }
+        snapshotPower = power;
+        snapshotLeftGrab = leftGrab;
+        snapshotRightGrab = rightGrab;
+        snapshotActualLeftGrab = isActualLeftGrab();
+        snapshotActualRightGrab = isActualRightGrab();
+        snapshotLeftCanGrab = leftCanGrabOrIsGrabbing;
+        snapshotPinned = pinned;
+        snapshotMovingLeftArm = movingLeftArm;
+    }
 
+    @Override
+    public void draw(GameCanvas canvas) {
+        boolean snapshot = isInSnapshot();
+        boolean pinned = snapshot ? snapshotPinned : this.pinned;
+        boolean movingLeftArm = snapshot ? snapshotMovingLeftArm : this.movingLeftArm;
+        boolean leftCanGrabOrIsGrabbing = snapshot ? snapshotLeftCanGrab : this.leftCanGrabOrIsGrabbing;
+        boolean actualLeftGrab = snapshot ? snapshotActualLeftGrab : isActualLeftGrab();
+        boolean actualRightGrab = snapshot ? snapshotActualRightGrab : isActualRightGrab();
+        for (int body_ind = bodies.size - 1; body_ind >= 0; body_ind--) {
+            BoxObstacle part = (BoxObstacle) bodies.get(body_ind);
+            TextureRegion texture = snapshot ? snapshotTextures.get(body_ind) : part.getTexture();
+            Vector2 origin = snapshot ? snapshotOrigins.get(body_ind) : part.getOrigin();
+            if (texture != null && texture.getTexture() != null) {
                 //If the body parts are from the right limb
                 if (body_ind == PART_LEFT_HAND || body_ind == PART_RIGHT_HAND)
                     continue;
                 if (body_ind == PART_RIGHT_ARM) {
                     if (!tutorial || (tutorial && !pinned) || (tutorial && pinned && !movingLeftArm)) {
-                        drawArm(canvas, part, (leftCanGrabOrIsGrabbing && isActualLeftGrab()) || (!leftCanGrabOrIsGrabbing && !isActualRightGrab()));
+                        drawArm(canvas, part, texture, origin, (leftCanGrabOrIsGrabbing && actualLeftGrab) || (!leftCanGrabOrIsGrabbing && !actualRightGrab));
                     }
                 } else if (body_ind == PART_LEFT_ARM) {
                     // left limb
                     if (!tutorial || (tutorial && !pinned) || (tutorial && pinned && movingLeftArm)) {
-                        drawArm(canvas, part, (leftCanGrabOrIsGrabbing && !isActualLeftGrab()) || (!leftCanGrabOrIsGrabbing && isActualRightGrab()));
+                        drawArm(canvas, part, texture, origin, (leftCanGrabOrIsGrabbing && !actualLeftGrab) || (!leftCanGrabOrIsGrabbing && actualRightGrab));
                     }
                 }
                 //If the body parts are not limbs
                 else {
-                    part.draw(canvas, getDrawTint());
+                    part.draw(canvas, texture, origin, getDrawTint());
                 }
             }
         }
     }
 
-    private void drawArm(GameCanvas canvas, BoxObstacle part, boolean active) {
+    private void drawArm(GameCanvas canvas, BoxObstacle part, TextureRegion armTexture, Vector2 origin, boolean active) {
         if (controlMode == CONTROLS_ONE_ARM) {
             if (active) {
-                part.draw(canvas, getDrawTint());
+                part.draw(canvas, armTexture, origin, getDrawTint());
                 // draw power halo
 
-                Color tint = new Color(0, 0, power, power / 2.5f);
-                Vector2 origin = part.getOrigin();
+                float power = isInSnapshot() ? snapshotPower : this.power;
+                Color tint = powerTint.set(0, 0, power, power / 2.5f);
                 TextureRegion texture = partTextures[PART_POWER_GLOW];
                 Gdx.gl.glEnable(GL20.GL_BLEND);
                 Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
                 if (texture != null) {
                     float stretch = power * 1.5f;
-                    canvas.draw(texture, tint, origin.x, origin.y, part.getX() * drawScale.x, part.getY() * drawScale.y, part.getAngle(),
+                    canvas.draw(texture, tint, origin.x, origin.y, part.getDrawX() * drawScale.x, part.getDrawY() * drawScale.y, part.getDrawAngle(),
                             (1.0f / texture.getRegionWidth()) * part.getWidth() * part.getDrawScale().x * part.getObjectScale().x * customScale.x * stretch,
                             (1.0f / texture.getRegionHeight() * part.getHeight() * part.getDrawScale().y * part.getObjectScale().y * customScale.y * stretch));
                 }
                 Gdx.gl.glDisable(GL20.GL_BLEND);
 
             } else {
-                part.draw(canvas, Color.BLACK);
+                part.draw(canvas, armTexture, origin, Color.BLACK);
             }
         } else {
-            part.draw(canvas, getDrawTint());
+            part.draw(canvas, armTexture, origin, getDrawTint());
         }
     }
 
@@ -1222,7 +1354,7 @@ public class SlothModel extends ComplexObstacle {
         }
     }
 
-    public boolean dismember(World world) {
+    public boolean dismember(World world, RandomController random) {
         if (!dismembered) {
             Joint jointA = joints.get(0);
             Joint jointB = joints.get(1);
@@ -1234,7 +1366,7 @@ public class SlothModel extends ComplexObstacle {
             bodies.get(0).getBody().applyAngularImpulse(0.5f, true);
             for (Obstacle b : bodies) {
                 b.getFilterData().categoryBits = 0;
-                b.getBody().applyForceToCenter((float) Math.random() * 110 - 55, (float) Math.random() * 110 - 55, true);
+                b.getBody().applyForceToCenter(random.rollFloat(-55, 55), random.rollFloat(-55, 55), true);
             }
             dismembered = true;
             return true;
@@ -1261,7 +1393,7 @@ public class SlothModel extends ComplexObstacle {
         if (id == 0) {
             return Color.WHITE;
         } else {
-            return new Color(0.5f, 0.5f, 1.0f, 1.0f);
+            return PLAYER_TWO_TINT;
         }
     }
 
@@ -83,7 +83,7 @@ public class ThornModel extends BoxObstacle {
     public void draw(GameCanvas canvas, Color tint) {
         if (wrapper != null) {
             wrapper.getTexture().setFilter(Texture.TextureFilter.Linear, Texture.TextureFilter.Linear);
-            canvas.draw(wrapper, tint, origin.x, origin.y, getX() * drawScale.x, getY() * drawScale.y, getAngle(),
+            canvas.draw(wrapper, tint, origin.x, origin.y, getDrawX() * drawScale.x, getDrawY() * drawScale.y, getDrawAngle(),
                     (1.0f / wrapper.getRegionWidth()) * getWidth() * getDrawScale().x * getObjectScale().x * customScale.x,
                     (1.0f / wrapper.getRegionHeight() * getHeight() * getDrawScale().y * getObjectScale().y * customScale.y));
         }
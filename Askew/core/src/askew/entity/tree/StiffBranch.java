@@ -23,10 +23,9 @@ import com.badlogic.gdx.physics.box2d.Filter;
 import com.badlogic.gdx.physics.box2d.Joint;
 import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.physics.box2d.joints.RevoluteJointDef;
-import com.badlogic.gdx.physics.box2d.joints.WeldJointDef;
 
 /**
- * A rotating branch with planks connected by weld joints.
+ * A rotating branch of planks that all share one body, pinned at the bottom.
  * <p>
  * Note that this class returns to static loading.  That is because there are
  * no other subclasses that we might loop through.
@@ -146,7 +145,7 @@ public class StiffBranch extends TreeParent {
             pos.set(norm);
             pos.scl(t);
             pos.add(x, y);
-            BoxObstacle plank = new BoxObstacle(pos.x, pos.y, planksize.x, planksize.y);
+            BoxObstacle plank = createRigidPlank(pos.x, pos.y, planksize.x, planksize.y);
             plank.setName(PLANK_NAME + ii);
             plank.setDensity(BASIC_DENSITY);
             //plank.setAngle(-90-angle);
@@ -191,9 +190,6 @@ public class StiffBranch extends TreeParent {
         start.setBodyType(BodyDef.BodyType.StaticBody);
         start.activatePhysics(world);
 
-        // Definition for a revolute joint
-        WeldJointDef jointDef;
-
         // Initial joint
         // uncomment section to stand up
         // comment section to fall over
@@ -219,19 +215,7 @@ public class StiffBranch extends TreeParent {
         Joint joint = world.createJoint(flexJointDef);
         joints.add(joint);
 
-        // Link the planks together
-        anchor1.y = linksize / 2;
-        for (int ii = 0; ii < bodies.size - 1; ii++) {
-            // join the planks
-            jointDef = new WeldJointDef();
-            jointDef.bodyA = bodies.get(ii).getBody();
-            jointDef.bodyB = bodies.get(ii + 1).getBody();
-            jointDef.localAnchorA.set(anchor1);
-            jointDef.localAnchorB.set(anchor2);
-            jointDef.collideConnected = false;
-            joint = world.createJoint(jointDef);
-            joints.add(joint);
-        }
+        // The planks are fixtures on one body, so the pin is the only joint
 
 //		RevoluteJointDef flexJointDef = new RevoluteJointDef();
 //		flexJointDef.bodyA = bodies.get(bodies.size-2).getBody();
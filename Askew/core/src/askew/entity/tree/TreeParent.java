@@ -16,10 +16,10 @@ package askew.entity.tree;
 
 import askew.MantisAssetManager;
 import askew.entity.Entity;
+import askew.entity.obstacle.AttachedBoxObstacle;
 import askew.entity.obstacle.BoxObstacle;
 import askew.entity.obstacle.ComplexObstacle;
 import askew.entity.obstacle.Obstacle;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.World;
@@ -100,6 +100,25 @@ public abstract class TreeParent extends ComplexObstacle {
         build();
     }
 
+    /**
+     * Creates the next plank of a tree that does not bend.
+     * <p>
+     * The first plank has a body of its own, and every later one is a fixture on
+     * that body rather than a plank welded to the one before.
+     *
+     * @param x      The x position of the plank center
+     * @param y      The y position of the plank center
+     * @param width  The width of the plank
+     * @param height The height of the plank
+     * @return the new plank, which must be added to the bodies in order
+     */
+    BoxObstacle createRigidPlank(float x, float y, float width, float height) {
+        if (bodies.size == 0) {
+            return new BoxObstacle(x, y, width, height);
+        }
+        return new AttachedBoxObstacle((BoxObstacle) bodies.get(0), x, y, width, height);
+    }
+
     /**
      * Creates the joints for this object.
      * <p>
@@ -125,8 +144,7 @@ public abstract class TreeParent extends ComplexObstacle {
 
     @Override
     public void setTextures(MantisAssetManager manager) {
-        Texture managedTexture = manager.get("texture/branch/branch.png", Texture.class);
-        TextureRegion regionTexture = new TextureRegion(managedTexture);
+        TextureRegion regionTexture = manager.getRegion("texture/branch/branch.png");
         for (Obstacle body : bodies) {
             ((BoxObstacle) body).setTexture(regionTexture);
         }
@@ -19,14 +19,12 @@ import askew.entity.obstacle.BoxObstacle;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
 import com.badlogic.gdx.physics.box2d.Filter;
-import com.badlogic.gdx.physics.box2d.Joint;
 import com.badlogic.gdx.physics.box2d.World;
-import com.badlogic.gdx.physics.box2d.joints.WeldJointDef;
 import lombok.Getter;
 import lombok.Setter;
 
 /**
- * A tree trunk with planks connected by weld joints.
+ * A tree trunk of planks that all share one body, so it never bends.
  * <p>
  * Note that this class returns to static loading.  That is because there are
  * no other subclasses that we might loop through.
@@ -114,7 +112,7 @@ public class Trunk extends TreeParent {
             pos.set(norm);
             pos.scl(t);
             pos.add(x, y);
-            BoxObstacle plank = new BoxObstacle(pos.x, pos.y, planksize.x, planksize.y);
+            BoxObstacle plank = createRigidPlank(pos.x, pos.y, planksize.x, planksize.y);
             plank.setName(PLANK_NAME + ii);
             plank.setDensity(BASIC_DENSITY);
             plank.setAngle((float) Math.toRadians(angle));
@@ -143,27 +141,7 @@ public class Trunk extends TreeParent {
     protected boolean createJoints(World world) {
         assert bodies.size > 0;
 
-        // Definition for a revolute joint
-        WeldJointDef jointDef;
-
-        Joint joint;
-
-        Vector2 anchor1 = new Vector2(0, PLANK_HEIGHT / 2);
-        Vector2 anchor2 = new Vector2(0, -PLANK_HEIGHT / 2);
-
-        // Link the planks together
-        for (int ii = 0; ii < bodies.size - 1; ii++) {
-            // join the planks
-            jointDef = new WeldJointDef();
-            jointDef.bodyA = bodies.get(ii).getBody();
-            jointDef.bodyB = bodies.get(ii + 1).getBody();
-            jointDef.localAnchorA.set(anchor1);
-            jointDef.localAnchorB.set(anchor2);
-            jointDef.collideConnected = false;
-            joint = world.createJoint(jointDef);
-            joints.add(joint);
-        }
-
+        // The planks are fixtures on one body, so there is nothing to join
         return true;
     }
 
@@ -19,7 +19,6 @@ import askew.MantisAssetManager;
 import askew.entity.Entity;
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.*;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 import com.badlogic.gdx.physics.box2d.BodyDef;
@@ -327,8 +326,7 @@ public class Vine extends ComplexObstacle {
 
     @Override
     public void setTextures(MantisAssetManager manager) {
-        Texture vineTexture = manager.get(VINE_TEXTURE, Texture.class);
-        TextureRegion regionedTexture = new TextureRegion(vineTexture);
+        TextureRegion regionedTexture = manager.getRegion(VINE_TEXTURE);
         for (Obstacle body : bodies) {
             ((SimpleObstacle) body).setTexture(regionedTexture);
         }
@@ -0,0 +1,340 @@
+package askew.entity.wall;
+
+import askew.CustomSpriteBatch;
+import askew.GameCanvas;
+import askew.MantisAssetManager;
+import askew.entity.Entity;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PolygonRegion;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Affine2;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.ObjectMap;
+import com.badlogic.gdx.utils.ShortArray;
+
+/**
+ * The walls of a level, drawn together from meshes built once.
+ * <p>
+ * Walls never move during play, but each one draws a corner per point, an
+ * edge per side and its fill every frame.  Instead, the walls added here are
+ * laid out once, in world pixels, into a static mesh per texture, so drawing
+ * every wall in the level is a render call per texture and no work on the CPU.
+ * The draws keep the order the walls would have drawn themselves in, and the
+ * meshes are only built again when a wall changes shape, position or scale
+ * (which in practice is the level editor pinching one).
+ * <p>
+ * The order is kept with three depth layers per wall: its corners, its fill
+ * and its edges.  Everything in a layer has one texture, so it sits in one
+ * mesh (or in meshes drawn one after another), in the order it was laid out,
+ * and draws over what came before it at the same depth.  So the walls take
+ * three depth steps apiece in a deferred pass, rather than one per corner
+ * and edge, however many corners they have.
+ * <p>
+ * This is drawn in place of its walls, which stay in the world for physics
+ * but must not be drawn themselves.  It does not cull; the walls off screen
+ * cost the graphics card a little, and nothing else.
+ */
+public class WallMesh extends Entity {
+
+    /**
+     * The most vertices in one mesh, so that they can be indexed with shorts
+     */
+    private static final int MAX_VERTICES = 32000;
+
+    private final Vector2 position = new Vector2();
+    /**
+     * The walls drawn by this mesh, in draw order
+     */
+    private final Array<WallModel> walls = new Array<>();
+    /**
+     * The geometry of the walls, a piece per texture in the order textures are first used
+     */
+    private final Array<Piece> pieces = new Array<>();
+    /**
+     * The piece being filled for each texture
+     */
+    private final ObjectMap<Texture, Piece> openPieces = new ObjectMap<>();
+    /**
+     * The transform of the sprite being laid out
+     */
+    private final Affine2 local = new Affine2();
+    private Texture[] textures = new Texture[0];
+    private Mesh[] meshes = new Mesh[0];
+    private int meshCount;
+    /**
+     * The number of depth layers started so far
+     */
+    private int layerCount;
+    /**
+     * Whether the meshes must be built again before they are drawn
+     */
+    private boolean dirty;
+
+    /**
+     * Adds a wall to be drawn by this mesh, if it can be.
+     * <p>
+     * Only textured, opaque walls can be baked.  Adding a wall that is already
+     * in this mesh does nothing.
+     *
+     * @param wall the wall to add
+     * @return whether the wall is drawn by this mesh
+     */
+    public boolean add(WallModel wall) {
+        if (wall.mesh == this) {
+            return true;
+        }
+        if (!wall.canBake()) {
+            return false;
+        }
+        walls.add(wall);
+        wall.mesh = this;
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * Returns whether this mesh draws no walls.
+     *
+     * @return whether this mesh draws no walls
+     */
+    public boolean isEmpty() {
+        return walls.size == 0;
+    }
+
+    /**
+     * Removes every wall and releases the meshes.
+     */
+    public void clear() {
+        for (WallModel wall : walls) {
+            wall.mesh = null;
+        }
+        walls.clear();
+        disposeMeshes();
+        dirty = false;
+    }
+
+    /**
+     * Marks the meshes as out of date, because a wall has changed.
+     */
+    void invalidate() {
+        dirty = true;
+    }
+
+    @Override
+    public void draw(GameCanvas canvas) {
+        if (dirty) {
+            bake();
+        }
+        canvas.draw(textures, meshes, meshCount, layerCount);
+    }
+
+    /**
+     * Lays out every wall and uploads the meshes.
+     */
+    private void bake() {
+        disposeMeshes();
+        for (WallModel wall : walls) {
+            wall.tessellate(this);
+        }
+
+        if (textures.length < pieces.size) {
+            textures = new Texture[pieces.size];
+            meshes = new Mesh[pieces.size];
+        }
+        for (Piece piece : pieces) {
+            textures[meshCount] = piece.texture;
+            meshes[meshCount] = CustomSpriteBatch.createStaticMesh(piece.vertices.items, piece.vertices.size,
+                    piece.triangles.items, piece.triangles.size);
+            meshCount++;
+        }
+        pieces.clear();
+        openPieces.clear();
+        dirty = false;
+    }
+
+    private void disposeMeshes() {
+        for (int i = 0; i < meshCount; i++) {
+            meshes[i].dispose();
+            meshes[i] = null;
+            textures[i] = null;
+        }
+        meshCount = 0;
+        layerCount = 0;
+    }
+
+    /**
+     * Starts a depth layer, in front of everything laid out before it.
+     * Sprites and polygons laid out in one layer must all have one texture.
+     */
+    void startLayer() {
+        layerCount++;
+    }
+
+    /**
+     * Returns the transform GameCanvas would draw a sprite with, for addSprite.
+     * It is overwritten by the next call.
+     *
+     * @param ox    the x-coordinate of the sprite origin, in texture pixels
+     * @param oy    the y-coordinate of the sprite origin, in texture pixels
+     * @param x     the x-coordinate of the sprite origin, in world pixels
+     * @param y     the y-coordinate of the sprite origin, in world pixels
+     * @param angle the rotation about the origin, in radians
+     * @param sx    the x-axis scaling factor
+     * @param sy    the y-axis scaling factor
+     * @return the transform of the sprite
+     */
+    Affine2 transform(float ox, float oy, float x, float y, float angle, float sx, float sy) {
+        local.setToTranslation(x, y);
+        local.rotate(180.0f * angle / (float) Math.PI);
+        local.scale(sx, sy);
+        local.translate(-ox, -oy);
+        return local;
+    }
+
+    /**
+     * Lays out a sprite, as CustomSpriteBatch draws a texture region with a transform.
+     *
+     * @param region    the region, for its texture, height and left edge
+     * @param width     the width of the sprite, in texture pixels
+     * @param u2        the right edge of the sprite in the texture
+     * @param color     the packed tint
+     * @param transform the transform of the sprite
+     */
+    void addSprite(TextureRegion region, float width, float u2, float color, Affine2 transform) {
+        float height = region.getRegionHeight();
+        Piece piece = getPiece(region.getTexture(), 4);
+        int start = piece.vertices.size / CustomSpriteBatch.VERTEX_SIZE;
+        ShortArray triangles = piece.triangles;
+        triangles.add((short) start);
+        triangles.add((short) (start + 1));
+        triangles.add((short) (start + 2));
+        triangles.add((short) (start + 2));
+        triangles.add((short) (start + 3));
+        triangles.add((short) start);
+
+        Affine2 t = transform;
+        float u = region.getU();
+        float v = region.getV2();
+        float v2 = region.getV();
+        addVertex(piece, t.m02, t.m12, color, u, v);
+        addVertex(piece, t.m01 * height + t.m02, t.m11 * height + t.m12, color, u, v2);
+        addVertex(piece, t.m00 * width + t.m01 * height + t.m02, t.m10 * width + t.m11 * height + t.m12, color, u2, v2);
+        addVertex(piece, t.m00 * width + t.m02, t.m10 * width + t.m12, color, u2, v);
+    }
+
+    /**
+     * Lays out a polygon region, as CustomSpriteBatch draws one unscaled about its corner.
+     *
+     * @param region the polygon
+     * @param x      the x-coordinate of the polygon origin, in pixels
+     * @param y      the y-coordinate of the polygon origin, in pixels
+     * @param angle  the rotation of the polygon, in radians
+     * @param color  the packed tint
+     */
+    void addPolygon(PolygonRegion region, float x, float y, float angle, float color) {
+        float[] points = region.getVertices();
+        float[] coords = region.getTextureCoords();
+        short[] regionTriangles = region.getTriangles();
+        Piece piece = getPiece(region.getRegion().getTexture(), points.length / 2);
+        int start = piece.vertices.size / CustomSpriteBatch.VERTEX_SIZE;
+        for (short index : regionTriangles) {
+            piece.triangles.add((short) (index + start));
+        }
+
+        float rotation = 180.0f * angle / (float) Math.PI;
+        float cos = MathUtils.cosDeg(rotation);
+        float sin = MathUtils.sinDeg(rotation);
+        for (int i = 0; i < points.length; i += 2) {
+            float fx = points[i];
+            float fy = points[i + 1];
+            addVertex(piece, cos * fx - sin * fy + x, sin * fx + cos * fy + y, color, coords[i], coords[i + 1]);
+        }
+    }
+
+    private void addVertex(Piece piece, float x, float y, float color, float u, float v) {
+        // The layer index is the depth; the batch turns it into the real one
+        FloatArray vertices = piece.vertices;
+        vertices.add(x);
+        vertices.add(y);
+        vertices.add(layerCount - 1);
+        vertices.add(color);
+        vertices.add(u);
+        vertices.add(v);
+    }
+
+    /**
+     * Returns the piece to add a draw of the given texture to, starting a new
+     * one when the last is full.
+     */
+    private Piece getPiece(Texture texture, int vertexCount) {
+        Piece piece = openPieces.get(texture);
+        if (piece == null || piece.vertices.size / CustomSpriteBatch.VERTEX_SIZE + vertexCount > MAX_VERTICES) {
+            piece = new Piece(texture);
+            pieces.add(piece);
+            openPieces.put(texture, piece);
+        }
+        return piece;
+    }
+
+    @Override
+    public Vector2 getPosition() {
+        return position;
+    }
+
+    @Override
+    public void setPosition(Vector2 value) {
+        // The walls are where they are
+    }
+
+    @Override
+    public void setPosition(float x, float y) {
+        // The walls are where they are
+    }
+
+    @Override
+    public float getX() {
+        return 0;
+    }
+
+    @Override
+    public void setX(float x) {
+        // The walls are where they are
+    }
+
+    @Override
+    public float getY() {
+        return 0;
+    }
+
+    @Override
+    public void setY(float y) {
+        // The walls are where they are
+    }
+
+    @Override
+    public void setTextures(MantisAssetManager manager) {
+        // The walls have their own textures
+    }
+
+    @Override
+    public void update(float delta) {
+        // Nothing moves
+    }
+
+    /**
+     * The geometry of one texture, until it is uploaded
+     */
+    private static class Piece {
+        final Texture texture;
+        final FloatArray vertices = new FloatArray();
+        final ShortArray triangles = new ShortArray();
+
+        Piece(Texture texture) {
+            this.texture = texture;
+        }
+    }
+}
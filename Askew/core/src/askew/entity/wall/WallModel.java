@@ -4,6 +4,7 @@ import askew.GameCanvas;
 import askew.MantisAssetManager;
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.PolygonObstacle;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
@@ -25,6 +26,10 @@ public class WallModel extends PolygonObstacle {
     private final transient Color tint;
     private transient TextureRegion circleTextureRegion;
     private transient TextureRegion edgeTextureRegion;
+    /**
+     * The level mesh this wall is drawn by, if any
+     */
+    transient WallMesh mesh;
     // Instance variables
     private float x;
     private float y;
@@ -79,6 +84,20 @@ public class WallModel extends PolygonObstacle {
         }
     }
 
+    @Override
+    protected float getViewRadius() {
+        // The edges and corners are drawn up to 32 pixels outside the outline
+        return super.getViewRadius() + 32f / Math.min(drawScale.x, drawScale.y);
+    }
+
+    @Override
+    public void setDrawScale(float x, float y) {
+        if (x != drawScale.x || y != drawScale.y) {
+            invalidateMesh();
+        }
+        super.setDrawScale(x, y);
+    }
+
     @Override
     public void draw(GameCanvas canvas) {
 
@@ -113,10 +132,71 @@ public class WallModel extends PolygonObstacle {
 
     }
 
+    /**
+     * Returns whether this wall can be drawn as part of a level mesh.
+     *
+     * @return whether the wall is textured and opaque
+     */
+    boolean canBake() {
+        return region != null && circleTextureRegion != null && tint.a == 1;
+    }
+
+    /**
+     * Lays out this wall in a level mesh, exactly as draw() would draw it.
+     *
+     * @param mesh the mesh to lay the wall out in
+     */
+    void tessellate(WallMesh mesh) {
+        float edgeWidth = 16f;
+        if (thorn) edgeWidth = 32f;
+        float color = tint.toFloatBits();
+
+        float cornerScale = edgeWidth / edgeTextureRegion.getRegionHeight() / 2;
+        float cornerWidth = circleTextureRegion.getRegionWidth();
+        mesh.startLayer();
+        for (int i = 0; i < points.length; i += 2) {
+            mesh.addSprite(circleTextureRegion, cornerWidth, circleTextureRegion.getU2(), color,
+                    mesh.transform(cornerWidth / 2f, circleTextureRegion.getRegionHeight() / 2f,
+                            (getX() + points[i]) * drawScale.x, (getY() + points[i + 1]) * drawScale.y,
+                            0, cornerScale, cornerScale));
+        }
+
+        mesh.startLayer();
+        mesh.addPolygon(region, getX() * drawScale.x, getY() * drawScale.y, getAngle(), color);
+
+        // The edge region is shared, so work out the width draw() would set rather than set it
+        float edgeU = edgeTextureRegion.getU();
+        int textureWidth = edgeTextureRegion.getTexture().getWidth();
+        mesh.startLayer();
+        for (int i = 0; i < points.length; i += 2) {
+            float x1 = points[i];
+            float y1 = points[i + 1];
+            float x2 = points[(i + 2) % points.length];
+            float y2 = points[(i + 3) % points.length];
+
+            int length = (int) Math.sqrt((drawScale.y * drawScale.y * (y2 - y1) * (y2 - y1))
+                    + (drawScale.x * drawScale.x * (x2 - x1) * (x2 - x1)));
+            float u2 = edgeU + length / (float) textureWidth;
+            mesh.addSprite(edgeTextureRegion, Math.round(Math.abs(u2 - edgeU) * textureWidth), u2, color,
+                    mesh.transform(0, 0, (getX() + x1) * drawScale.x, (getY() + y1) * drawScale.y,
+                            (float) Math.atan2(y2 - y1, x2 - x1), 1, edgeWidth / edgeTextureRegion.getRegionHeight()));
+        }
+    }
+
+    /**
+     * Tells the level mesh drawing this wall, if any, that the wall has changed.
+     */
+    private void invalidateMesh() {
+        if (mesh != null) {
+            mesh.invalidate();
+        }
+    }
+
     public void setPosition(float x, float y) {
         super.setPosition(x, y);
         this.x = x;
         this.y = y;
+        invalidateMesh();
     }
 
     public void pinchCreate(float bdx, float bdy) {
@@ -157,6 +237,7 @@ public class WallModel extends PolygonObstacle {
         this.points = newPoints;
         this.initShapes(points);
         this.initBounds();
+        invalidateMesh();
     }
 
     public void pinchDelete(float bdx, float bdy) {
@@ -193,6 +274,7 @@ public class WallModel extends PolygonObstacle {
         this.points = newPoints;
         this.initShapes(points);
         this.initBounds();
+        invalidateMesh();
     }
 
     public void pinchMove(float bdx, float bdy) {
@@ -218,6 +300,7 @@ public class WallModel extends PolygonObstacle {
 
         this.initShapes(points);
         this.initBounds();
+        invalidateMesh();
     }
 
     public float getModelX() {
@@ -0,0 +1,116 @@
+package askew.playermode;
+
+/**
+ * A thread that runs one piece of the simulation at a time, handed over by the
+ * render thread.
+ * <p>
+ * The render thread calls start() to run the task and await() before touching
+ * anything the task does; everything written on either side before those calls
+ * is seen by the other side after them.  Nothing is allocated per hand-over, so
+ * this can be used every frame.
+ */
+class SimulationThread {
+
+    /**
+     * What to run each time the thread is started
+     */
+    private final Runnable task;
+    private final Thread thread;
+    /**
+     * Whether the task has been started and has not yet finished
+     */
+    private boolean pending;
+    /**
+     * Whether the thread should keep waiting for work
+     */
+    private boolean running = true;
+    /**
+     * Whatever the last run of the task threw, to be thrown on the render thread
+     */
+    private Throwable failure;
+
+    /**
+     * Creates and starts a thread for the task.  The thread is a daemon, so it
+     * never keeps the game open on its own.
+     *
+     * @param name The name of the thread
+     * @param task What to run each time the thread is started
+     */
+    SimulationThread(String name, Runnable task) {
+        this.task = task;
+        thread = new Thread(this::loop, name);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Runs the task on this thread.  The previous run must have been waited for.
+     */
+    synchronized void start() {
+        pending = true;
+        notifyAll();
+    }
+
+    /**
+     * Waits for the task to finish, if it was started.
+     *
+     * @throws RuntimeException if the task threw
+     */
+    synchronized void await() {
+        while (pending) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (failure != null) {
+            Throwable cause = failure;
+            failure = null;
+            throw new RuntimeException("The simulation thread failed", cause);
+        }
+    }
+
+    /**
+     * Waits for the task to finish and stops the thread.
+     */
+    void dispose() {
+        try {
+            await();
+        } finally {
+            synchronized (this) {
+                running = false;
+                notifyAll();
+            }
+        }
+    }
+
+    private void loop() {
+        while (true) {
+            synchronized (this) {
+                while (!pending && running) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (!running) {
+                    return;
+                }
+            }
+            Throwable thrown = null;
+            try {
+                task.run();
+            } catch (Throwable t) {
+                thrown = t;
+            }
+            synchronized (this) {
+                failure = thrown;
+                pending = false;
+                notifyAll();
+            }
+        }
+    }
+}
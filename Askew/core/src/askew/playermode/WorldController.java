@@ -16,6 +16,7 @@ package askew.playermode;/*
  */
 
 import askew.*;
+import askew.entity.DrawOrder;
 import askew.entity.Entity;
 import askew.entity.EyeEntity;
 import askew.entity.obstacle.Obstacle;
@@ -23,6 +24,11 @@ import askew.entity.sloth.SlothModel;
 import askew.playermode.gamemode.GameModeController;
 import askew.playermode.gamemode.TutorialModeController;
 import askew.util.FilmStrip;
+import askew.util.FrameProfiler;
+import askew.util.FrameProfiler.Phase;
+import askew.util.InputRecorder;
+import askew.util.InputReplay;
+import askew.util.RandomController;
 import askew.util.ScreenListener;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.assets.AssetManager;
@@ -36,6 +42,7 @@ import com.badlogic.gdx.physics.box2d.World;
 import com.badlogic.gdx.utils.Array;
 import lombok.Getter;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -82,7 +89,11 @@ public abstract class WorldController implements Screen {
     /**
      * The amount of time for a physics engine step.
      */
-    private static final float WORLD_STEP = 1 / 60.0f;
+    public static final float WORLD_STEP = 1 / 60.0f;
+    /**
+     * The most physics steps a single rendered frame may take before we drop time
+     */
+    private static final int MAX_STEPS_PER_FRAME = 5;
     /**
      * Number of velocity iterations for the constrain solvers
      */
@@ -127,6 +138,15 @@ public abstract class WorldController implements Screen {
      * All the entities in the world.
      */
     protected ArrayList<Entity> entities = new ArrayList<>();
+    /**
+     * The entities in the world, in the order they are drawn.
+     */
+    protected final DrawOrder drawOrder = new DrawOrder();
+    /**
+     * Times the phases of each frame
+     */
+    @Getter
+    protected final FrameProfiler profiler = new FrameProfiler();
     /**
      * Listener that will update the player mode when we are done
      */
@@ -134,6 +154,7 @@ public abstract class WorldController implements Screen {
     /**
      * The Box2D world
      */
+    @Getter
     protected World world;
     /**
      * The boundary of the world
@@ -149,6 +170,53 @@ public abstract class WorldController implements Screen {
      * Whether or not debug mode is active
      */
     protected boolean debug;
+    /**
+     * Whether this world runs without a canvas, assets or live input
+     */
+    protected boolean headless;
+    /**
+     * The input controllers that drive this world
+     */
+    protected List<InputController> inputControllers;
+    /**
+     * Records the input of every step, or null when not recording
+     */
+    protected InputRecorder inputRecorder;
+    /**
+     * Supplies the input of every step in place of the devices, or null for live input
+     */
+    private InputReplay inputReplay;
+    /**
+     * Rolls every random number of the gameplay, so that it plays the same
+     * way each time from the same seed and input
+     */
+    protected final RandomController random = new RandomController(0);
+    /**
+     * What the world's random numbers are started from
+     */
+    @Getter
+    private long seed;
+    /**
+     * Simulation time not yet consumed by a physics step
+     */
+    private float accumulator;
+    /**
+     * How far the frame being drawn is from the previous physics step to the
+     * current one, from 0 to 1
+     */
+    protected float drawAlpha = 1;
+    /**
+     * Steps the physics while the frame is drawn, or null to do everything on this thread
+     */
+    private SimulationThread simulation;
+    /**
+     * The physics half of a step, as run by the simulation thread
+     */
+    private final Runnable physicsStep = () -> postUpdate(WORLD_STEP);
+    /**
+     * The entities in draw order as they were when the snapshot was taken
+     */
+    private final DrawOrder snapshotOrder = new DrawOrder();
     /**
      * Track asset loading from all instances and subclasses
      */
@@ -215,6 +283,7 @@ public abstract class WorldController implements Screen {
         debug = false;
         active = false;
         countdown = -1;
+        inputControllers = InputControllerManager.getInstance().inputControllers();
         playingMusic = GlobalConfiguration.getInstance().getAsBoolean("enableMusic");
         //System.out.println("SETTING SCALE IN CONSTRUCTOR");
     }
@@ -331,6 +400,85 @@ public abstract class WorldController implements Screen {
         debug = value;
     }
 
+    /**
+     * Returns true if this world is simulated without a canvas.
+     * <p>
+     * A headless world never draws, loads no assets and does not poll the
+     * input devices; its input controllers are driven by whoever steps it.
+     *
+     * @return true if this world is headless.
+     */
+    public boolean isHeadless() {
+        return headless;
+    }
+
+    /**
+     * Sets whether this world is simulated without a canvas.
+     * <p>
+     * This must be set before the first reset, as it decides which parts of
+     * the level are built.
+     *
+     * @param value whether this world is headless.
+     */
+    public void setHeadless(boolean value) {
+        headless = value;
+    }
+
+    /**
+     * Returns the input controller for the given player.
+     *
+     * @param index The player index
+     * @return the input controller for the given player.
+     */
+    public InputController getInput(int index) {
+        return inputControllers.get(index);
+    }
+
+    /**
+     * Sets the input controllers that drive this world.
+     * <p>
+     * By default these are the shared device controllers.  Headless worlds
+     * should be given their own so that they can be driven independently.
+     *
+     * @param controllers The input controllers, one per player
+     */
+    public void setInputControllers(List<InputController> controllers) {
+        inputControllers = controllers;
+    }
+
+    /**
+     * Sets what the world's random numbers are started from.
+     * <p>
+     * A world starts them over from the seed when it is reset, so a replay
+     * of recorded input rolls the numbers that were rolled when it was recorded.
+     *
+     * @param value the seed
+     */
+    public void setSeed(long value) {
+        seed = value;
+        random.setSeed(value);
+    }
+
+    /**
+     * Sets what records the input of every step of this world.
+     *
+     * @param recorder the recorder, or null to stop recording
+     */
+    public void setInputRecorder(InputRecorder recorder) {
+        inputRecorder = recorder;
+    }
+
+    /**
+     * Sets a recording to take the input of every step from, instead of the devices.
+     * <p>
+     * When the recording runs out, the world goes back to live input.
+     *
+     * @param replay the recording, or null for live input
+     */
+    public void setInputReplay(InputReplay replay) {
+        inputReplay = replay;
+    }
+
     /**
      * Returns true if the level is completed.
      * <p>
@@ -338,7 +486,7 @@ public abstract class WorldController implements Screen {
      *
      * @return true if the level is completed.
      */
-    protected boolean isComplete() {
+    public boolean isComplete() {
         return complete;
     }
 
@@ -363,7 +511,7 @@ public abstract class WorldController implements Screen {
      *
      * @return true if the level is failed.
      */
-    protected boolean isFailure() {
+    public boolean isFailure() {
         return failed;
     }
 
@@ -415,14 +563,18 @@ public abstract class WorldController implements Screen {
                 .getWidth();
         this.worldScale.y = 1.3f * (float) canvas.getHeight() / bounds
                 .getHeight();
+        applyDrawScale();
     }
 
     /**
      * Dispose of all (non-static) resources allocated to this mode.
      */
     public void dispose() {
+        stopSimulationThread();
+        dumpProfile();
         entities.stream().filter(ent -> ent instanceof Obstacle).forEachOrdered(ent -> ((Obstacle) ent).deactivatePhysics(world));
         entities.clear();
+        drawOrder.clear();
         world.dispose();
         entities = null;
         bounds = null;
@@ -431,6 +583,24 @@ public abstract class WorldController implements Screen {
         canvas = null;
     }
 
+    /**
+     * Writes the session's frame profile, if the configuration names a file for it.
+     * <p>
+     * Every controller writes its own profile, named after the configured file
+     * with the controller's class name added (profile.csv becomes
+     * profile-GameModeController.csv).
+     */
+    private void dumpProfile() {
+        // Older config.json files have no entry for this
+        String path = GlobalConfiguration.getInstance().getAsString("frameProfileDump", "");
+        if (path.isEmpty() || profiler.getFrames() == 0) {
+            return;
+        }
+        int dot = path.lastIndexOf('.');
+        String name = "-" + getClass().getSimpleName();
+        profiler.dump(new File(dot < 0 ? path + name : path.substring(0, dot) + name + path.substring(dot)));
+    }
+
     /**
      * Immediately adds the object to the physics world
      * <p>
@@ -440,11 +610,22 @@ public abstract class WorldController implements Screen {
         //assert inBounds(obj) : "Object is not in bounds";
 
         entities.add(obj);
+        drawOrder.add(obj);
         if (obj instanceof Obstacle) {
             ((Obstacle) obj).activatePhysics(world);
         }
     }
 
+    /**
+     * Removes the object from the world without touching its physics.
+     * <p>
+     * param obj The object to remove
+     */
+    protected void removeObject(Entity obj) {
+        entities.remove(obj);
+        drawOrder.remove(obj);
+    }
+
     /**
      * Returns true if the object is in bounds.
      * <p>
@@ -470,6 +651,7 @@ public abstract class WorldController implements Screen {
         bounds.height = DEFAULT_HEIGHT;
         bounds.width = DEFAULT_WIDTH;
         setWorldScale(canvas);
+        random.setSeed(seed);
     }
 
     /**
@@ -485,10 +667,17 @@ public abstract class WorldController implements Screen {
      */
     protected boolean preUpdate(float dt) {
 
-        InputControllerManager.getInstance().inputControllers().forEach(input -> input.readInput(bounds, worldScale));
+        if (inputReplay != null) {
+            replayInput();
+        } else if (!headless) {
+            inputControllers.forEach(input -> input.readInput(bounds, worldScale));
+        }
+        if (inputRecorder != null) {
+            inputRecorder.record(inputControllers);
+        }
 
         // player 1 priority
-        InputController input = InputControllerManager.getInstance().getController(0);
+        InputController input = getInput(0);
         if (listener == null) {
             return true;
         }
@@ -542,6 +731,28 @@ public abstract class WorldController implements Screen {
         return true;
     }
 
+    /**
+     * Takes the input of this step from the replay.
+     * <p>
+     * The world decides for itself whether to simulate the step, so the level
+     * records and whether the step was simulated are only read past.
+     */
+    private void replayInput() {
+        int record;
+        do {
+            record = inputReplay.next(inputControllers);
+        } while (record == InputReplay.LEVEL);
+
+        if (record == InputReplay.END) {
+            System.out.println("Replayed " + inputReplay.getSteps() + " steps of input");
+            inputReplay.close();
+            inputReplay = null;
+            if (!headless) {
+                inputControllers.forEach(input -> input.readInput(bounds, worldScale));
+            }
+        }
+    }
+
     /**
      * The core gameplay loop of this world.
      * <p>
@@ -564,19 +775,28 @@ public abstract class WorldController implements Screen {
      * Number of seconds since last animation frame
      */
     protected void postUpdate(float dt) {
+        // Nothing is drawn headless, so there is nothing to interpolate
+        if (!headless) {
+            savePreviousTransforms();
+        }
+
         // Turn the physics engine crank.
+        profiler.start(Phase.PHYSICS);
         world.step(WORLD_STEP, WORLD_VELOC, WORLD_POSIT);
+        profiler.stop(Phase.PHYSICS);
 
         // Garbage collect the deleted entities.
-        // Note how we use the linked list nodes to delete O(1) in place.
-        // This is O(n) without copying.
-        for (Entity ent : entities) {
+        profiler.start(Phase.ENTITY_UPDATE);
+        // Indexed, so that a frame with nothing removed allocates nothing
+        for (int i = 0; i < entities.size(); i++) {
+            Entity ent = entities.get(i);
 
             if (ent instanceof Obstacle) {
                 Obstacle obj = (Obstacle) ent;
                 if (obj.isRemoved()) {
                     obj.deactivatePhysics(world);
-                    entities.remove(ent);
+                    entities.remove(i--);
+                    drawOrder.remove(ent);
                     continue;
                 }
             }
@@ -586,6 +806,19 @@ public abstract class WorldController implements Screen {
                 ((EyeEntity) ent).update(dt, slothList.get(0));
             }
         }
+        profiler.stop(Phase.ENTITY_UPDATE);
+    }
+
+    /**
+     * Remembers where every entity is, as where it was at the previous step.
+     * <p>
+     * This is done before each physics step, and after anything that moves
+     * entities without one (like a reset) so they are not drawn sliding back.
+     */
+    protected void savePreviousTransforms() {
+        for (int i = 0; i < entities.size(); i++) {
+            entities.get(i).savePreviousTransform();
+        }
     }
 
     /**
@@ -603,7 +836,7 @@ public abstract class WorldController implements Screen {
 
         canvas.begin();
         for (Entity obj : entities) {
-            obj.draw(canvas);
+            obj.draw(canvas, drawAlpha);
         }
         canvas.end();
 
@@ -645,6 +878,10 @@ public abstract class WorldController implements Screen {
     }
 
     public void setWorldScale(GameCanvas canvas) {
+        if (canvas == null) {
+            // Headless worlds keep their unit scale
+            return;
+        }
         //System.out.println("IN SET SCALE");
         //System.out.println("pre set ("+scale.x+","+scale.y+")");
         this.worldScale.x = 1.3f * (float) canvas.getWidth() / bounds
@@ -652,6 +889,57 @@ public abstract class WorldController implements Screen {
         this.worldScale.y = 1.3f * (float) canvas.getHeight() / bounds
                 .getHeight();
         //System.out.println("post set ("+scale.x+","+scale.y+")");
+        applyDrawScale();
+    }
+
+    /**
+     * Gives every entity the world scale as its drawing scale.
+     * <p>
+     * This is done whenever the world scale changes, rather than every frame,
+     * as rescaling can be expensive (polygons rescale their drawing shape).
+     * Entities added afterwards must be given the world scale when they are added.
+     */
+    protected void applyDrawScale() {
+        for (Entity entity : entities) {
+            entity.setDrawScale(worldScale);
+        }
+    }
+
+    /**
+     * Advances the simulation by exactly one physics step.
+     * <p>
+     * This is the whole gameplay loop without any drawing, so it can be called
+     * as fast as we like on a headless world.
+     *
+     * @return whether the update loop was processed
+     */
+    public boolean step() {
+        if (beginStep()) {
+            postUpdate(WORLD_STEP);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Runs the part of a step that comes before the physics.
+     *
+     * @return whether the update loop was processed, in which case postUpdate
+     * must be run to finish the step
+     */
+    private boolean beginStep() {
+        profiler.start(Phase.PRE_UPDATE);
+        boolean process = preUpdate(WORLD_STEP);
+        profiler.stop(Phase.PRE_UPDATE);
+        if (inputRecorder != null) {
+            inputRecorder.endStep(process);
+        }
+        if (process) {
+            profiler.start(Phase.UPDATE);
+            update(WORLD_STEP); // This is the one that must be defined.
+            profiler.stop(Phase.UPDATE);
+        }
+        return process;
     }
 
     /**
@@ -659,19 +947,132 @@ public abstract class WorldController implements Screen {
      * <p>
      * We defer to the other methods update() and draw().  However, it is VERY important
      * that we only quit AFTER a draw.
+     * <p>
+     * The simulation always advances in fixed steps of WORLD_STEP.  The frame time
+     * is accumulated and consumed by as many steps as fit, so the game runs at the
+     * same speed no matter the frame rate.  The time left over is less than a
+     * step, and the frame is drawn that fraction of the way through the last step
+     * (see drawAlpha), so the motion is smooth even when the frame rate and the
+     * step rate do not match.
+     * <p>
+     * If the configuration asks for a simulation thread (simulationThread), the
+     * physics of the last step of a frame (postUpdate) runs on that thread while
+     * the frame is drawn from a snapshot taken just before it.  The update itself
+     * stays on this thread, as it may grab the cursor, change screens or make
+     * meshes, which only this thread may do.  Frames are then a step behind.
+     * <p>
+     * Each frame is timed by the profiler, which the debug overlay shows, and
+     * the bytes its drawing allocates are counted.
      *
      * @param delta Number of seconds since last animation frame
      */
     public void render(float delta) {
         if (active) {
-            if (preUpdate(delta)) {
-                update(delta); // This is the one that must be defined.
-                postUpdate(delta);
+            profiler.start(Phase.FRAME);
+            if (simulation != null) {
+                // Finish the physics of the last frame before touching the world
+                simulation.await();
+            }
+            accumulator += delta;
+            int steps = 0;
+            boolean simulating = false;
+            while (active && accumulator >= WORLD_STEP) {
+                accumulator -= WORLD_STEP;
+                if (++steps == MAX_STEPS_PER_FRAME) {
+                    // Too far behind to catch up; drop the rest
+                    accumulator = 0;
+                }
+                boolean lastStep = accumulator < WORLD_STEP;
+                if (simulation != null && lastStep && active) {
+                    if (beginStep()) {
+                        // Draw what the world is now while its physics is stepped
+                        captureSnapshot();
+                        simulation.start();
+                        simulating = true;
+                    } else {
+                        savePreviousTransforms();
+                    }
+                } else if (!step()) {
+                    // Nothing moved (paused, say), so draw where everything is
+                    savePreviousTransforms();
+                }
+            }
+            if (simulation != null && !simulating) {
+                captureSnapshot();
             }
+            drawAlpha = accumulator / WORLD_STEP;
+            long allocated = profiler.getAllocatedBytes();
             draw(delta);
+            profiler.count(Phase.DRAW_ALLOCATED, profiler.getAllocatedBytes() - allocated);
+            if (canvas != null) {
+                profiler.count(Phase.RENDER_CALLS, canvas.getRenderCalls());
+            }
+            profiler.stop(Phase.FRAME);
+            profiler.endFrame();
+        }
+    }
+
+    /**
+     * Returns whether this world can step its physics on a thread of its own.
+     * <p>
+     * Only worlds whose drawing never reads the physics directly (it must draw
+     * getRenderOrder() and use the obstacles' draw transforms) can.
+     *
+     * @return whether this world can step its physics on a thread of its own
+     */
+    protected boolean canSimulateOnThread() {
+        return false;
+    }
+
+    /**
+     * Returns whether the physics is being stepped on a thread of its own.
+     *
+     * @return whether the physics is being stepped on a thread of its own
+     */
+    protected boolean isSimulationThreaded() {
+        return simulation != null;
+    }
+
+    /**
+     * Copies what drawing needs from the world, so that the frame can be drawn
+     * while the simulation thread steps the physics.
+     * <p>
+     * This is called on the render thread while the simulation thread is idle.
+     * Subclasses that draw other simulated state should copy it here too.
+     */
+    protected void captureSnapshot() {
+        snapshotOrder.set(drawOrder);
+        for (int i = 0; i < snapshotOrder.size(); i++) {
+            snapshotOrder.get(i).captureSnapshot();
         }
     }
 
+    /**
+     * Waits for the physics being stepped on the simulation thread, if there is
+     * one, so that the live world can be read.
+     * <p>
+     * Drawing that reads the physics rather than the snapshot (the debug
+     * overlay) must call this first.  It then shows the world a step ahead of
+     * the rest of the frame.
+     */
+    protected void awaitSimulation() {
+        if (simulation != null) {
+            simulation.await();
+        }
+    }
+
+    /**
+     * Returns the entities to draw, in draw order.
+     * <p>
+     * While the physics runs on its own thread, this is the order as it was
+     * when the snapshot was taken, as the live order can change while drawing.
+     *
+     * @return the entities to draw, in draw order
+     */
+    protected DrawOrder getRenderOrder() {
+        return simulation != null ? snapshotOrder : drawOrder;
+    }
+
     /**
      * Called when the Screen is paused.
      * <p>
@@ -697,6 +1098,11 @@ public abstract class WorldController implements Screen {
     public void show() {
         // Useless if called in outside animation loop
         active = true;
+        accumulator = 0;
+        if (!headless && canSimulateOnThread() && simulation == null
+                && GlobalConfiguration.getInstance().getAsBoolean("simulationThread", false)) {
+            simulation = new SimulationThread(getClass().getSimpleName() + " simulation", physicsStep);
+        }
     }
 
     /**
@@ -705,6 +1111,23 @@ public abstract class WorldController implements Screen {
     public void hide() {
         // Useless if called in outside animation loop
         active = false;
+        stopSimulationThread();
+    }
+
+    /**
+     * Finishes any physics still being stepped and stops the simulation thread.
+     * The entities are drawn from their physics again afterwards.
+     */
+    private void stopSimulationThread() {
+        if (simulation != null) {
+            SimulationThread stopping = simulation;
+            simulation = null;
+            stopping.dispose();
+            for (int i = 0; i < snapshotOrder.size(); i++) {
+                snapshotOrder.get(i).releaseSnapshot();
+            }
+            snapshotOrder.clear();
+        }
     }
 
     /**
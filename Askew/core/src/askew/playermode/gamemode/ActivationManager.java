@@ -0,0 +1,231 @@
+package askew.playermode.gamemode;
+
+import askew.entity.ghost.GhostModel;
+import askew.entity.obstacle.ComplexObstacle;
+import askew.entity.obstacle.Obstacle;
+import askew.entity.sloth.SlothModel;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.BooleanArray;
+import com.badlogic.gdx.utils.FloatArray;
+import com.badlogic.gdx.utils.IntArray;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Takes the scenery far from every player out of the physics, and puts it back
+ * as they come near.
+ * <p>
+ * Trees, vines and ghosts are grouped into regions, one per obstacle.  A region
+ * is a circle around where the obstacle was when it was added (a ghost's region
+ * follows the ghost), and it is active while any sloth that is still in one
+ * piece, or the camera, is within the radius of it.  The bodies of an inactive
+ * region are made inactive in Box2D, so they cost nothing to step or collide,
+ * and keep their positions and velocities until they are made active again.
+ * <p>
+ * Whether a region is active only depends on where the players and the camera
+ * are at each step, never on the frame rate or on what has been drawn.
+ */
+class ActivationManager {
+
+    /**
+     * How much farther than the radius a region must be before it is taken out
+     * again, so one at the edge does not flicker in and out
+     */
+    private static final float HYSTERESIS = 1.25f;
+    /**
+     * Added to the reach of each region, for the size of its bodies
+     */
+    private static final float MARGIN = 1;
+
+    /**
+     * How close a player must be to a region to make it active, or 0 to keep everything active
+     */
+    @Getter
+    @Setter
+    private float radius;
+    /**
+     * The number of regions that are active
+     */
+    @Getter
+    private int activeCount;
+
+    /**
+     * The obstacle of each region
+     */
+    private final Array<Obstacle> owners = new Array<>();
+    /**
+     * The bodies of every region; those of region i start at partStart[i]
+     */
+    private final Array<Obstacle> parts = new Array<>();
+    private final IntArray partStart = new IntArray();
+    /**
+     * The centre of each region and how far its bodies may get from it
+     */
+    private final FloatArray centerX = new FloatArray();
+    private final FloatArray centerY = new FloatArray();
+    private final FloatArray reach = new FloatArray();
+    /**
+     * Whether a region follows its obstacle rather than staying where it started
+     */
+    private final BooleanArray moving = new BooleanArray();
+    private final BooleanArray active = new BooleanArray();
+    /**
+     * The positions of the players at this step, two floats apiece
+     */
+    private float[] players = new float[8];
+
+    /**
+     * Returns whether an obstacle is handled by the manager.
+     *
+     * @param obstacle the obstacle
+     * @return whether the obstacle is handled by the manager
+     */
+    static boolean isManaged(Obstacle obstacle) {
+        return (obstacle instanceof ComplexObstacle && !(obstacle instanceof SlothModel))
+                || obstacle instanceof GhostModel;
+    }
+
+    /**
+     * Adds a region for an obstacle whose bodies have been made.
+     *
+     * @param obstacle the obstacle
+     */
+    void add(Obstacle obstacle) {
+        int start = parts.size;
+        float x = 0;
+        float y = 0;
+        if (obstacle instanceof ComplexObstacle) {
+            for (Obstacle part : ((ComplexObstacle) obstacle).getBodies()) {
+                parts.add(part);
+                x += part.getX();
+                y += part.getY();
+            }
+        } else {
+            parts.add(obstacle);
+            x = obstacle.getX();
+            y = obstacle.getY();
+        }
+        int count = parts.size - start;
+        if (count == 0) {
+            return;
+        }
+        x /= count;
+        y /= count;
+
+        // Vines swing and branches bend, so allow twice as far as the bodies are now
+        float farthest = 0;
+        for (int i = start; i < parts.size; i++) {
+            Obstacle part = parts.get(i);
+            farthest = Math.max(farthest, (float) Math.hypot(part.getX() - x, part.getY() - y));
+        }
+
+        owners.add(obstacle);
+        partStart.add(start);
+        centerX.add(x);
+        centerY.add(y);
+        reach.add(2 * farthest + MARGIN);
+        moving.add(!(obstacle instanceof ComplexObstacle));
+        active.add(true);
+        activeCount++;
+    }
+
+    /**
+     * Makes each region active or not, by how near it is to the players and the camera.
+     * <p>
+     * This must be called between physics steps.
+     *
+     * @param sloths  the sloths of the level
+     * @param cameraX the x-coordinate of the camera
+     * @param cameraY the y-coordinate of the camera
+     */
+    void update(List<SlothModel> sloths, float cameraX, float cameraY) {
+        if (radius <= 0 || owners.size == 0) {
+            return;
+        }
+
+        int n = 0;
+        if (players.length < sloths.size() * 2 + 2) {
+            players = new float[sloths.size() * 2 + 2];
+        }
+        players[n++] = cameraX;
+        players[n++] = cameraY;
+        for (int i = 0; i < sloths.size(); i++) {
+            SlothModel sloth = sloths.get(i);
+            if (!sloth.isDismembered()) {
+                // The sloth itself never moves; its bodies do
+                Vector2 position = sloth.getBody().getPosition();
+                players[n++] = position.x;
+                players[n++] = position.y;
+            }
+        }
+
+        for (int i = 0; i < owners.size; i++) {
+            float x = centerX.get(i);
+            float y = centerY.get(i);
+            if (moving.get(i)) {
+                Obstacle owner = owners.get(i);
+                x = owner.getX();
+                y = owner.getY();
+            }
+            float near = radius + reach.get(i);
+            if (active.get(i)) {
+                near *= HYSTERESIS;
+            }
+            float near2 = near * near;
+
+            boolean wanted = false;
+            for (int j = 0; j < n && !wanted; j += 2) {
+                float dx = players[j] - x;
+                float dy = players[j + 1] - y;
+                wanted = dx * dx + dy * dy < near2;
+            }
+            if (wanted != active.get(i)) {
+                setActive(i, wanted);
+            }
+        }
+    }
+
+    private void setActive(int region, boolean value) {
+        int end = region + 1 < partStart.size ? partStart.get(region + 1) : parts.size;
+        for (int i = partStart.get(region); i < end; i++) {
+            parts.get(i).setActive(value);
+        }
+        active.set(region, value);
+        activeCount += value ? 1 : -1;
+    }
+
+    /**
+     * Makes every region active again and forgets them all.
+     * <p>
+     * This must be called while the bodies still exist, before the level is
+     * restored or its world is disposed.
+     */
+    void clear() {
+        for (int i = 0; i < owners.size; i++) {
+            if (!active.get(i)) {
+                setActive(i, true);
+            }
+        }
+        owners.clear();
+        parts.clear();
+        partStart.clear();
+        centerX.clear();
+        centerY.clear();
+        reach.clear();
+        moving.clear();
+        active.clear();
+        activeCount = 0;
+    }
+
+    /**
+     * Returns the number of regions.
+     *
+     * @return the number of regions
+     */
+    int size() {
+        return owners.size;
+    }
+}
@@ -12,18 +12,23 @@ package askew.playermode.gamemode;
 
 import askew.GlobalConfiguration;
 import askew.InputController;
-import askew.InputControllerManager;
 import askew.MantisAssetManager;
+import askew.entity.DrawOrder;
 import askew.entity.Entity;
 import askew.entity.obstacle.Obstacle;
 import askew.entity.owl.OwlModel;
 import askew.entity.sloth.SlothModel;
+import askew.entity.wall.WallMesh;
+import askew.entity.wall.WallModel;
 import askew.playermode.WorldController;
 import askew.playermode.gamemode.Particles.Effect;
 import askew.playermode.gamemode.Particles.ParticleController;
 import askew.playermode.leveleditor.LevelModel;
 import askew.util.RecordBook;
+import askew.util.FrameProfiler.Phase;
 import askew.util.SoundController;
+import askew.util.ViewBounds;
+import askew.util.json.CompiledLevel;
 import askew.util.json.JSONLoaderSaver;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.audio.Sound;
@@ -38,7 +43,7 @@ import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.List;
 
 /**
  * Gameplay specific controller for Askew.
@@ -55,17 +60,22 @@ public class GameModeController extends WorldController {
 
 	public static final float MAX_MUSIC_VOLUME = 0.45f;
 	Affine2 camTrans = new Affine2();
+	/** Cache color for the rectangle that darkens the screen */
+	private final Color coverColor = new Color();
 
 	/** Track asset loading from all instances and subclasses */
 	private AssetState platformAssetState = AssetState.EMPTY;
 
 	/** Track asset loading from all instances and subclasses */
 	@Getter
-	protected static boolean playerIsReady = false;
+	protected boolean playerIsReady = false;
 	@Getter
 	protected boolean paused = false;
 	protected boolean prevPaused = false;
 	private boolean victory = false;
+	/** The number of times the level has been reset, including the first */
+	@Getter
+	private int resets;
 	// fern selection indicator locations for pause menu options
 	protected Vector2[] pause_locs = {
 			new Vector2(0.68f,0.53f),
@@ -108,8 +118,13 @@ public class GameModeController extends WorldController {
 	private int numLevel, MAX_LEVEL, MAX_MULTI_LEVEL; 	// track int val of
 	// lvl #
 
-	protected float currentTime, recordTime;	// track current and record time to complete level
-	protected int currentGrabs, recordGrabs;
+	// track current and record time to complete level
+	@Getter
+	protected float currentTime;
+	protected float recordTime;
+	@Getter
+	protected int currentGrabs;
+	protected int recordGrabs;
 	protected boolean leftPrevGrab, rightPrevGrab, leftNewGrab, rightNewGrab;
 	private boolean storeTimeRecords;
 	private RecordBook records = RecordBook.getInstance();
@@ -138,11 +153,27 @@ public class GameModeController extends WorldController {
 	private float fallDeathHeight;
 	private String selectedTrack;
 	private String lastLevel;
+	/** The starting state of the level, for restarts */
+	private LevelSnapshot levelSnapshot;
+	/** Takes the trees, vines and ghosts far from the players out of the physics */
+	private final ActivationManager activation = new ActivationManager();
+	/** Whether this reset is restoring the level rather than building it */
+	private boolean restoringLevel;
+	/** The walls of the level, drawn together; kept across restores */
+	private final WallMesh wallMesh = new WallMesh();
 	private MantisAssetManager manager;
 	protected float cameraX;
 	protected float cameraY;
 	protected float cameraVelocityX;
 	protected float cameraVelocityY;
+	/** Where the camera was at the previous step, to draw it between steps */
+	private float previousCameraX;
+	private float previousCameraY;
+	/** The camera's previous and current positions, copied for drawing while the physics steps */
+	private float snapshotPreviousCameraX;
+	private float snapshotPreviousCameraY;
+	private float snapshotCameraX;
+	private float snapshotCameraY;
 	private VictoryCutscene victoryCutscene;
 	private boolean multiplayer;
 	private float owlOPosX;
@@ -183,10 +214,7 @@ public class GameModeController extends WorldController {
 		if (platformAssetState != AssetState.EMPTY) {
 			return;
 		}
-		for (String soundName : GAMEPLAY_MUSIC) {
-			manager.load(soundName, Sound.class);
-		}
-		manager.load("sound/music/levelselect.ogg", Sound.class);
+		// The music tracks are streamed when they play, so only the loops are loaded
 		manager.load(FALL_MUSIC, Sound.class);
 		manager.load(ARM_SOUND, Sound.class);
 		manager.load(WIND_SOUND, Sound.class);
@@ -220,12 +248,6 @@ public class GameModeController extends WorldController {
 			return;
 		}
 
-		for (String soundName : GAMEPLAY_MUSIC) {
-			SoundController.getInstance().allocate(manager, soundName);
-		}
-		SoundController.getInstance().allocate(manager, "sound/music/levelselect" +
-				".ogg");
-
 		SoundController.getInstance().allocate(manager, FALL_MUSIC);
 		SoundController.getInstance().allocate(manager, ARM_SOUND);
 		SoundController.getInstance().allocate(manager, WIND_SOUND);
@@ -255,7 +277,8 @@ public class GameModeController extends WorldController {
 	private static final float  DEFAULT_GRAVITY = -12.5f;//-15.7f;
 
 	// Physics objects for the game
-	protected static OwlModel owl;
+	@Getter
+	protected OwlModel owl;
 
 	/**
 	 * Creates and initialize a new instance of the platformer game
@@ -318,35 +341,63 @@ public class GameModeController extends WorldController {
 		playerIsReady = false;
 	}
 
+	@Override
+	public void dispose() {
+		wallMesh.clear();
+		particleController.dispose();
+		super.dispose();
+	}
+
 	/**
 	 * Resets the status of the game so that we can play again.
 	 *
-	 * This method disposes of the world and creates a new one.
+	 * Restarting the level that is already loaded puts its scenery back in
+	 * place and only rebuilds the sloths, owl and ghosts (see LevelSnapshot).
+	 * Otherwise this method disposes of the world and creates a new one.
 	 */
 	public void reset() {
 		super.reset();
+		resets++;
 		framesToDie = 60;
 		showStatsTimer = 60;
-		Gdx.input.setCursorCatched(true);
+		if (!headless) Gdx.input.setCursorCatched(true);
 		coverOpacity = 2f; // start at 2 for 1 second of full black
 		this.windVolume = 0;
 		playerIsReady = false;
 		paused = false;
 		Vector2 gravity = new Vector2(world.getGravity() );
 
-		InputControllerManager.getInstance().inputControllers().forEach(InputController::releaseGrabs);
+		inputControllers.forEach(InputController::releaseGrabs);
 
-		particleController.reset();
+		particleController.reset(random.nextLong());
 		fogTime = 0;
 		eyeTime = 0;
-		for(Entity obj : entities) {
-			if( (obj instanceof Obstacle))
-				((Obstacle)obj).deactivatePhysics(world);
-		}
+		activation.clear();
+		restoringLevel = canRestoreLevel();
+		if (restoringLevel) {
+			List<Entity> levelEntities = levelModel.getEntities();
+			for (int i = 0; i < levelEntities.size(); i++) {
+				Entity obj = levelEntities.get(i);
+				if (levelSnapshot.isRebuilt(i) && obj instanceof Obstacle) {
+					((Obstacle) obj).deactivatePhysics(world);
+				}
+			}
+			levelSnapshot.restore();
+			entities.clear();
+			drawOrder.clear();
+		} else {
+			for(Entity obj : entities) {
+				if( (obj instanceof Obstacle))
+					((Obstacle)obj).deactivatePhysics(world);
+			}
 
-		entities.clear();
-		world.dispose();
-		world = new World(gravity,false);
+			entities.clear();
+			drawOrder.clear();
+			wallMesh.clear();
+			levelSnapshot = null;
+			world.dispose();
+			world = new World(gravity,false);
+		}
 		if(collisions == null){
 			collisions = new PhysicsController();
 		}
@@ -363,9 +414,19 @@ public class GameModeController extends WorldController {
 		currentMovement = GlobalConfiguration.getInstance().getAsInt("flowMovementMode");
 		graphicsSetting = GlobalConfiguration.getInstance().getAsInt("graphics");
 		particleController.setGraphicsSetting(graphicsSetting);
+		activation.setRadius(GlobalConfiguration.getInstance().getAsFloat("activationRadius", 0));
         populateLevel();
+		if (inputRecorder != null) {
+			inputRecorder.startLevel(loadLevel);
+		}
 		fallDeathHeight = levelModel.getMinY() -
 				LOWEST_ENTITY_FALL_DEATH_THRESHOLD;
+		savePreviousTransforms();
+
+		if (headless) {
+			// No audio, menus or cutscene without a player watching
+			return;
+		}
 
 		// Setup sound
 		SoundController instance = SoundController.getInstance();
@@ -373,7 +434,7 @@ public class GameModeController extends WorldController {
 			if (instance.isActive("menumusic")) instance.stop("menumusic");
 			if (instance.isActive("bgmusic")) instance.stop("bgmusic");
 			if (selectedTrack != null) {
-				instance.play("bgmusic", selectedTrack, true, MAX_MUSIC_VOLUME);
+				instance.playMusic("bgmusic", selectedTrack, MAX_MUSIC_VOLUME);
 			}
 		}
 
@@ -422,49 +483,50 @@ public class GameModeController extends WorldController {
 					GAMEPLAY_MUSIC.length];
 		}
 		lastLevel = loadLevel;
-			levelModel = jsonLoaderSaver.loadLevel(loadLevel);
-			if (levelModel != null) {
-				background = manager.get(levelModel.getBackground(), Texture.class);
-				recordTime = records.getRecord(loadLevel);
-				recordGrabs = records.getRecordGrabs(loadLevel);
+			if (!headless) {
+				manager.loadLevelTextures(jsonLoaderSaver.loadTexturePaths(loadLevel));
 			}
-
-			if (levelModel == null) {
-				levelModel = new LevelModel();
-			}
-
-			int slothId = 0;
-
-			for (Entity o : levelModel.getEntities()) {
-				// drawing
-
-				addObject(o);
-				if (o instanceof SlothModel) {
-					SlothModel sloth = (SlothModel) o;
-					sloth.activateSlothPhysics(world);
-					collisions.addSloth(sloth);
-					if (slothId == 0) {
-						initFlowX = sloth.getX();
-						initFlowY = sloth.getY();
-						cameraX = sloth.getX();
-						cameraY = sloth.getY();
+			if (restoringLevel) {
+				// The scenery has been put back; build new sloths, owl and ghosts
+				List<Entity> levelEntities = levelModel.getEntities();
+				for (int i = 0; i < levelEntities.size(); i++) {
+					if (levelSnapshot.isRebuilt(i)) {
+						levelEntities.set(i, levelSnapshot.getLevel().buildEntity(i, manager));
+						addLevelEntity(levelEntities.get(i), true);
+					} else {
+						addLevelEntity(levelEntities.get(i), false);
 					}
+				}
+				recordTime = records.getRecord(loadLevel);
+				recordGrabs = records.getRecordGrabs(loadLevel);
+			} else {
+				levelModel = jsonLoaderSaver.loadLevel(loadLevel);
+				if (levelModel != null) {
+					if (!headless)
+						background = manager.get(levelModel.getBackground(), Texture.class);
+					recordTime = records.getRecord(loadLevel);
+					recordGrabs = records.getRecordGrabs(loadLevel);
+				}
 
-					sloth.setControlMode(currentControl);
-					sloth.setMovementMode(currentMovement);
-					sloth.setId(slothId++);
-					slothList.add(sloth);
+				if (levelModel == null) {
+					levelModel = new LevelModel();
 				}
-				if (o instanceof OwlModel) {
-					owl = (OwlModel) o;
-					owlOPosX = o.getPosition().x;
-					owlOPosY = o.getPosition().y;
+
+				for (Entity o : levelModel.getEntities()) {
+					addLevelEntity(o, true);
 				}
-				o.setDrawScale(worldScale);
 
+				CompiledLevel compiled = jsonLoaderSaver.getCompiledLevel(loadLevel);
+				if (compiled != null) {
+					levelSnapshot = new LevelSnapshot(compiled, getLevelTextureGeneration(),
+							levelModel.getEntities());
+				}
+			}
+			if (!wallMesh.isEmpty()) {
+				drawOrder.add(wallMesh);
 			}
 
-			if (slothId == 2) {
+			if (slothList.size() == 2) {
 				if (!multiplayer) multiplayer = true;
 				// Attach the sloths
 //				Vine wtfVine = new Vine(initFlowX, initFlowY, 6, 0, 0, 0,
@@ -504,16 +566,78 @@ public class GameModeController extends WorldController {
 //				jointDef.collideConnected = false;
 //				world.createJoint(jointDef);
 			}
-			for(int i = 0; i < INITIAL_FOG; i++) {
-				particleController.fogEffect.spawn(levelModel.getMaxX()-levelModel.getMinX(),levelModel.getMaxY()-levelModel.getMinY() );
+			if (!headless) {
+				for (int i = 0; i < INITIAL_FOG; i++) {
+					particleController.fogEffect.spawn(levelModel.getMaxX() - levelModel.getMinX(), levelModel.getMaxY() - levelModel.getMinY());
+				}
+				particleController.eyeEffect.spawn();
 			}
-			particleController.eyeEffect.spawn();
 			currentTime = 0f;
 			currentGrabs = 0;
 			leftPrevGrab = false;
 			rightPrevGrab = false;
 	}
 
+	/**
+	 * Adds an entity of the level to the world, hooking up the sloths and the owl.
+	 *
+	 * @param o        The entity to add
+	 * @param activate Whether to create its bodies, which restored scenery still has
+	 */
+	private void addLevelEntity(Entity o, boolean activate) {
+		entities.add(o);
+		if (!(o instanceof WallModel && wallMesh.add((WallModel) o))) {
+			drawOrder.add(o);
+		}
+		if (activate && o instanceof Obstacle) {
+			((Obstacle) o).activatePhysics(world);
+		}
+		if (o instanceof Obstacle && ActivationManager.isManaged((Obstacle) o)) {
+			activation.add((Obstacle) o);
+		}
+		if (o instanceof SlothModel) {
+			SlothModel sloth = (SlothModel) o;
+			int slothId = slothList.size();
+			sloth.activateSlothPhysics(world);
+			collisions.addSloth(sloth);
+			if (slothId == 0) {
+				initFlowX = sloth.getX();
+				initFlowY = sloth.getY();
+				cameraX = sloth.getX();
+				cameraY = sloth.getY();
+			}
+
+			sloth.setControlMode(currentControl);
+			sloth.setMovementMode(currentMovement);
+			sloth.setId(slothId);
+			slothList.add(sloth);
+		}
+		if (o instanceof OwlModel) {
+			owl = (OwlModel) o;
+			owlOPosX = o.getPosition().x;
+			owlOPosY = o.getPosition().y;
+		}
+		o.setDrawScale(worldScale);
+	}
+
+	/**
+	 * Returns whether a reset can restore the level rather than build it again.
+	 *
+	 * That needs a snapshot of this very level, which has not been saved since,
+	 * and whose textures have not been unloaded since.
+	 *
+	 * @return whether a reset can restore the level
+	 */
+	private boolean canRestoreLevel() {
+		return levelSnapshot != null && loadLevel != null && loadLevel.equals(lastLevel)
+				&& levelSnapshot.getLevel() == jsonLoaderSaver.getCompiledLevel(loadLevel)
+				&& levelSnapshot.getTextureGeneration() == getLevelTextureGeneration();
+	}
+
+	private int getLevelTextureGeneration() {
+		return manager == null ? 0 : manager.getLevelTextureGeneration();
+	}
+
 	/**For drawing force lines*/
 	public SlothModel getSloth(){return slothList.get(0);}
 
@@ -533,7 +657,12 @@ public class GameModeController extends WorldController {
 			return false;
 		}
 
-		InputController input = InputControllerManager.getInstance().getController(0);
+		if (headless) {
+			// There is no menu, pause or ready screen to wait on
+			return !victory;
+		}
+
+		InputController input = getInput(0);
 
 		if ((input.didLeftDPadPress() || input.isLKeyPressed()) && !paused && !victory) {
 			System.out.println("LE");
@@ -653,15 +782,30 @@ public class GameModeController extends WorldController {
 	 */
 	public boolean checkReady(){
 		if (paused) return false;
-		if (loadLevel.contains("multi"))
-			return InputControllerManager.getInstance().inputControllers().stream()
-				.map(controller ->controller.getRightGrab() || controller
-						.getLeftGrab())
-				.reduce(true,(acc,el)->acc && el);
-		else
-			return InputControllerManager.getInstance().getController(0)
-					.getRightGrab() || InputControllerManager.getInstance()
-					.getController(0).getLeftGrab();
+		if (loadLevel.contains("multi")) {
+			for (int i = 0; i < inputControllers.size(); i++) {
+				InputController controller = inputControllers.get(i);
+				if (!controller.getRightGrab() && !controller.getLeftGrab()) {
+					return false;
+				}
+			}
+			return true;
+		}
+		return getInput(0).getRightGrab() || getInput(0).getLeftGrab();
+	}
+
+	/**
+	 * Returns whether every sloth has been torn apart (or there are none).
+	 *
+	 * @return whether every sloth is dismembered
+	 */
+	private boolean allDismembered() {
+		for (int i = 0; i < slothList.size(); i++) {
+			if (!slothList.get(i).isDismembered()) {
+				return false;
+			}
+		}
+		return true;
 	}
 
 	public void printHelp(){
@@ -685,7 +829,7 @@ public class GameModeController extends WorldController {
 	 */
 	public void update(float dt) {
 
-		if (InputControllerManager.getInstance().getController(0).isZKeyPressed()) {
+		if (!headless && getInput(0).isZKeyPressed()) {
 			particleController.surpriseEffect.spawn(slothList.get(0).getBody().getPosition().x,slothList.get(0).getBody().getPosition().y, 1f, .4f, new Color(1,1,0,1));
 		}
 
@@ -694,16 +838,14 @@ public class GameModeController extends WorldController {
 			if (!victory) currentTime += dt;
 
 			if (multiplayer) {
-				if (slothList.stream().map(SlothModel::isDismembered).reduce
-						(Boolean::logicalAnd).orElse(true)) {
+				if (allDismembered()) {
 					reset();
 				}
 			} else {
 				if (framesToDie < 0) {
 					reset();
 				}
-				if (slothList.stream().map(SlothModel::isDismembered).reduce
-						(Boolean::logicalAnd).orElse(true)) {
+				if (allDismembered()) {
 					framesToDie--;
 				}
 			}
@@ -711,19 +853,20 @@ public class GameModeController extends WorldController {
 			if ((!collisions.isFlowWin()) && (!isComplete()) && (!victory)) {
 				for (int i = 0; i < slothList.size(); i++){
 					SlothModel sloth = slothList.get(i);
+					InputController input = getInput(i);
 					// Process actions in object model
 					Body leftCollisionBody = collisions.getLeftBody(sloth);
 					Body rightCollisionBody = collisions.getRightBody(sloth);
-					sloth.setLeftHori(InputControllerManager.getInstance().getController(i).getLeftHorizontal());
-					sloth.setLeftVert(InputControllerManager.getInstance().getController(i).getLeftVertical());
-					sloth.setRightHori(InputControllerManager.getInstance().getController(i).getRightHorizontal());
-					sloth.setRightVert(InputControllerManager.getInstance().getController(i).getRightVertical());
-					sloth.setLeftGrab(InputControllerManager.getInstance().getController(i).getLeftGrab());
-					sloth.setRightGrab(InputControllerManager.getInstance().getController(i).getRightGrab());
-					sloth.setSafeGrab(InputControllerManager.getInstance().getController(i).isBottomButtonPressed(), leftCollisionBody, rightCollisionBody, world);
-					sloth.setOneGrab(InputControllerManager.getInstance().getController(i).getRightGrab());
-					sloth.setLeftStickPressed(InputControllerManager.getInstance().getController(i).getLeftStickPressed());
-					sloth.setRightStickPressed(InputControllerManager.getInstance().getController(i).getRightStickPressed());
+					sloth.setLeftHori(input.getLeftHorizontal());
+					sloth.setLeftVert(input.getLeftVertical());
+					sloth.setRightHori(input.getRightHorizontal());
+					sloth.setRightVert(input.getRightVertical());
+					sloth.setLeftGrab(input.getLeftGrab());
+					sloth.setRightGrab(input.getRightGrab());
+					sloth.setSafeGrab(input.isBottomButtonPressed(), leftCollisionBody, rightCollisionBody, world);
+					sloth.setOneGrab(input.getRightGrab());
+					sloth.setLeftStickPressed(input.getLeftStickPressed());
+					sloth.setRightStickPressed(input.getRightStickPressed());
 
 					if (sloth.isLeftGrab()) {
 						sloth.grab(world, leftCollisionBody, true);
@@ -737,8 +880,8 @@ public class GameModeController extends WorldController {
 					}
 
 					if (sloth.shouldDie) {
-						if (sloth.dismember(world)) {
-							ghostSound.play();
+						if (sloth.dismember(world, random)) {
+							playSound(ghostSound);
 							if (!multiplayer)
 								fallDeathHeight = sloth.getMainBody().getPosition()
 									.y -
@@ -751,7 +894,7 @@ public class GameModeController extends WorldController {
 					if (slothY < fallDeathHeight + NEAR_FALL_DEATH_DISTANCE) {
 						if (slothY < fallDeathHeight) {
 							if (multiplayer) {
-								sloth.dismember(world);
+								sloth.dismember(world, random);
 							} else {
 								reset();
 							}
@@ -761,23 +904,27 @@ public class GameModeController extends WorldController {
 										fallDeathHeight) / NEAR_FALL_DEATH_DISTANCE;
 								coverOpacity = 2 * (1 - normalizedDistanceFromDeath);
 								if (coverOpacity > 1) coverOpacity = 1;
-								SoundController.getInstance().setVolume("fallmusic", (1 -
-										normalizedDistanceFromDeath)
-										*MAX_MUSIC_VOLUME*2);
-								SoundController.getInstance().setPitch
-										("fallmusic",
-												normalizedDistanceFromDeath
-														*0.1f+0.8f);
-								if (playingMusic)
-									SoundController.getInstance().setVolume("bgmusic",
-											normalizedDistanceFromDeath*MAX_MUSIC_VOLUME);
+								if (!headless) {
+									SoundController.getInstance().setVolume("fallmusic", (1 -
+											normalizedDistanceFromDeath)
+											*MAX_MUSIC_VOLUME*2);
+									SoundController.getInstance().setPitch
+											("fallmusic",
+													normalizedDistanceFromDeath
+															*0.1f+0.8f);
+									if (playingMusic)
+										SoundController.getInstance().setVolume("bgmusic",
+												normalizedDistanceFromDeath*MAX_MUSIC_VOLUME);
+								}
 							}
 						}
 					} else {
-						SoundController.getInstance().setVolume("fallmusic", 0);
-						if (playingMusic)
-							SoundController.getInstance().setVolume("bgmusic",
-									MAX_MUSIC_VOLUME);
+						if (!headless) {
+							SoundController.getInstance().setVolume("fallmusic", 0);
+							if (playingMusic)
+								SoundController.getInstance().setVolume("bgmusic",
+										MAX_MUSIC_VOLUME);
+						}
 						if ((playerIsReady || paused) && (!collisions.isFlowWin())) {
 							coverOpacity = 0;
 						}
@@ -785,8 +932,8 @@ public class GameModeController extends WorldController {
 
 					if (isFailure()) {
 						framesToDie--;
-						if (sloth.dismember(world)) {
-                            ghostSound.play();
+						if (sloth.dismember(world, random)) {
+                            playSound(ghostSound);
                             fallDeathHeight = sloth.getMainBody().getPosition()
 									.y -
 									NEAR_FALL_DEATH_DISTANCE;
@@ -795,8 +942,9 @@ public class GameModeController extends WorldController {
 
                     if (multiplayer &&  (sloth.getMainBody().getPosition().x
 							< cameraX - bounds.width/2f)) {
-						sloth.dismember(world);
+						sloth.dismember(world, random);
 					}
+                    if (headless) continue;
                     Body rightHand = sloth.getRightHand();
 					Obstacle rightArm = sloth.getRightArm();
 					if(rightHand != null && rightArm != null)
@@ -820,12 +968,14 @@ public class GameModeController extends WorldController {
 			}
 
 			currentTime += dt;
-			if (currentTime - fogTime > .1f) {
-               particleController.fogEffect.spawn(cameraX, cameraY);
+			if (!headless) {
+				if (currentTime - fogTime > .1f) {
+					particleController.fogEffect.spawn(cameraX, cameraY);
 
-                fogTime = currentTime;
-            }
-            particleController.update(dt);
+					fogTime = currentTime;
+				}
+				particleController.update(dt);
+			}
 
 
             //#TODO Collision states check
@@ -833,8 +983,8 @@ public class GameModeController extends WorldController {
 
             if (!isFailure() && collisions.isFlowWin()) {
                 if (!owl.isDoingVictory()) {
-                    victorySound.play(0.10f);
-                    SoundController.getInstance().stop("bgmusic");
+                    playSound(victorySound, 0.10f);
+                    if (!headless) SoundController.getInstance().stop("bgmusic");
                     victorySloth = collisions.winningSloth();
 					SlothModel sloth = slothList.get(victorySloth);
                     sloth.releaseLeft(world);
@@ -856,10 +1006,11 @@ public class GameModeController extends WorldController {
                 }
             }
 
-            slothList.forEach(sloth -> {
+            for (int i = 0; i < slothList.size(); i++) {
+                SlothModel sloth = slothList.get(i);
                 if (sloth.isGrabbedEntity() && !collisions.isFlowWin() &&
 						(!victory) && (!isComplete())) {
-					releaseSound.play();
+					playSound(releaseSound);
                 }
 
                 if (sloth.isReleasedEntity() && !collisions.isFlowWin()) {
@@ -868,7 +1019,7 @@ public class GameModeController extends WorldController {
 
                 // Normal physics
                 sloth.doThePhysics();
-            });
+            }
 
             // Play arm sound based on arm power
 //			float slothPower = sloth.getPower();
@@ -876,23 +1027,26 @@ public class GameModeController extends WorldController {
 //			SoundController.getInstance().setPitch("armmusic", 0.9f + slothPower * 0.9f);
 
             // Play wind sound based on flow speed
-            float slothSpeed = slothList
-                    .parallelStream()
-                    .map(sloth -> sloth.getMainBody().getLinearVelocity().len())
-                    .reduce((acc, el) -> acc + el)
-                    .orElse(0f) / slothList.size();
+            float slothSpeed = 0;
+            for (int i = 0; i < slothList.size(); i++) {
+                slothSpeed += slothList.get(i).getMainBody().getLinearVelocity().len();
+            }
+            slothSpeed /= slothList.size();
             float windVolume = slothSpeed / 180f;
             this.windVolume += (windVolume - this.windVolume) * 0.04f;
             if (this.windVolume > 1) this.windVolume = 1;
-            SoundController.getInstance().setVolume("windmusic", this.windVolume);
-            SoundController.getInstance().setPitch("windmusic", 1.0f + this.windVolume * 0.9f);
 
-            // If we use sound, we must remember this.
-            SoundController.getInstance().update();
+            // If we use sound, we must remember this.  The sound controller
+            // is shared, so worlds stepped on other threads must leave it be.
+            if (!headless) {
+                SoundController.getInstance().setVolume("windmusic", this.windVolume);
+                SoundController.getInstance().setPitch("windmusic", 1.0f + this.windVolume * 0.9f);
+                SoundController.getInstance().update();
+            }
 
             if (isComplete()) {
-				SoundController instance = SoundController.getInstance();
-				if (instance.isActive("bgmusic"))
+				SoundController instance = headless ? null : SoundController.getInstance();
+				if (!headless && instance.isActive("bgmusic"))
 					instance.stop("bgmusic");
                 victory = true;
                 playerIsReady = false;
@@ -900,18 +1054,16 @@ public class GameModeController extends WorldController {
 				bounds.height = 5.4f * 0.6f;
 //				owlOPosX =  6.72f;
 				for (SlothModel sloth : slothList) {
-					entities.remove(sloth);
+					removeObject(sloth);
 				}
-				entities.remove(owl);
+				removeObject(owl);
 
 				setWorldScale(canvas);
-				for(Entity e: entities){
-					e.setDrawScale(worldScale);
-				}
                 float recordT = currentTime;
                 int recordG = currentGrabs -1; // cuz grabbing the owl adds an extra grab
-				instance.play("bgmusic", "sound/music/levelselect.ogg", true,
-						MAX_MUSIC_VOLUME);
+				if (!headless)
+					instance.playMusic("bgmusic", "sound/music/levelselect.ogg",
+							MAX_MUSIC_VOLUME);
                 if (storeTimeRecords) {
 					// TODO: work this into end of level screen
 //                    if (records.setRecord(loadLevel, recordT)) {
@@ -925,6 +1077,151 @@ public class GameModeController extends WorldController {
         }
     }
 
+	/**
+	 * Plays a sound effect, if it has been loaded.
+	 *
+	 * Headless worlds never load their sounds, so this quietly does nothing.
+	 *
+	 * @param sound The sound effect
+	 */
+	private void playSound(Sound sound) {
+		playSound(sound, 1.0f);
+	}
+
+	/**
+	 * Plays a sound effect at the given volume, if it has been loaded.
+	 *
+	 * @param sound  The sound effect
+	 * @param volume The volume in the range [0,1]
+	 */
+	private void playSound(Sound sound, float volume) {
+		if (sound != null) {
+			sound.play(volume);
+		}
+	}
+
+	@Override
+	protected void postUpdate(float dt) {
+		// Outside the world step, where Box2D lets bodies be made active or not
+		activation.update(slothList, cameraX, cameraY);
+		super.postUpdate(dt);
+		if (!slothList.isEmpty()) {
+			updateCamera();
+		}
+	}
+
+	@Override
+	protected void savePreviousTransforms() {
+		super.savePreviousTransforms();
+		previousCameraX = cameraX;
+		previousCameraY = cameraY;
+	}
+
+	/**
+	 * Moves the camera a step towards the sloth farthest along.
+	 * <p>
+	 * The camera moves with the physics, once a step, so that it follows the
+	 * sloths the same way at any frame rate.
+	 */
+	protected void updateCamera() {
+		float slothX = -100000;
+		float slothY = -100000;
+		boolean foundOne = false;
+		for (int i = 0; i < slothList.size(); i++) {
+			SlothModel sloth = slothList.get(i);
+			if (sloth.isDismembered()) continue;
+			if (sloth.getBody().getPosition().x > slothX) {
+				slothX = sloth.getBody().getPosition().x;
+				slothY = sloth.getBody().getPosition().y;
+				foundOne = true;
+			}
+		}
+		if (!foundOne) {
+			slothX = slothList.get(0).getBody().getPosition().x;
+			slothY = slothList.get(0).getBody().getPosition().y;
+		}
+
+		float velocityModifier = 0.18f;
+		if (multiplayer) {
+			velocityModifier = 0.01f;
+		}
+		chaseCamera(slothX, slothY, velocityModifier);
+	}
+
+	/**
+	 * Moves the camera a step towards a target, keeping it inside the level.
+	 *
+	 * @param targetX the x-coordinate to move towards
+	 * @param targetY the y-coordinate to move towards
+	 * @param pull    how strongly the camera is pulled towards the target
+	 */
+	protected void chaseCamera(float targetX, float targetY, float pull) {
+		cameraVelocityX = cameraVelocityX * 0.4f + (targetX - cameraX) * pull;
+		cameraVelocityY = cameraVelocityY * 0.4f + (targetY - cameraY) * pull;
+		cameraX += cameraVelocityX;
+		cameraY += cameraVelocityY;
+
+		// Check for camera in bounds
+		// Y Checks
+		if (cameraY - bounds.height / 2f < levelModel.getMinY()) {
+			cameraY = levelModel.getMinY() + bounds.height / 2f;
+		}
+
+		if (cameraY + bounds.height / 2f > levelModel.getMaxY()) {
+			cameraY = levelModel.getMaxY() - bounds.height / 2f;
+		}
+
+		// X Checks
+		if (cameraX - bounds.width / 2 < levelModel.getMinX()) {
+			cameraX = levelModel.getMinX() + bounds.width / 2f;
+		}
+
+		if (cameraX + bounds.width / 2f > levelModel.getMaxX()) {
+			cameraX = levelModel.getMaxX() - bounds.width / 2f;
+		}
+	}
+
+	@Override
+	protected boolean canSimulateOnThread() {
+		return true;
+	}
+
+	@Override
+	protected void captureSnapshot() {
+		super.captureSnapshot();
+		snapshotPreviousCameraX = previousCameraX;
+		snapshotPreviousCameraY = previousCameraY;
+		snapshotCameraX = cameraX;
+		snapshotCameraY = cameraY;
+	}
+
+	/**
+	 * Points the canvas at the camera, drawn between the previous step and the current one.
+	 *
+	 * @return the part of the world the camera can see
+	 */
+	protected ViewBounds placeCamera() {
+		float x;
+		float y;
+		if (isSimulationThreaded()) {
+			x = snapshotPreviousCameraX + (snapshotCameraX - snapshotPreviousCameraX) * drawAlpha;
+			y = snapshotPreviousCameraY + (snapshotCameraY - snapshotPreviousCameraY) * drawAlpha;
+		} else {
+			x = previousCameraX + (cameraX - previousCameraX) * drawAlpha;
+			y = previousCameraY + (cameraY - previousCameraY) * drawAlpha;
+		}
+		camTrans.setToTranslation(-1 * x * worldScale.x
+				, -1 * y * worldScale.y);
+
+		camTrans.translate(canvas.getWidth() / 2, canvas.getHeight() / 2);
+		canvas.getCampos().set(x * worldScale.x
+				, y * worldScale.y);
+
+		ViewBounds view = particleController.view;
+		view.set(x, y, canvas.getWidth() / worldScale.x, canvas.getHeight() / worldScale.y);
+		return view;
+	}
+
     public void draw(float delta) {
 		canvas.clear();
 
@@ -941,12 +1238,13 @@ public class GameModeController extends WorldController {
 			canvas.draw(background);
 			canvas.end();
 			canvas.begin(camTrans);
-			for(Entity e : entities){
-				e.draw(canvas);
+			DrawOrder order = getRenderOrder();
+			for (int i = 0; i < order.size(); i++) {
+				order.get(i).draw(canvas, drawAlpha);
 			}
 			canvas.end();
 			Gdx.gl.glEnable(GL20.GL_BLEND);
-			Color coverColor = new Color(0, 0, 0, 0.25f);
+			coverColor.set(0, 0, 0, 0.25f);
 			canvas.drawRectangle(coverColor, 0, 0, canvas.getWidth(), canvas
 					.getHeight());
 			Gdx.gl.glClear(GL20.GL_DEPTH_BUFFER_BIT);
@@ -964,76 +1262,29 @@ public class GameModeController extends WorldController {
 			canvas.draw(background);
 			canvas.end();
 
-			float slothX = -100000;
-			float slothY = -100000;
-			boolean foundOne = false;
-			for (SlothModel sloth : slothList) {
-				if (sloth.isDismembered()) continue;
-				if (sloth.getBody().getPosition().x > slothX) {
-					slothX = sloth.getBody().getPosition().x;
-					slothY = sloth.getBody().getPosition().y;
-					foundOne = true;
-				}
-			}
-			if (!foundOne) {
-				slothX = slothList.get(0).getBody().getPosition().x;
-				slothY = slothList.get(0).getBody().getPosition().y;
-			}
-
-			float velocityModifier = 0.18f;
-			if (multiplayer) {
-				velocityModifier = 0.01f;
-			}
-			cameraVelocityX = cameraVelocityX * 0.4f + (slothX - cameraX) * velocityModifier;
-			cameraVelocityY = cameraVelocityY * 0.4f + (slothY - cameraY) * velocityModifier;
-			cameraX += cameraVelocityX;
-			cameraY += cameraVelocityY;
-
-			// Check for camera in bounds
-			// Y Checks
-			if (cameraY - bounds.height / 2f < levelModel.getMinY()) {
-				cameraY = levelModel.getMinY() + bounds.height / 2f;
-			}
-
-			if (cameraY + bounds.height / 2f > levelModel.getMaxY()) {
-				cameraY = levelModel.getMaxY() - bounds.height / 2f;
-			}
-
-			// X Checks
-			if (cameraX - bounds.width / 2 < levelModel.getMinX()) {
-				cameraX = levelModel.getMinX() + bounds.width / 2f;
-			}
-
-			if (cameraX + bounds.width / 2f > levelModel.getMaxX()) {
-				cameraX = levelModel.getMaxX() - bounds.width / 2f;
-			}
+			// Only draw what the camera can see
+			ViewBounds view = placeCamera();
 
-			camTrans.setToTranslation(-1 * cameraX * worldScale.x
-					, -1 * cameraY * worldScale.y);
-
-			camTrans.translate(canvas.getWidth() / 2, canvas.getHeight() / 2);
-			canvas.getCampos().set(cameraX * worldScale.x
-					, cameraY * worldScale.y);
-
-
-			//noinspection unchecked
-			Collections.sort(entities);
-
-
-			canvas.begin(camTrans);
-			for(Entity e : entities){
-				e.setDrawScale(worldScale);
-				e.draw(canvas);
+			profiler.start(Phase.ENTITY_DRAW);
+			canvas.beginDeferred(camTrans);
+			DrawOrder order = getRenderOrder();
+			for (int i = 0; i < order.size(); i++) {
+				Entity e = order.get(i);
+				if (e.isInView(view)) {
+					e.draw(canvas, drawAlpha);
+				}
 			}
 			canvas.end();
+			profiler.stop(Phase.ENTITY_DRAW);
 
-			int n = 0;
+			profiler.start(Phase.PARTICLE_DRAW);
 			canvas.beginParticle(camTrans);
-			for(Effect e: particleController.effects){
+			for (int i = 0; i < particleController.effects.size(); i++) {
+				Effect e = particleController.effects.get(i);
 				e.draw(canvas);
-				n += e.size();
 			}
 			canvas.end();
+			profiler.stop(Phase.PARTICLE_DRAW);
 
 
 
@@ -1076,15 +1327,19 @@ public class GameModeController extends WorldController {
 			if ((!playerIsReady) && coverOpacity <= 0) printHelp();
 			canvas.end();
 
-			slothList.forEach(x -> x.drawGrab(canvas, camTrans));
+			for (int i = 0; i < slothList.size(); i++) {
+				slothList.get(i).drawGrab(canvas, camTrans);
+			}
 
 			if (debug) {
+				// The overlay reads the live physics, so it must not run alongside it
+				awaitSimulation();
 				canvas.beginDebug(camTrans);
 				entities.stream().filter(obj -> obj instanceof Obstacle).forEachOrdered(obj -> ((Obstacle) obj).drawDebug(canvas));
 				canvas.endDebug();
 				canvas.begin();
 				// text
-				canvas.drawTextStandard("FPS: " + 1f / delta, 10.0f, 100.0f);
+				profiler.draw(canvas, 10.0f, 260.0f);
 				canvas.end();
 				slothList.forEach(sloth -> sloth.drawForces(canvas, camTrans));
 			}
@@ -1098,7 +1353,7 @@ public class GameModeController extends WorldController {
 			if (coverOpacity > 0) {
 				Gdx.gl.glEnable(GL20.GL_BLEND);
 				displayFont.setColor(Color.WHITE);
-				Color coverColor = new Color(0, 0, 0, coverOpacity);
+				coverColor.set(0, 0, 0, coverOpacity);
 				canvas.drawRectangle(coverColor, 0, 0, canvas.getWidth(), canvas
 						.getHeight());
 				coverOpacity -= (1 / CYCLES_OF_INTRO);
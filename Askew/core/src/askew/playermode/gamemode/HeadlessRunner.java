@@ -0,0 +1,143 @@
+package askew.playermode.gamemode;
+
+import askew.InputController;
+import askew.InputControllerManager;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Simulates a single level through the game mode loop without a canvas.
+ * <p>
+ * The level is built without textures, sounds or particles and advanced in fixed
+ * steps of WorldController.WORLD_STEP as fast as the machine allows.  Gdx must
+ * still be initialized (a HeadlessApplication is enough) so that the level files
+ * and the Box2D natives are available.
+ * <p>
+ * Each runner owns its own input controllers, so the players are driven by
+ * setting their sticks and grabs between steps.
+ */
+@SuppressWarnings("WeakerAccess")
+public class HeadlessRunner {
+
+    /** The game mode being simulated */
+    @Getter
+    private final GameModeController controller;
+    /** The name of the level being simulated */
+    @Getter
+    private final String level;
+    /** The input controllers driving the sloths, one per player */
+    @Getter
+    private final List<InputController> inputs;
+    /** The number of steps simulated so far */
+    @Getter
+    private int steps;
+    /** Wall clock time spent stepping, in nanoseconds */
+    @Getter
+    private long elapsedNanos;
+
+    /**
+     * Creates a headless simulation of the given level.
+     *
+     * @param level The level name, as found in the levels directory
+     */
+    public HeadlessRunner(String level) {
+        this(level, 0);
+    }
+
+    /**
+     * Creates a headless simulation of the given level, with its random numbers
+     * started from the given seed.
+     *
+     * @param level The level name, as found in the levels directory
+     * @param seed  What the random numbers of the level are started from
+     */
+    public HeadlessRunner(String level, long seed) {
+        this.level = level;
+        controller = new GameModeController();
+        controller.setHeadless(true);
+        controller.setSeed(seed);
+        inputs = new ArrayList<>();
+        for (int i = 0; i < InputControllerManager.NUM_CONTROLLERS; i++) {
+            inputs.add(new InputController(i, false));
+        }
+        controller.setInputControllers(inputs);
+        controller.setLevel(level);
+        controller.reset();
+    }
+
+    /**
+     * Returns the input controller for the given player.
+     *
+     * @param index The player index
+     * @return the input controller for the given player.
+     */
+    public InputController getInput(int index) {
+        return inputs.get(index);
+    }
+
+    /**
+     * Advances the level by a single physics step.
+     *
+     * @return true if the level is not yet complete
+     */
+    public boolean step() {
+        long start = System.nanoTime();
+        controller.step();
+        elapsedNanos += System.nanoTime() - start;
+        steps++;
+        return !controller.isComplete();
+    }
+
+    /**
+     * Starts the level over in this world, as the game does when a sloth dies,
+     * with nothing pressed and the steps and time counted from zero.
+     * <p>
+     * This is much cheaper than a new runner, as only the sloths, owl and
+     * ghosts are built again.  The scenery keeps Box2D's warm starting though
+     * (see LevelSnapshot), so a restarted run is close to, but not bit for bit,
+     * the same as a run in a new runner.
+     */
+    public void restart() {
+        for (InputController input : inputs) {
+            input.setSticks(0, 0, 0, 0);
+            input.setGrabs(false, false);
+        }
+        controller.reset();
+        steps = 0;
+        elapsedNanos = 0;
+    }
+
+    /**
+     * Steps the level until it is complete or the step limit is reached.
+     *
+     * @param maxSteps The most steps to simulate
+     * @return true if the level was completed
+     */
+    public boolean run(int maxSteps) {
+        while (steps < maxSteps && step()) {
+            // Keep stepping
+        }
+        return controller.isComplete();
+    }
+
+    /**
+     * Returns the average number of steps simulated per second of wall time.
+     *
+     * @return the average number of steps simulated per second.
+     */
+    public float getStepsPerSecond() {
+        if (elapsedNanos == 0) {
+            return 0;
+        }
+        return steps * 1e9f / elapsedNanos;
+    }
+
+    /**
+     * Disposes of the simulated world.
+     */
+    public void dispose() {
+        controller.dispose();
+    }
+}
@@ -0,0 +1,153 @@
+package askew.playermode.gamemode;
+
+import askew.entity.Entity;
+import askew.entity.ghost.GhostModel;
+import askew.entity.obstacle.ComplexObstacle;
+import askew.entity.obstacle.Obstacle;
+import askew.entity.owl.OwlModel;
+import askew.entity.sloth.SlothModel;
+import askew.util.json.CompiledLevel;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.BodyDef;
+import com.badlogic.gdx.utils.Array;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * The starting state of a level's bodies, so a restart can put them back rather
+ * than building a new world.
+ * <p>
+ * The scenery of a level (trees, vines, walls, thorns) is never created or
+ * destroyed during play, only moved, so a restart just puts its bodies back
+ * where they started.  The sloths,
+ * owl and ghosts are different: they grab, get dismembered, get pinned and run
+ * their own animations, so they are thrown away and built again from the level.
+ * Destroying a sloth also destroys any grab joints it had made with the scenery.
+ * <p>
+ * A restored level is not bit for bit the same as a fresh one, as Box2D keeps the
+ * warm starting impulses of the scenery's joints and contacts.
+ */
+class LevelSnapshot {
+
+    /**
+     * The level this is a snapshot of
+     */
+    @Getter
+    private final CompiledLevel level;
+    /**
+     * The level texture generation when the snapshot was taken
+     */
+    @Getter
+    private final int textureGeneration;
+    /**
+     * Which of the level's entities are rebuilt on a restart, by index
+     */
+    private final boolean[] rebuilt;
+    /**
+     * The moving bodies of the scenery
+     */
+    private final Array<Body> bodies;
+    /**
+     * The obstacles that own those bodies
+     */
+    private final Array<Obstacle> obstacles;
+    /**
+     * Position, angle, linear and angular velocity of each body, six floats apiece
+     */
+    private final float[] states;
+    /**
+     * Whether each body was awake
+     */
+    private final boolean[] awake;
+
+    /**
+     * Takes a snapshot of a level that has just been populated.
+     *
+     * @param level             the level that was populated
+     * @param textureGeneration the level texture generation of the asset manager
+     * @param entities          the level's entities, in level order
+     */
+    LevelSnapshot(CompiledLevel level, int textureGeneration, List<Entity> entities) {
+        this.level = level;
+        this.textureGeneration = textureGeneration;
+        rebuilt = new boolean[entities.size()];
+        bodies = new Array<>();
+        obstacles = new Array<>();
+        for (int i = 0; i < rebuilt.length; i++) {
+            Entity entity = entities.get(i);
+            rebuilt[i] = isRebuilt(entity);
+            if (!rebuilt[i] && entity instanceof Obstacle) {
+                addBodies((Obstacle) entity);
+            }
+        }
+
+        states = new float[bodies.size * 6];
+        awake = new boolean[bodies.size];
+        for (int i = 0; i < bodies.size; i++) {
+            Body body = bodies.get(i);
+            Vector2 position = body.getPosition();
+            Vector2 velocity = body.getLinearVelocity();
+            states[i * 6] = position.x;
+            states[i * 6 + 1] = position.y;
+            states[i * 6 + 2] = body.getAngle();
+            states[i * 6 + 3] = velocity.x;
+            states[i * 6 + 4] = velocity.y;
+            states[i * 6 + 5] = body.getAngularVelocity();
+            awake[i] = body.isAwake();
+        }
+    }
+
+    /**
+     * Returns whether an entity is built again on a restart rather than restored.
+     *
+     * @param entity the entity
+     * @return whether the entity is built again on a restart
+     */
+    static boolean isRebuilt(Entity entity) {
+        return entity instanceof SlothModel || entity instanceof OwlModel || entity instanceof GhostModel;
+    }
+
+    /**
+     * Returns whether the level entity at the given index is built again on a restart.
+     *
+     * @param index the index of the entity in the level
+     * @return whether the entity is built again on a restart
+     */
+    boolean isRebuilt(int index) {
+        return rebuilt[index];
+    }
+
+    private void addBodies(Obstacle obstacle) {
+        if (obstacle instanceof ComplexObstacle) {
+            for (Obstacle part : ((ComplexObstacle) obstacle).getBodies()) {
+                addBodies(part);
+            }
+            return;
+        }
+        // Static bodies (walls and anchors) never move, so there is nothing to put back
+        Body body = obstacle.getBody();
+        if (body != null && body.getType() != BodyDef.BodyType.StaticBody) {
+            bodies.add(body);
+            obstacles.add(obstacle);
+        }
+    }
+
+    /**
+     * Puts every scenery body back to its starting state.
+     * <p>
+     * The rebuilt entities must already have been deactivated, so that nothing is
+     * left holding on to the scenery.
+     */
+    void restore() {
+        for (int i = 0; i < bodies.size; i++) {
+            Body body = bodies.get(i);
+            body.setTransform(states[i * 6], states[i * 6 + 1], states[i * 6 + 2]);
+            body.setLinearVelocity(states[i * 6 + 3], states[i * 6 + 4]);
+            body.setAngularVelocity(states[i * 6 + 5]);
+            body.setAwake(awake[i]);
+            obstacles.get(i).setGrabbed(false);
+        }
+    }
+}
@@ -3,20 +3,51 @@ package askew.playermode.gamemode.Particles;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
+import askew.util.ViewBounds;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Vector2;
 
-import java.util.LinkedList;
-
+/**
+ * A kind of particle, with its own spawning, motion and textures.
+ * <p>
+ * The particles themselves live in the ParticleStore shared by every effect.
+ * An effect only keeps the slots of its live particles, packed at the front
+ * of an array; a particle that dies has its slot given back and the last live
+ * slot moved into its place, so the order particles are drawn in can change.
+ */
 public abstract class Effect {
 
-    public final LinkedList<Particle> spawned = new LinkedList<>();
-    public final LinkedList<Particle> unspawned;
+    public final ParticleStore store;
     public ParticleController particleController;
     public Vector2 drawScale;
+    /**
+     * The slots of the live particles, in the first count entries
+     */
+    protected final int[] live;
+    protected int count;
+    /**
+     * The tint of the particle being drawn
+     */
+    private final Color tint = new Color();
+
+    public  Effect(ParticleController pc, ParticleStore store){
+        this.particleController = pc;
+        this.store = store;
+        live = new int[store.getCapacity()];
+        setDrawScale(pc.drawScale);
+    }
 
-    public  Effect(ParticleController pc, LinkedList<Particle> unspawned){
+    /**
+     * Creates an effect that keeps its particles somewhere other than the store.
+     * It must override update, reset and size.
+     *
+     * @param pc the controller of the effect
+     */
+    protected Effect(ParticleController pc) {
         this.particleController = pc;
-        this.unspawned = unspawned;
+        this.store = null;
+        live = new int[0];
         setDrawScale(pc.drawScale);
     }
 
@@ -31,30 +62,96 @@ public abstract class Effect {
     }
 
     public int size(){
-        return spawned.size();
+        return count;
+    }
+
+    /**
+     * Takes a slot from the store for a new particle of this effect.
+     *
+     * @return the slot, or -1 if the store is full
+     */
+    protected int spawnSlot() {
+        int p = store.obtain();
+        if (p >= 0) {
+            live[count++] = p;
+        }
+        return p;
+    }
+
+    /**
+     * Returns whether a particle may be seen, so that it has to be drawn.
+     * <p>
+     * Particles are drawn at their depth like background entities, at their own size.
+     *
+     * @param p the slot of the particle
+     * @return whether the particle may be seen
+     */
+    protected boolean isInView(int p) {
+        ViewBounds view = particleController.view;
+        ParticleStore s = store;
+        return view.overlaps(s.x[p], s.y[p], s.depth[p], (Math.abs(s.width[p]) + Math.abs(s.height[p])) / 2);
     }
 
+    /**
+     * Draws every live particle that has started and may be seen.
+     *
+     * @param canvas   the canvas to draw on
+     * @param textures the textures of the effect, by texture number
+     */
+    protected void drawParticles(GameCanvas canvas, TextureRegion[] textures) {
+        ParticleStore s = store;
+        for (int i = 0; i < count; i++) {
+            int p = live[i];
+            if (s.accumulator[p] > 0 && isInView(p)) {
+                TextureRegion tex = textures[s.textureNum[p]];
+                if (tex != null) {
+                    tint.set(s.tint[p]);
+                    canvas.drawBackgroundEntity(tex, tint, tex.getRegionWidth() / 2, tex.getRegionHeight() / 2,
+                            s.x[p] * drawScale.x, s.y[p] * drawScale.y, s.depth[p], s.angle[p],
+                            (1.0f / tex.getRegionWidth()) * s.width[p] * drawScale.x, (1.0f / tex.getRegionHeight() * s.height[p] * drawScale.y),
+                            1);
+                }
+            }
+        }
+    }
 
     public void update(float delta) {
+        ParticleStore s = store;
         int i = 0;
-        while (i < spawned.size()){
-            Particle curParticle = spawned.get(i);
-            if(curParticle.accumulator < curParticle.deathTime){
-                curParticle.update(delta);
+        while (i < count) {
+            int p = live[i];
+            if (s.accumulator[p] < s.deathTime[p]) {
+                s.accumulator[p] += delta;
+                update(p, delta, s.accumulator[p] / s.deathTime[p]);
                 i += 1;
-            }
-            else{
-                unspawned.add(curParticle);
-                spawned.remove(i);
+            } else {
+                // The last particle takes its place, and is looked at next
+                store.release(p);
+                live[i] = live[--count];
             }
         }
     }
 
+    /**
+     * Advances a live particle, after its age has been advanced.
+     *
+     * @param p     the slot of the particle
+     * @param delta the time since the last update, in seconds
+     * @param t     how far through its life the particle is, from 0 to 1
+     */
+    protected void update(int p, float delta, float t) {
+    }
+
     public void reset() {
-        while ( spawned.size() != 0) {
-            Particle p = spawned.getFirst();
-            unspawned.add(p);
-            spawned.removeFirst();
+        for (int i = 0; i < count; i++) {
+            store.release(live[i]);
         }
+        count = 0;
+    }
+
+    /**
+     * Releases anything the effect holds on the graphics card.
+     */
+    public void dispose() {
     }
 }
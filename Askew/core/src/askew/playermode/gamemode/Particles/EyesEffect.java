@@ -3,13 +3,11 @@ package askew.playermode.gamemode.Particles;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
-import com.badlogic.gdx.graphics.Texture;
+import askew.util.RandomController;
+import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
-
 public class EyesEffect extends Effect {
 
     private int effect1_num = 15;
@@ -20,11 +18,10 @@ public class EyesEffect extends Effect {
     private final String frame2Path = "texture/particle/eyes2.png";
     private final String frame3Path = "texture/particle/eyes3.png";
     private int frameNum = 0;
-    private final ArrayList<TextureRegion> eye_textures = new ArrayList<>();
-    private TextureRegion tex;
+    private final TextureRegion[] eye_textures = new TextureRegion[4];
 
-    public EyesEffect(ParticleController pc, LinkedList<Particle> unspawned) {
-        super(pc, unspawned); frameNum = 0; ct = 0;
+    public EyesEffect(ParticleController pc, ParticleStore store) {
+        super(pc, store); frameNum = 0; ct = 0;
     }
 
     public void spawn() {
@@ -34,7 +31,6 @@ public class EyesEffect extends Effect {
         else{
             effect1_num = 15;
         }
-        Particle current;
         Rectangle b = particleController.gmc.getBounds();
         float bx = (b.x / 1.3f) - 16f;
         float by = (b.y / 1.3f);
@@ -42,53 +38,62 @@ public class EyesEffect extends Effect {
         float bheight = b.height * 1.3f;
 
 
-
+        ParticleStore s = store;
+        RandomController r = particleController.random;
         for (int i = 0; i < effect1_num; i++) {
-            if (unspawned.size() > 0 ) {
-                current = unspawned.getFirst();
-                unspawned.removeFirst();
-                current.spawnEyes( (bx + ((float) (Math.random() * bwidth * 1.69f))),by + ((float) (Math.random()*bheight* 1.69f)));
-                spawned.add(current);
-                ct++;
+            int p = spawnSlot();
+            if (p < 0) {
+                break;
             }
+            s.x[p] = bx + r.nextFloat() * bwidth * 1.69f;
+            s.y[p] = by + r.nextFloat() * bheight * 1.69f;
+            s.width[p] = 1f + r.nextFloat() * .4f;
+            s.height[p] = .6f + r.nextFloat() * .2f;
+            s.depth[p] = 2 + r.nextFloat() * 3;
+            s.angle[p] = 0;
+            s.tint[p] = Color.rgba8888(1, 1, 1, r.nextFloat() * .3f);
+            s.textureNum[p] = 0;
+            s.deathTime[p] = 10f;
+            s.accumulator[p] = r.nextFloat() * 1.5f;
+            s.timer[p] = r.nextFloat() * 5 - 3; // = cooldown
+            s.rate[p] = r.nextFloat() * 4 + 1; //start time
+            ct++;
         }
     }
 
     @Override
-    public void setTexture(MantisAssetManager manager) {
-        if(eye_textures.size() == 0) {
-            Texture tex = manager.get(frame0Path);
-            eye_textures.add(new TextureRegion(tex));
-
-            tex = manager.get(frame1Path);
-            eye_textures.add(new TextureRegion(tex));
-
-            tex = manager.get(frame2Path);
-            eye_textures.add(new TextureRegion(tex));
+    protected void update(int p, float delta, float t) {
+        ParticleStore s = store;
+        RandomController r = particleController.random;
+        if (s.timer[p] < 0) {
+            // Closed; open again when the cooldown runs out
+            s.timer[p] += delta;
+            if (s.timer[p] >= 0) {
+                s.timer[p] = r.nextFloat() * 5 + 3;
+                s.tint[p] = Color.rgba8888(1, 1, 1, r.nextFloat() * .3f);
+            }
+        } else {
+            s.timer[p] -= delta;
+            if (s.timer[p] < 0) {
+                s.timer[p] = r.nextFloat() * -2 - 1;
+                s.tint[p] = 0;
+            }
+            s.textureNum[p] = (int) (s.accumulator[p] * s.rate[p]) % 4;
+        }
+    }
 
-            tex = manager.get(frame3Path);
-            eye_textures.add(new TextureRegion(tex));
+    @Override
+    public void setTexture(MantisAssetManager manager) {
+        if(eye_textures[0] == null) {
+            eye_textures[0] = manager.getRegion(frame0Path);
+            eye_textures[1] = manager.getRegion(frame1Path);
+            eye_textures[2] = manager.getRegion(frame2Path);
+            eye_textures[3] = manager.getRegion(frame3Path);
         }
     }
 
     @Override
     public void draw(GameCanvas canvas) {
-
-        for (Particle p : spawned) {
-
-            if (p.accumulator > 0) {
-                if (eye_textures.get(p.textureNum) != null) {
-                    TextureRegion tex = eye_textures.get(p.textureNum);
-                    canvas.drawBackgroundEntity(tex,
-                            p.tint,
-                            tex.getRegionWidth() / 2,
-                            tex.getRegionHeight() / 2,
-                            p.x * drawScale.x, p.y * drawScale.y, p.depth, p.angle,
-                            (1.0f / tex.getRegionWidth()) * p.width * drawScale.x, (1.0f / tex.getRegionHeight() * p.height * drawScale.y),
-                            1);
-                }
-
-            }
-        }
+        drawParticles(canvas, eye_textures);
     }
 }
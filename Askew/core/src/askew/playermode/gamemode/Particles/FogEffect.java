@@ -1,77 +1,52 @@
 package askew.playermode.gamemode.Particles;
 
-import askew.GameCanvas;
 import askew.MantisAssetManager;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import askew.util.RandomController;
+import com.badlogic.gdx.graphics.Color;
 
-import java.util.ArrayList;
-import java.util.LinkedList;
 
-
-public class FogEffect extends Effect {
+public class FogEffect extends ShaderEffect {
 
     private int fog_num = 4;
     private int fog_cap = 100;
     private final String fog_texturePath1 = "texture/particle/cloud.png";
     private final String fog_texturePath2 = "texture/particle/cloud1.png";
-    private final ArrayList<TextureRegion> fog_textures = new ArrayList<>();
 
-    public FogEffect(ParticleController pc, LinkedList<Particle> unspawned) {
-        super(pc, unspawned);
+    public FogEffect(ParticleController pc) {
+        // Half the high cap for each of the two textures
+        super(pc, 1024, 2, new Color(1, 1, 1, .10f), true);
     }
 
     public void spawn(float x, float y){
-        Particle current;
         if(particleController.graphicsSetting == 0){
             fog_num = 1;
             fog_cap = 20;
         }
         else{
             fog_num = 4;
-            fog_cap = 500;
+            fog_cap = 2000;
         }
+        setLimit(fog_cap);
+        float boundsx = particleController.gmc.getBounds().getWidth();
+        float boundsy = particleController.gmc.getBounds().getHeight();
+        RandomController r = particleController.random;
         for (int i = 0; i < fog_num; i++) {
-            if (unspawned.size() > 0  && spawned.size() < fog_cap) {
-                current = unspawned.getFirst();
-                unspawned.removeFirst();
-                current.spawnFog(x, y, particleController.gmc.getBounds().getWidth(), particleController.gmc.getBounds().getHeight());
-                spawned.add(current);
-            }
+            float depth = 6f + (r.nextFloat() - .5f) * 2 * 4.9f;
+            spawn(r.nextInt(2),
+                    (x + (r.nextFloat() - .7f) * boundsx) * depth,
+                    (y + (r.nextFloat() - .5f) * boundsy * 2) * depth,
+                    4 + (r.nextFloat() - .5f) * 2,
+                    (r.nextFloat() - .5f) * .2f,
+                    10, 5f, depth, 0,
+                    (r.nextFloat() - .5f) * 2,
+                    7 + (r.nextFloat() - .5f) * 6);
         }
-
-
     }
 
     @Override
     public void setTexture(MantisAssetManager manager) {
-        if(fog_textures.size() == 0) {
-            Texture tex = manager.get(fog_texturePath1);
-            fog_textures.add(new TextureRegion(tex));
-
-            tex = manager.get(fog_texturePath2);
-            fog_textures.add(new TextureRegion(tex));
-        }
-    }
-
-    @Override
-    public void draw(GameCanvas canvas) {
-        canvas.setBlendState(GameCanvas.BlendState.ADDITIVE);
-        for (Particle p : spawned) {
-            if (p.accumulator > 0) {
-                if (fog_textures.get(p.textureNum) != null) {
-                    TextureRegion tex = fog_textures.get(p.textureNum);
-                    canvas.drawBackgroundEntity(tex,
-                            p.tint,
-                            tex.getRegionWidth() / 2,
-                            tex.getRegionHeight() / 2,
-                            p.x * drawScale.x, p.y * drawScale.y, p.depth, p.angle,
-                            (1.0f / tex.getRegionWidth()) * p.width * drawScale.x, (1.0f / tex.getRegionHeight() * p.height * drawScale.y),
-                            1);
-                }
-
-            }
-        }
+        buffers[0].setRegion(manager.getRegion(fog_texturePath1));
+        buffers[1].setRegion(manager.getRegion(fog_texturePath2));
     }
 
 }
@@ -1,53 +1,23 @@
 package askew.playermode.gamemode.Particles;
 
 
-import askew.GameCanvas;
 import askew.MantisAssetManager;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.Color;
 
-import java.util.LinkedList;
-
-public class HandTrailEffect extends Effect {
+public class HandTrailEffect extends ShaderEffect {
 
     private final String effect1_texturePath = "texture/particle/test.png";
-    private TextureRegion effect1_texture;
 
-    public HandTrailEffect(ParticleController pc, LinkedList<Particle> unspawned) {
-        super(pc, unspawned);
+    public HandTrailEffect(ParticleController pc) {
+        super(pc, 256, 1, new Color(1f, .93f, .91f, .25f), false);
     }
 
     public void spawn(float x, float y, float angle) {
-        Particle current;
-        if (unspawned.size() > 0) {
-            current = unspawned.getFirst();
-            unspawned.removeFirst();
-            current.spawnHandTrail(x, y, angle);
-            spawned.add(current);
-        }
-
+        buffers[0].spawn(time, x, y, 0, 0, .2f, .2f, 1.0001f, angle, 0, .25f);
     }
 
     @Override
     public void setTexture(MantisAssetManager manager) {
-        Texture tex = manager.get(effect1_texturePath);
-        effect1_texture = new TextureRegion(tex);
-    }
-
-    @Override
-    public void draw(GameCanvas canvas) {
-        canvas.setBlendState(GameCanvas.BlendState.ADDITIVE);
-        for (Particle p : spawned) {
-            if (p.accumulator > 0) {
-                if (effect1_texture != null) {
-                    TextureRegion tex = effect1_texture;
-                    canvas.drawBackgroundEntity(tex, p.tint, tex.getRegionWidth() / 2, tex.getRegionHeight() / 2,
-                            p.x * drawScale.x, p.y * drawScale.y, p.depth, p.angle,
-                            (1.0f / tex.getRegionWidth()) * p.width * drawScale.x, (1.0f / tex.getRegionHeight() * p.height * drawScale.y),
-                            1);
-                }
-
-            }
-        }
+        buffers[0].setRegion(manager.getRegion(effect1_texturePath));
     }
 }
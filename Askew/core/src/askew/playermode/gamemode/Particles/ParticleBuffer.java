@@ -0,0 +1,324 @@
+package askew.playermode.gamemode.Particles;
+
+import askew.GameCanvas;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes.Usage;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+
+/**
+ * Particles of one texture that are animated entirely on the graphics card.
+ * <p>
+ * A particle here moves in a straight line at a constant speed and fades over
+ * its life, so where it is and how bright it is follow from how long ago it
+ * spawned.  Its vertices hold what it spawned with and when, and are written
+ * once; the shader from createShader() works out the rest every frame from
+ * the time.  Nothing is done for a particle on the CPU after it spawns.
+ * <p>
+ * The particles are a ring of slots.  A spawn takes the first slot from the
+ * oldest on whose particle has died, and fails only if every slot within the
+ * limit is still alive, so there are never more than the limit alive.
+ * The mesh is made the first time the buffer is drawn, so particles can be
+ * spawned without a graphics context.
+ */
+class ParticleBuffer {
+
+    /**
+     * The number of floats in a vertex: position, velocity, corner, size,
+     * spawn time, starting age, life, depth and angle
+     */
+    private static final int VERTEX_SIZE = 13;
+    private static final int SLOT_SIZE = 4 * VERTEX_SIZE;
+    /**
+     * The corners of a particle, about its centre, in the order the batch lays out sprites
+     */
+    private static final float[] CORNERS = {-.5f, -.5f, -.5f, .5f, .5f, .5f, .5f, -.5f};
+
+    /**
+     * The vertices of every slot, as they are in the mesh
+     */
+    private final float[] vertices;
+    /**
+     * The time at which the particle in each slot dies
+     */
+    private final float[] deathTimes;
+    /**
+     * The number of slots in the ring
+     */
+    private int limit;
+    /**
+     * The slot the next particle goes in
+     */
+    private int head;
+    /**
+     * The number of slots from the first that have ever held a particle
+     */
+    private int used;
+    /**
+     * The slots written since the mesh was last uploaded, from start up to end
+     */
+    private int dirtyStart = Integer.MAX_VALUE;
+    private int dirtyEnd;
+    private Mesh mesh;
+    private TextureRegion region;
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity the most particles that can be alive at once, at most 8191
+     */
+    ParticleBuffer(int capacity) {
+        // 32767 is the largest index, and a particle has 4 vertices
+        if (capacity > 8191) throw new IllegalArgumentException("Can't have more than 8191 particles in a buffer: " + capacity);
+        vertices = new float[capacity * SLOT_SIZE];
+        deathTimes = new float[capacity];
+        limit = capacity;
+    }
+
+    /**
+     * Creates the shader that draws particle buffers.
+     * <p>
+     * Besides u_projTrans and u_texture, which the canvas sets, it needs
+     * u_time (the time of the effect, in seconds), u_campos (the camera, in
+     * pixels), u_drawScale, u_color and u_pulse, which is 0 to fade out over
+     * the particle's life and 1 to fade in and back out.  Each buffer sets
+     * u_region itself.  A particle is drawn as GameCanvas.drawBackgroundEntity
+     * draws a region at its centre.
+     *
+     * @return the shader
+     */
+    static ShaderProgram createShader() {
+        String vertexShader = "attribute vec4 " + ShaderProgram.POSITION_ATTRIBUTE + ";\n" //
+                + "attribute vec2 a_velocity;\n" //
+                + "attribute vec2 a_corner;\n" //
+                + "attribute vec2 a_size;\n" //
+                + "attribute vec3 a_spawn;\n" //
+                + "attribute vec2 a_pose;\n" //
+                + "uniform mat4 u_projTrans;\n" //
+                + "uniform float u_time;\n" //
+                + "uniform vec2 u_campos;\n" //
+                + "uniform vec2 u_drawScale;\n" //
+                + "uniform vec4 u_color;\n" //
+                + "uniform float u_pulse;\n" //
+                + "uniform vec4 u_region;\n" //
+                + "varying vec4 v_color;\n" //
+                + "varying vec2 v_texCoords;\n" //
+                + "\n" //
+                + "void main()\n" //
+                + "{\n" //
+                + "   float elapsed = u_time - a_spawn.x;\n" //
+                + "   float age = elapsed + a_spawn.y;\n" //
+                + "   v_texCoords = vec2(mix(u_region.x, u_region.z, a_corner.x + 0.5), mix(u_region.w, u_region.y, a_corner.y + 0.5));\n" //
+                + "   if (age <= 0.0 || age >= a_spawn.z) {\n" //
+                + "      // Not started or already dead, so outside the screen\n" //
+                + "      v_color = vec4(0.0);\n" //
+                + "      gl_Position = vec4(2.0, 2.0, 2.0, 1.0);\n" //
+                + "      return;\n" //
+                + "   }\n" //
+                + "   float t = age / a_spawn.z;\n" //
+                + "   float fade = mix(1.0 - t, 0.5 - 0.5 * cos(6.283 * t), u_pulse);\n" //
+                + "   v_color = vec4(u_color.rgb, u_color.a * fade);\n" //
+                + "   float depth = a_pose.x;\n" //
+                + "   vec2 world = (" + ShaderProgram.POSITION_ATTRIBUTE + ".xy + a_velocity * elapsed) * u_drawScale;\n" //
+                + "   vec2 center = u_campos + (world - u_campos) / depth;\n" //
+                + "   vec2 offset = a_corner * a_size * u_drawScale;\n" //
+                + "   float c = cos(a_pose.y);\n" //
+                + "   float s = sin(a_pose.y);\n" //
+                + "   vec2 corner = center + vec2(c * offset.x - s * offset.y, s * offset.x + c * offset.y);\n" //
+                + "   gl_Position = u_projTrans * vec4(corner, depth / (1.0 + depth), 1.0);\n" //
+                + "}\n";
+        String fragmentShader = "#ifdef GL_ES\n" //
+                + "#define LOWP lowp\n" //
+                + "precision mediump float;\n" //
+                + "#else\n" //
+                + "#define LOWP \n" //
+                + "#endif\n" //
+                + "varying LOWP vec4 v_color;\n" //
+                + "varying vec2 v_texCoords;\n" //
+                + "uniform sampler2D u_texture;\n" //
+                + "void main()\n"//
+                + "{\n" //
+                + "  vec4 color = v_color * texture2D(u_texture, v_texCoords);\n"//
+                + "  if (color.a < .01){\n"//
+                + "    discard; \n"//
+                + "  }\n"//
+                + "  gl_FragColor = color;\n" //
+                + "}";
+
+        ShaderProgram shader = new ShaderProgram(vertexShader, fragmentShader);
+        if (!shader.isCompiled()) throw new IllegalArgumentException("Error compiling particle shader: " + shader.getLog());
+        return shader;
+    }
+
+    /**
+     * Returns the most particles that can be alive at once.
+     *
+     * @return the number of slots
+     */
+    int getCapacity() {
+        return deathTimes.length;
+    }
+
+    /**
+     * Sets how many particles can be alive at once, up to the capacity.
+     * Particles already alive beyond the limit live out their lives.
+     *
+     * @param limit the most particles that may be alive at once
+     */
+    void setLimit(int limit) {
+        limit = Math.max(1, Math.min(limit, deathTimes.length));
+        if (limit != this.limit) {
+            this.limit = limit;
+            if (head >= limit) {
+                head = 0;
+            }
+        }
+    }
+
+    /**
+     * Sets the region the particles are drawn with.
+     *
+     * @param region the region to draw with
+     */
+    void setRegion(TextureRegion region) {
+        this.region = region;
+    }
+
+    /**
+     * Adds a particle in the oldest slot that is free, unless every one is alive.
+     *
+     * @param time   the time of the effect now, in seconds
+     * @param x      the x-coordinate at spawn, in world coordinates
+     * @param y      the y-coordinate at spawn, in world coordinates
+     * @param vx     the x-velocity, in world coordinates per second
+     * @param vy     the y-velocity, in world coordinates per second
+     * @param width  the width, in world coordinates
+     * @param height the height, in world coordinates
+     * @param depth  the parallax depth, where 1 is the plane of play
+     * @param angle  the rotation, in radians
+     * @param age    the age at spawn; the particle is not drawn until this is positive
+     * @param life   the age at which the particle dies
+     * @return whether the particle was added
+     */
+    boolean spawn(float time, float x, float y, float vx, float vy, float width, float height,
+                  float depth, float angle, float age, float life) {
+        // Particles live different lengths, so a younger slot may be free first
+        int slot = head;
+        for (int tried = 1; deathTimes[slot] > time; tried++) {
+            if (tried == limit) {
+                return false;
+            }
+            slot = (slot + 1) % limit;
+        }
+        deathTimes[slot] = time + life - age;
+        int idx = slot * SLOT_SIZE;
+        for (int i = 0; i < CORNERS.length; i += 2) {
+            vertices[idx++] = x;
+            vertices[idx++] = y;
+            vertices[idx++] = vx;
+            vertices[idx++] = vy;
+            vertices[idx++] = CORNERS[i];
+            vertices[idx++] = CORNERS[i + 1];
+            vertices[idx++] = width;
+            vertices[idx++] = height;
+            vertices[idx++] = time;
+            vertices[idx++] = age;
+            vertices[idx++] = life;
+            vertices[idx++] = depth;
+            vertices[idx++] = angle;
+        }
+
+        head = (slot + 1) % limit;
+        used = Math.max(used, slot + 1);
+        dirtyStart = Math.min(dirtyStart, slot);
+        dirtyEnd = Math.max(dirtyEnd, slot + 1);
+        return true;
+    }
+
+    /**
+     * Returns the number of particles that have not died.
+     *
+     * @param time the time of the effect now, in seconds
+     * @return the number of particles alive
+     */
+    int countLive(float time) {
+        int n = 0;
+        for (int i = 0; i < used; i++) {
+            if (deathTimes[i] > time) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Removes every particle, for an effect whose time starts again from 0.
+     */
+    void clear() {
+        for (int i = 0; i < used; i++) {
+            deathTimes[i] = 0;
+        }
+        head = 0;
+        used = 0;
+        dirtyStart = Integer.MAX_VALUE;
+        dirtyEnd = 0;
+    }
+
+    /**
+     * Draws every particle with the shader, which must be the one set on the canvas
+     * and have the effect's uniforms set.  The slots spawned since the last draw are
+     * uploaded first.
+     *
+     * @param canvas the canvas to draw on
+     * @param shader the shader made with createShader()
+     */
+    void draw(GameCanvas canvas, ShaderProgram shader) {
+        if (used == 0 || region == null) {
+            return;
+        }
+        if (mesh == null) {
+            createMesh();
+        } else if (dirtyStart < dirtyEnd) {
+            int offset = dirtyStart * SLOT_SIZE;
+            mesh.updateVertices(offset, vertices, offset, (dirtyEnd - dirtyStart) * SLOT_SIZE);
+        }
+        dirtyStart = Integer.MAX_VALUE;
+        dirtyEnd = 0;
+
+        shader.setUniformf("u_region", region.getU(), region.getV(), region.getU2(), region.getV2());
+        canvas.drawMesh(mesh, region.getTexture(), used * 6);
+    }
+
+    private void createMesh() {
+        int capacity = deathTimes.length;
+        mesh = new Mesh(false, capacity * 4, capacity * 6,
+                new VertexAttribute(Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(Usage.Generic, 2, "a_velocity"),
+                new VertexAttribute(Usage.Generic, 2, "a_corner"),
+                new VertexAttribute(Usage.Generic, 2, "a_size"),
+                new VertexAttribute(Usage.Generic, 3, "a_spawn"),
+                new VertexAttribute(Usage.Generic, 2, "a_pose"));
+        short[] triangles = new short[capacity * 6];
+        for (int i = 0, j = 0; i < triangles.length; i += 6, j += 4) {
+            triangles[i] = (short) j;
+            triangles[i + 1] = (short) (j + 1);
+            triangles[i + 2] = (short) (j + 2);
+            triangles[i + 3] = (short) (j + 2);
+            triangles[i + 4] = (short) (j + 3);
+            triangles[i + 5] = (short) j;
+        }
+        mesh.setIndices(triangles);
+        mesh.setVertices(vertices);
+    }
+
+    /**
+     * Releases the mesh.  The buffer can still be used, and makes a new one when drawn.
+     */
+    void dispose() {
+        if (mesh != null) {
+            mesh.dispose();
+            mesh = null;
+        }
+    }
+}
@@ -3,19 +3,29 @@ package askew.playermode.gamemode.Particles;
 
 import askew.MantisAssetManager;
 import askew.playermode.gamemode.GameModeController;
+import askew.util.RandomController;
+import askew.util.ViewBounds;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
 import com.badlogic.gdx.math.Vector2;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.LinkedList;
 
 @SuppressWarnings({"FieldCanBeLocal", "SameParameterValue"})
 public class ParticleController {
 
     public final GameModeController gmc;
-    private final LinkedList<Particle> unspawned = new LinkedList<>();
+    /**
+     * The particles of every effect
+     */
+    public final ParticleStore store;
     public final ArrayList<Effect> effects = new ArrayList<>();
-    private final Particle[] tempArray;
+    /**
+     * Rolls the random numbers of the effects.  It is apart from the world's,
+     * so that whether particles are made (they are not, headless) does not
+     * change the numbers the gameplay rolls.
+     */
+    public final RandomController random = new RandomController(0);
     public TestEffect testEffect;
     public FogEffect fogEffect;
     public HandTrailEffect handTrailEffect;
@@ -23,34 +33,44 @@ public class ParticleController {
     public SurpriseEffect surpriseEffect;
     @Setter
     public int graphicsSetting;
+    /**
+     * The part of the world the camera can see, set before the effects are drawn
+     */
+    public final ViewBounds view = new ViewBounds();
 
     @Setter
     Vector2 drawScale;
+    /**
+     * The shader of the effects animated on the graphics card, made when first drawn
+     */
+    private ShaderProgram shader;
 
 
     public ParticleController(GameModeController gmc, int maxParticles) {
         this.gmc = gmc;
 
         this.setDrawScale(gmc.getWorldScale());
-        tempArray = new Particle[maxParticles];
-        testEffect = new TestEffect(this, unspawned);
+        store = new ParticleStore(maxParticles);
+        testEffect = new TestEffect(this, store);
         effects.add(testEffect);
-        fogEffect = new FogEffect(this,unspawned);
+        fogEffect = new FogEffect(this);
         effects.add(fogEffect);
-        handTrailEffect = new HandTrailEffect(this,unspawned);
+        handTrailEffect = new HandTrailEffect(this);
         effects.add(handTrailEffect);
-        eyeEffect = new EyesEffect(this, unspawned);
+        eyeEffect = new EyesEffect(this, store);
         effects.add(eyeEffect);
-        surpriseEffect = new SurpriseEffect(this,unspawned);
+        surpriseEffect = new SurpriseEffect(this, store);
         effects.add(surpriseEffect);
-        for (int i = 0; i < maxParticles; ++i) {
-            Particle particle = new Particle();
-            unspawned.add(particle);
-        }
     }
 
 
-    public void reset() {
+    /**
+     * Clears every effect and starts the random numbers over.
+     *
+     * @param seed what the random numbers of the effects start from
+     */
+    public void reset(long seed) {
+        random.setSeed(seed);
         for(Effect e : effects){
             e.reset();
         }
@@ -64,12 +84,37 @@ public class ParticleController {
 
     }
 
+    /**
+     * Returns the shader that draws particle buffers, making it the first time.
+     *
+     * @return the particle shader
+     */
+    ShaderProgram getShader() {
+        if (shader == null) {
+            shader = ParticleBuffer.createShader();
+        }
+        return shader;
+    }
+
+    /**
+     * Releases everything the effects hold on the graphics card.
+     */
+    public void dispose() {
+        for (Effect e : effects) {
+            e.dispose();
+        }
+        if (shader != null) {
+            shader.dispose();
+            shader = null;
+        }
+    }
+
     public void update(float delta) {
         if (gmc.isPaused()) {
             return;
         }
-        for(Effect e : effects){
-            e.update(delta);
+        for (int i = 0; i < effects.size(); i++) {
+            effects.get(i).update(delta);
         }
     }
 
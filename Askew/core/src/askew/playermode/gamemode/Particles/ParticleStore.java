@@ -0,0 +1,120 @@
+package askew.playermode.gamemode.Particles;
+
+/**
+ * The particles of every effect, one primitive array per attribute.
+ * <p>
+ * A particle is just a slot, an index into the arrays.  Slots are handed out
+ * from a single free stack shared by all the effects, so together they can
+ * never have more than the capacity alive.  Each effect keeps the slots it
+ * owns in a dense list and gives a slot back as soon as its particle dies.
+ * Nothing is allocated after the store is built.
+ */
+public class ParticleStore {
+
+    public final float[] x;
+    public final float[] y;
+    public final float[] vx;
+    public final float[] vy;
+    public final float[] width;
+    public final float[] height;
+    /**
+     * The parallax depth, where 1 is the plane of play
+     */
+    public final float[] depth;
+    /**
+     * The rotation, in radians
+     */
+    public final float[] angle;
+    /**
+     * The age, in seconds.  A particle is not drawn until this is positive.
+     */
+    public final float[] accumulator;
+    /**
+     * The age at which the particle dies
+     */
+    public final float[] deathTime;
+    /**
+     * Two timers for an effect's own use (the eyes blink with them)
+     */
+    public final float[] timer;
+    public final float[] rate;
+    /**
+     * The tint, packed as RGBA8888
+     */
+    public final int[] tint;
+    /**
+     * Which of its effect's textures the particle is drawn with
+     */
+    public final int[] textureNum;
+
+    /**
+     * The slots not in use, on top of the stack from index freeCount - 1 down
+     */
+    private final int[] free;
+    private int freeCount;
+
+    /**
+     * Creates a store with every slot free.
+     *
+     * @param capacity the most particles that can be alive at once
+     */
+    public ParticleStore(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        depth = new float[capacity];
+        angle = new float[capacity];
+        accumulator = new float[capacity];
+        deathTime = new float[capacity];
+        timer = new float[capacity];
+        rate = new float[capacity];
+        tint = new int[capacity];
+        textureNum = new int[capacity];
+        free = new int[capacity];
+        // Hand out the low slots first
+        for (int i = 0; i < capacity; i++) {
+            free[i] = capacity - 1 - i;
+        }
+        freeCount = capacity;
+    }
+
+    /**
+     * Returns the most particles that can be alive at once.
+     *
+     * @return the number of slots
+     */
+    public int getCapacity() {
+        return free.length;
+    }
+
+    /**
+     * Returns the number of slots not in use.
+     *
+     * @return the number of free slots
+     */
+    public int getAvailable() {
+        return freeCount;
+    }
+
+    /**
+     * Takes a free slot.  Every attribute of the slot is whatever its last
+     * particle left behind, so the caller must set them all.
+     *
+     * @return the slot, or -1 if every slot is in use
+     */
+    int obtain() {
+        return freeCount == 0 ? -1 : free[--freeCount];
+    }
+
+    /**
+     * Gives a slot back.
+     *
+     * @param slot a slot taken with obtain()
+     */
+    void release(int slot) {
+        free[freeCount++] = slot;
+    }
+}
@@ -0,0 +1,129 @@
+package askew.playermode.gamemode.Particles;
+
+import askew.GameCanvas;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Vector2;
+
+/**
+ * An effect whose particles are animated by the graphics card.
+ * <p>
+ * The particles are in ParticleBuffers, one per texture, and are never touched
+ * once spawned; updating the effect only advances its time, which the shader
+ * works everything else out from.  The time stops when the controller stops
+ * updating (while the game is paused), so the particles freeze with it.
+ */
+public abstract class ShaderEffect extends Effect {
+
+    /**
+     * The particles, a buffer per texture
+     */
+    protected final ParticleBuffer[] buffers;
+    /**
+     * The time since the effect was reset, in seconds
+     */
+    protected float time;
+    private final Color color;
+    /**
+     * 1 if the particles fade in and back out, 0 if they only fade out
+     */
+    private final float pulse;
+
+    /**
+     * Creates an effect with no particles.
+     *
+     * @param pc       the controller of the effect
+     * @param capacity the most particles of each texture alive at once
+     * @param textures the number of textures
+     * @param color    the tint of a particle at full brightness
+     * @param pulse    whether particles fade in and back out, rather than only out
+     */
+    protected ShaderEffect(ParticleController pc, int capacity, int textures, Color color, boolean pulse) {
+        super(pc);
+        buffers = new ParticleBuffer[textures];
+        for (int i = 0; i < textures; i++) {
+            buffers[i] = new ParticleBuffer(capacity);
+        }
+        this.color = color;
+        this.pulse = pulse ? 1 : 0;
+    }
+
+    /**
+     * Sets how many particles can be alive at once, shared evenly by the textures.
+     * <p>
+     * Each texture gets its share of the limit (the first ones one more, if it
+     * does not divide evenly).  Spawning with spawn() rather than on a buffer
+     * moves a particle to another texture when its own is full, so the effect
+     * as a whole still reaches the limit.
+     *
+     * @param limit the most particles that may be alive at once
+     */
+    protected void setLimit(int limit) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i].setLimit(limit / buffers.length + (i < limit % buffers.length ? 1 : 0));
+        }
+    }
+
+    /**
+     * Adds a particle with the given texture, or with the next texture that has
+     * room if that one is full.  See ParticleBuffer.spawn for the arguments.
+     *
+     * @param buffer the index of the texture to spawn with
+     * @return whether the particle was added
+     */
+    protected boolean spawn(int buffer, float x, float y, float vx, float vy, float width, float height,
+                            float depth, float angle, float age, float life) {
+        for (int i = 0; i < buffers.length; i++) {
+            if (buffers[(buffer + i) % buffers.length].spawn(time, x, y, vx, vy, width, height, depth, angle, age, life)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void update(float delta) {
+        time += delta;
+    }
+
+    @Override
+    public void draw(GameCanvas canvas) {
+        canvas.setBlendState(GameCanvas.BlendState.ADDITIVE);
+        ShaderProgram shader = particleController.getShader();
+        canvas.setShader(shader);
+        Vector2 campos = canvas.getCampos();
+        shader.setUniformf("u_time", time);
+        shader.setUniformf("u_campos", campos.x, campos.y);
+        shader.setUniformf("u_drawScale", drawScale.x, drawScale.y);
+        shader.setUniformf("u_color", color);
+        shader.setUniformf("u_pulse", pulse);
+        for (ParticleBuffer buffer : buffers) {
+            buffer.draw(canvas, shader);
+        }
+        canvas.setShader(null);
+    }
+
+    @Override
+    public int size() {
+        int n = 0;
+        for (ParticleBuffer buffer : buffers) {
+            n += buffer.countLive(time);
+        }
+        return n;
+    }
+
+    @Override
+    public void reset() {
+        time = 0;
+        for (ParticleBuffer buffer : buffers) {
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (ParticleBuffer buffer : buffers) {
+            buffer.dispose();
+        }
+    }
+}
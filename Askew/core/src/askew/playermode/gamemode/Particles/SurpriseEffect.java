@@ -4,53 +4,51 @@ package askew.playermode.gamemode.Particles;
 import askew.GameCanvas;
 import askew.MantisAssetManager;
 import com.badlogic.gdx.graphics.Color;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
-import java.util.LinkedList;
-
 public class SurpriseEffect extends Effect {
 
     private final int effect1_num = 16;
     private final String effect1_texturePath = "texture/particle/test.png";
-    private TextureRegion effect1_texture;
+    private final TextureRegion[] effect1_texture = new TextureRegion[1];
 
-    public SurpriseEffect(ParticleController pc, LinkedList<Particle> unspawned) {
-        super(pc, unspawned);
+    public SurpriseEffect(ParticleController pc, ParticleStore store) {
+        super(pc, store);
     }
 
     public void spawn(float x, float y, float radius, float length, Color tint) {
-        Particle current;
         float angle = 2 * 3.1415926f / effect1_num;
+        ParticleStore s = store;
         for (int i = 0; i < effect1_num; i++) {
-            if (unspawned.size() > 0) {
-                current = unspawned.getFirst();
-                unspawned.removeFirst();
-                current.spawnSurprise(x + (float)(radius * Math.cos(i * angle)), y + (float)(radius * Math.sin(i * angle)),length,  angle * i, tint);
-                spawned.add(current);
+            int p = spawnSlot();
+            if (p < 0) {
+                break;
             }
+            s.x[p] = x + (float) (radius * Math.cos(i * angle));
+            s.y[p] = y + (float) (radius * Math.sin(i * angle));
+            s.width[p] = length;
+            s.height[p] = .1f;
+            s.depth[p] = 1f;
+            s.angle[p] = angle * i;
+            s.tint[p] = Color.rgba8888(tint);
+            s.textureNum[p] = 0;
+            s.deathTime[p] = 1.5f;
+            s.accumulator[p] = 0;
         }
     }
 
+    @Override
+    protected void update(int p, float delta, float t) {
+        store.tint[p] = Color.rgba8888(1f, 0f, 0f, 1 - t);
+    }
+
     @Override
     public void setTexture(MantisAssetManager manager) {
-        Texture tex = manager.get(effect1_texturePath);
-        effect1_texture = new TextureRegion(tex);
+        effect1_texture[0] = manager.getRegion(effect1_texturePath);
     }
 
     @Override
     public void draw(GameCanvas canvas) {
-        for (Particle p : spawned) {
-            if (p.accumulator > 0) {
-                if (effect1_texture != null) {
-                    TextureRegion tex = effect1_texture;
-                    canvas.drawBackgroundEntity(tex, p.tint, tex.getRegionWidth() / 2, tex.getRegionHeight() / 2,
-                            p.x * drawScale.x, p.y * drawScale.y, p.depth, p.angle,
-                            (1.0f / tex.getRegionWidth()) * p.width * drawScale.x, (1.0f / tex.getRegionHeight() * p.height * drawScale.y),
-                            1);
-                }
-
-            }
-        }
+        drawParticles(canvas, effect1_texture);
     }
 }
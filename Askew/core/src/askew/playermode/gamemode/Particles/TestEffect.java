@@ -3,52 +3,47 @@ package askew.playermode.gamemode.Particles;
 
 import askew.GameCanvas;
 import askew.MantisAssetManager;
-import com.badlogic.gdx.graphics.Texture;
+import askew.util.RandomController;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
-import java.util.LinkedList;
-
 public class TestEffect extends Effect {
 
     private final int effect1_num = 15;
     private final String effect1_texturePath = "texture/particle/test.png";
-    private TextureRegion effect1_texture;
+    private final TextureRegion[] effect1_texture = new TextureRegion[1];
 
-    public TestEffect(ParticleController pc, LinkedList<Particle> unspawned) {
-        super(pc, unspawned);
+    public TestEffect(ParticleController pc, ParticleStore store) {
+        super(pc, store);
     }
 
     public void spawn(float x, float y) {
-        Particle current;
+        ParticleStore s = store;
+        RandomController r = particleController.random;
         for (int i = 0; i < effect1_num; i++) {
-            if (unspawned.size() > 0) {
-                current = unspawned.getFirst();
-                unspawned.removeFirst();
-                current.spawnDefault(x, y);
-                spawned.add(current);
+            int p = spawnSlot();
+            if (p < 0) {
+                break;
             }
+            s.x[p] = x + (r.nextFloat() - .5f) * 15;
+            s.y[p] = y + (r.nextFloat() - .5f) * 15;
+            s.width[p] = 1;
+            s.height[p] = 1;
+            s.depth[p] = 6f + (r.nextFloat() - .5f) * 3;
+            s.angle[p] = 0;
+            s.tint[p] = 0xFFFFFF4F;
+            s.textureNum[p] = 0;
+            s.deathTime[p] = 4 + (r.nextFloat() - .5f) * 2;
+            s.accumulator[p] = (r.nextFloat() - .5f) * 2;
         }
     }
 
     @Override
     public void setTexture(MantisAssetManager manager) {
-        Texture tex = manager.get(effect1_texturePath);
-        effect1_texture = new TextureRegion(tex);
+        effect1_texture[0] = manager.getRegion(effect1_texturePath);
     }
 
     @Override
     public void draw(GameCanvas canvas) {
-        for (Particle p : spawned) {
-            if (p.accumulator > 0) {
-                if (effect1_texture != null) {
-                    TextureRegion tex = effect1_texture;
-                    canvas.drawBackgroundEntity(tex, p.tint, tex.getRegionWidth() / 2, tex.getRegionHeight() / 2,
-                            p.x * drawScale.x, p.y * drawScale.y, p.depth, 0,
-                            (1.0f / tex.getRegionWidth()) * p.width * drawScale.x, (1.0f / tex.getRegionHeight() * p.height * drawScale.y),
-                            1);
-                }
-
-            }
-        }
+        drawParticles(canvas, effect1_texture);
     }
 }
@@ -2,16 +2,15 @@ package askew.playermode.gamemode;
 
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.BoxObstacle;
-import askew.entity.obstacle.Obstacle;
+import askew.entity.sloth.SlothFixture;
 import askew.entity.sloth.SlothModel;
 import com.badlogic.gdx.physics.box2d.*;
+import com.badlogic.gdx.utils.Array;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
-import java.util.Objects;
 
 
 class PhysicsController implements ContactListener {
@@ -27,8 +26,11 @@ class PhysicsController implements ContactListener {
     private boolean isFlowWin;
     private int victorySloth;
 
-    private ArrayList<ArrayList<Body>> rightLists = new ArrayList<>();
-    private ArrayList<ArrayList<Body>> leftLists = new ArrayList<>();
+    /**
+     * What each hand of each sloth is touching, by sloth id
+     */
+    private final Array<Array<Body>> rightLists = new Array<>();
+    private final Array<Array<Body>> leftLists = new Array<>();
 
     /**
      * This function deals with collisions.
@@ -42,13 +44,7 @@ class PhysicsController implements ContactListener {
 
     public void reset() {
         slothList.clear();
-        for(ArrayList a : rightLists){
-            a.clear();
-        }
         rightLists.clear();
-        for(ArrayList a : leftLists){
-            a.clear();
-        }
         leftLists.clear();
 
         goalDoor = null;
@@ -67,66 +63,49 @@ class PhysicsController implements ContactListener {
      */
     @Override
     public void beginContact(Contact contact) {
-        Fixture fix1 = contact.getFixtureA();
-        Fixture fix2 = contact.getFixtureB();
-
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
-
-        Fixture me = null;
-        Fixture other = null;
-
-        boolean oneIsSloth = (fix1.getFilterData().categoryBits & FilterGroup.SLOTH) != 0;
-        boolean twoIsSloth = (fix2.getFilterData().categoryBits & FilterGroup.SLOTH) != 0;
+        beginContact(contact.getFixtureA(), contact.getFixtureB());
+    }
 
-        if(oneIsSloth && twoIsSloth) {
+    /**
+     * Handles the start of a collision between two fixtures.
+     * <p>
+     * This is split from the callback so that it can be driven without a live contact.
+     *
+     * @param fix1 The first fixture in the contact
+     * @param fix2 The second fixture in the contact
+     */
+    void beginContact(Fixture fix1, Fixture fix2) {
+        Object data1 = fix1.getUserData();
+        Object data2 = fix2.getUserData();
+        boolean oneIsSloth = data1 instanceof SlothFixture;
+        boolean twoIsSloth = data2 instanceof SlothFixture;
+
+        SlothFixture me;
+        Fixture other;
+        if (oneIsSloth == twoIsSloth) {
             return;
-        }else if (oneIsSloth){
-            me = fix1;
+        } else if (oneIsSloth) {
+            me = (SlothFixture) data1;
             other = fix2;
-        }else if (twoIsSloth){
-            me = fix2;
+        } else {
+            me = (SlothFixture) data2;
             other = fix1;
-        }else{
-            return;
-        }
-        body1 = me.getBody();
-        body2 = other.getBody();
-
-        if((me.getFilterData().categoryBits & FilterGroup.HAND) != 0){
-            for (SlothModel sloth : slothList) {
-                if(body1 == sloth.getRightHand()){
-                    rightLists.get(sloth.getId()).add(body2);
-                }
-                if(body1 == sloth.getLeftHand()){
-                    leftLists.get(sloth.getId()).add(body2);
-                }
-            }
         }
 
+        if ((me.category & FilterGroup.HAND) != 0 && me.hand != SlothFixture.NO_HAND) {
+            handList(me).add(other.getBody());
+        }
 
-        if((other.getFilterData().categoryBits & FilterGroup.LOSE) != 0) {
-            for (SlothModel sloth : slothList) {
-                for (Obstacle b : sloth.getBodies()) {
-                    if (b.getBody() == body1) {
-                        sloth.shouldDie = true;
-                        System.out.println(sloth);
-                    }
-                }
-            }
+        int otherCategory = other.getFilterData().categoryBits;
+        if ((otherCategory & FilterGroup.LOSE) != 0) {
+            SlothModel sloth = slothList.get(me.slothId);
+            sloth.shouldDie = true;
         }
 
-        if((other.getFilterData().categoryBits & FilterGroup.WIN) != 0) {
-            for (SlothModel sloth : slothList) {
-                for (Obstacle b : sloth.getBodies()) {
-                    if (b.getBody() == body1) {
-                        victorySloth = sloth.getId();
-                    }
-                }
-            }
+        if ((otherCategory & FilterGroup.WIN) != 0) {
+            victorySloth = me.slothId;
             isFlowWin = true;
         }
-        
     }
 
     /**
@@ -135,57 +114,56 @@ class PhysicsController implements ContactListener {
      * This method is called when two entities cease to touch.
      */
     public void endContact(Contact contact) {
-        Fixture fix1 = contact.getFixtureA();
-        Fixture fix2 = contact.getFixtureB();
-
-        Body body1 = fix1.getBody();
-        Body body2 = fix2.getBody();
-
-        Fixture me = null;
-        Fixture other = null;
-
-        boolean oneIsSloth = (fix1.getFilterData().categoryBits & FilterGroup.SLOTH) != 0;
-        boolean twoIsSloth = (fix2.getFilterData().categoryBits & FilterGroup.SLOTH) != 0;
+        endContact(contact.getFixtureA(), contact.getFixtureB());
+    }
 
-        if(oneIsSloth && twoIsSloth) {
+    /**
+     * Handles the end of a collision between two fixtures.
+     *
+     * @param fix1 The first fixture in the contact
+     * @param fix2 The second fixture in the contact
+     */
+    void endContact(Fixture fix1, Fixture fix2) {
+        Object data1 = fix1.getUserData();
+        Object data2 = fix2.getUserData();
+        boolean oneIsSloth = data1 instanceof SlothFixture;
+        boolean twoIsSloth = data2 instanceof SlothFixture;
+
+        SlothFixture me;
+        Fixture other;
+        if (oneIsSloth == twoIsSloth) {
             return;
-        }else if (oneIsSloth){
-            me = fix1;
+        } else if (oneIsSloth) {
+            me = (SlothFixture) data1;
             other = fix2;
-        }else if (twoIsSloth){
-            me = fix2;
+        } else {
+            me = (SlothFixture) data2;
             other = fix1;
-        }else{
-            return;
         }
-        body1 = me.getBody();
-        body2 = other.getBody();
-
-        if((me.getFilterData().categoryBits & FilterGroup.HAND) != 0){
-            for (SlothModel sloth : slothList) {
-                if(body1 == sloth.getRightHand()){
-                    rightLists.get(sloth.getId()).remove(body2);
-                }
-                if(body1 == sloth.getLeftHand()){
-                    leftLists.get(sloth.getId()).remove(body2);
-                }
-            }
+
+        if ((me.category & FilterGroup.HAND) != 0 && me.hand != SlothFixture.NO_HAND) {
+            handList(me).removeValue(other.getBody(), true);
         }
     }
 
+    /**
+     * Returns what the hand of a sensor fixture is touching.
+     *
+     * @param hand the tag of the sensor fixture
+     * @return the bodies the hand is touching, in the order it touched them
+     */
+    private Array<Body> handList(SlothFixture hand) {
+        return (hand.hand == SlothFixture.LEFT_HAND ? leftLists : rightLists).get(hand.slothId);
+    }
 
     public Body getLeftBody(SlothModel sloth) {
-        if (leftLists.get(sloth.getId()).size() > 0) {
-            return leftLists.get(sloth.getId()).get(0);
-        }
-        return null;
+        Array<Body> list = leftLists.get(sloth.getId());
+        return (list.size > 0 ? list.first() : null);
     }
 
     public Body getRightBody(SlothModel sloth) {
-        if (rightLists.get(sloth.getId()).size() > 0) {
-            return rightLists.get(sloth.getId()).get(0);
-        }
-        return null;
+        Array<Body> list = rightLists.get(sloth.getId());
+        return (list.size > 0 ? list.first() : null);
     }
 
     /**
@@ -202,8 +180,8 @@ class PhysicsController implements ContactListener {
 
     public void addSloth(SlothModel sloth) {
         slothList.add(sloth);
-        leftLists.add(new ArrayList<>());
-        rightLists.add(new ArrayList<>());
+        leftLists.add(new Array<Body>(4));
+        rightLists.add(new Array<Body>(4));
 
     }
 
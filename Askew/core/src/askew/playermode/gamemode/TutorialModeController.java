@@ -14,6 +14,7 @@ import askew.GlobalConfiguration;
 import askew.InputController;
 import askew.InputControllerManager;
 import askew.MantisAssetManager;
+import askew.entity.DrawOrder;
 import askew.entity.Entity;
 import askew.entity.FilterGroup;
 import askew.entity.obstacle.ComplexObstacle;
@@ -22,6 +23,7 @@ import askew.entity.owl.OwlModel;
 import askew.entity.sloth.SlothModel;
 import askew.entity.tree.Trunk;
 import askew.entity.vine.Vine;
+import askew.util.ViewBounds;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.GL20;
@@ -36,7 +38,6 @@ import lombok.Getter;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 
 import static askew.entity.sloth.SlothModel.*;
 
@@ -53,6 +54,8 @@ import static askew.entity.sloth.SlothModel.*;
 public class TutorialModeController extends GameModeController {
 
 	private int MAX_TUTORIAL;
+	/** The debug frame rate readout, rebuilt in place every frame */
+	private final StringBuilder fpsText = new StringBuilder();
 
 	private final int STAGE_PINNED = 1;
 	private final int STAGE_GRAB = 2;
@@ -464,7 +467,7 @@ public class TutorialModeController extends GameModeController {
 			case ebbFling:
 				for(Trunk t : trunkEntities) {
 					for(Obstacle plank: t.getBodies()){
-						if(plank.getBody().getUserData() instanceof Obstacle && ((Obstacle)plank.getBody().getUserData()).isGrabbed()) {
+						if(plank.isGrabbed()) {
 							ind = trunkEntities.indexOf(t);
 							trunkGrabbed.set(ind,true);
 							if(ind != 2 && ind != 3) {
@@ -484,7 +487,7 @@ public class TutorialModeController extends GameModeController {
 			case ebbFlingUp:
 				for(Trunk t : trunkEntities) {
 					for(Obstacle plank: t.getBodies()){
-						if(plank.getBody().getUserData() instanceof Obstacle && ((Obstacle)plank.getBody().getUserData()).isGrabbed()) {
+						if(plank.isGrabbed()) {
 							ind = trunkEntities.indexOf(t);
 							if(ind !=5) {
 								trunkGrabbed.set(2,false);
@@ -505,7 +508,7 @@ public class TutorialModeController extends GameModeController {
 			case ebbVine1:
 				for(Trunk t : trunkEntities) {
 					for(Obstacle plank: t.getBodies()){
-						if(plank.getBody().getUserData() instanceof Obstacle && ((Obstacle)plank.getBody().getUserData()).isGrabbed()) {
+						if(plank.isGrabbed()) {
 							ind = trunkEntities.indexOf(t);
 							trunkGrabbed.set(ind,true);
 							if(ind != 6) {
@@ -543,7 +546,7 @@ public class TutorialModeController extends GameModeController {
 			case ebbVine2:
 				for(Trunk t : trunkEntities) {
 					for(Obstacle plank: t.getBodies()){
-						if(plank.getBody().getUserData() instanceof Obstacle && ((Obstacle)plank.getBody().getUserData()).isGrabbed()) {
+						if(plank.isGrabbed()) {
 							ind = trunkEntities.indexOf(t);
 							trunkGrabbed.set(ind,true);
 							if(ind != 7) {
@@ -757,7 +760,7 @@ public class TutorialModeController extends GameModeController {
 
 	public boolean checkGrabbedPt(Vector2 setpt, int dir) {
 //		System.out.print("   setpt: ("+setpt.x+","+setpt.y+")   ");
-        Body rTarget, lTarget, tTarget, bTarget;
+        Obstacle rTarget, lTarget, tTarget, bTarget;
         Vector2 rtPos, ltPos, ttPos, btPos;
         boolean xrange = false;
         boolean yrange = false;
@@ -849,8 +852,8 @@ public class TutorialModeController extends GameModeController {
 
     // checks if next set point is in range for changing arm help
     private boolean inRange(Vector2 setpt, float allowance) {
-        Body lTarget = slothList.get(0).getLeftTarget();
-        Body rTarget = slothList.get(0).getRightTarget();
+        Obstacle lTarget = slothList.get(0).getLeftTarget();
+        Obstacle rTarget = slothList.get(0).getRightTarget();
         Body lHand = slothList.get(0).getLeftHand();
         Body rHand = slothList.get(0).getRightHand();
 
@@ -1113,6 +1116,17 @@ public class TutorialModeController extends GameModeController {
 		}
 	}
 
+	@Override
+	protected void updateCamera() {
+		float slothX = 0;
+		float slothY = 0;
+		for (int i = 0; i < slothList.size(); i++) {
+			slothX += slothList.get(i).getBody().getPosition().x;
+			slothY += slothList.get(i).getBody().getPosition().y;
+		}
+		chaseCamera(slothX / slothList.size(), slothY / slothList.size(), 0.18f);
+	}
+
 	public void draw(float delta){
 		canvas.clear();
 
@@ -1122,45 +1136,13 @@ public class TutorialModeController extends GameModeController {
 
 		InputController input =  InputControllerManager.getInstance().getController(0);
 
-		float slothX = slothList.stream().map(sloth->sloth.getBody().getPosition().x).reduce((x,y)->x+y).orElse(0f) / slothList.size();
-		float slothY = slothList.stream().map(sloth->sloth.getBody().getPosition().y).reduce((x,y)->x+y).orElse(0f) / slothList.size();
-
-		cameraVelocityX = cameraVelocityX * 0.4f + (slothX - cameraX) * 0.18f;
-		cameraVelocityY = cameraVelocityY * 0.4f + (slothY - cameraY) * 0.18f;
-		cameraX += cameraVelocityX;
-		cameraY +=  cameraVelocityY;
-
-		// Check for camera in bounds
-		// Y Checks
-		if (cameraY - bounds.height /2f < levelModel.getMinY()) {
-			cameraY = levelModel.getMinY() + bounds.height/2f ;
-		}
-
-		if (cameraY + bounds.height / 2f > levelModel.getMaxY()) {
-			cameraY = levelModel.getMaxY() - bounds.height/2f;
-		}
-
-		// X Checks
-		if (cameraX - bounds.width/2 < levelModel.getMinX()) {
-			cameraX = levelModel.getMinX() + bounds.width / 2f;
-		}
-
-		if (cameraX + bounds.width/2f > levelModel.getMaxX()) {
-			cameraX = levelModel.getMaxX() - bounds.width / 2f;
-		}
-
-		camTrans.setToTranslation(-1 * cameraX * worldScale.x
-				, -1 * cameraY * worldScale.y);
-
-		camTrans.translate(canvas.getWidth()/2,canvas.getHeight()/2);
-		canvas.getCampos().set( cameraX * worldScale.x
-				, cameraY * worldScale.y);
+		ViewBounds view = placeCamera();
 
-		canvas.begin(camTrans);
-		Collections.sort(entities);
+		canvas.beginDeferred(camTrans);
 
-		for(Entity obj : entities) {
-			obj.setDrawScale(worldScale);
+		DrawOrder order = getRenderOrder();
+		for (int i = 0; i < order.size(); i++) {
+			Entity obj = order.get(i);
 			// if stage 2, tint trunks if already grabbed
 			if(!(obj instanceof SlothModel)) {
 				if (currentStage == STAGE_GRAB && obj instanceof Trunk) {
@@ -1168,15 +1150,13 @@ public class TutorialModeController extends GameModeController {
 					int ind = trunkEntities.indexOf(obj);
 
 					for (Obstacle plank : trunk.getBodies()) {
-						if (plank.getBody().getUserData() instanceof Obstacle && ((Obstacle) plank.getBody().getUserData()).isGrabbed()) {
+						if (plank.isGrabbed()) {
 							trunkGrabbed.set(ind, true);
 						}
 					}
-				} else if ((currentStage != STAGE_EBB)) {
-//					if (! (obj instanceof BackgroundEntity))
-						obj.draw(canvas);
-				} else if (!(obj instanceof Trunk || obj instanceof Vine || obj instanceof OwlModel)) {
-					obj.draw(canvas);
+				} else if (obj.isInView(view) && (currentStage != STAGE_EBB ||
+						!(obj instanceof Trunk || obj instanceof Vine || obj instanceof OwlModel))) {
+					obj.draw(canvas, drawAlpha);
 				}
 			}
 		}
@@ -1248,30 +1228,30 @@ public class TutorialModeController extends GameModeController {
 			// trunk tinting done here
 			for (int i = 0; i < trunkEntities.size(); i++) {
 				if (trunkGrabbed.get(i)) {
-					(trunkEntities.get(i)).draw(canvas, Color.GRAY);
+					trunkEntities.get(i).draw(canvas, Color.GRAY, drawAlpha);
 				} else {
-					trunkEntities.get(i).draw(canvas);
+					trunkEntities.get(i).draw(canvas, drawAlpha);
 				}
 			}
 		} else {
 //			System.out.println("ebblvl: "+ebbLvl);
 			for (int i = 0; i < ebbTrunkNum[ebbLvl]; i++) {
-				trunkEntities.get(i).draw(canvas);
+				trunkEntities.get(i).draw(canvas, drawAlpha);
 			}
 			if (ebbLvl >= ebbVine1) {
-				vineEntities.get(0).draw(canvas);
+				vineEntities.get(0).draw(canvas, drawAlpha);
 			}
 			if (ebbLvl >= ebbVine2) {
-				vineEntities.get(1).draw(canvas);
-				vineEntities.get(2).draw(canvas);
+				vineEntities.get(1).draw(canvas, drawAlpha);
+				vineEntities.get(2).draw(canvas, drawAlpha);
 			}
 			if (ebbLvl > ebbVine2) {
-				owl.draw(canvas);
+				owl.draw(canvas, drawAlpha);
 			}
 		}
 
 		for(SlothModel s : slothList) {
-			s.draw(canvas);
+			s.draw(canvas, drawAlpha);
 		}
 
 		if (!playerIsReady && !paused && coverOpacity <= 0)
@@ -1282,6 +1262,8 @@ public class TutorialModeController extends GameModeController {
 //		drawHelpLines();
 
 		if (debug) {
+			// The overlay reads the live physics, so it must not run alongside it
+			awaitSimulation();
 			canvas.beginDebug(camTrans);
 			for(Entity obj : entities) {
 				if( obj instanceof Obstacle){
@@ -1291,7 +1273,9 @@ public class TutorialModeController extends GameModeController {
 			canvas.endDebug();
 			canvas.begin();
 			// text
-			canvas.drawTextStandard("FPS: " + 1f/delta, 10.0f, 100.0f);
+			fpsText.setLength(0);
+			fpsText.append("FPS: ").append(1f/delta);
+			canvas.drawTextStandard(fpsText, 10.0f, 100.0f);
 			canvas.end();
 			slothList.get(0).drawForces(canvas, camTrans);
 		}
@@ -1329,7 +1313,7 @@ public class TutorialModeController extends GameModeController {
 
 	private boolean checkGrabbedObst(ComplexObstacle vine) {
 		for(Obstacle plank : vine.getBodies()){
-			if (plank.getBody().getUserData() instanceof Obstacle && ((Obstacle) plank.getBody().getUserData()).isGrabbed()) {
+			if (plank.isGrabbed()) {
 				return true;
 			}
 		}
@@ -1,7 +1,7 @@
 package askew.playermode.leveleditor;
 
 import askew.MantisAssetManager;
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 
 import java.util.ArrayList;
 
@@ -10,6 +10,7 @@ public class EntityTree {
     private final ETNode root;
     ETNode current;
     boolean isBackground;
+    private boolean backgroundsAdded;
 
     public EntityTree() {
         root = new ETNode(null, "Entities", "texture/leveleditor/placeholder.png", false);
@@ -64,7 +65,17 @@ public class EntityTree {
     }
 
     public void setTextures(MantisAssetManager manager) {
-        String[] allPaths = manager.getTexturePaths();
+        if (!backgroundsAdded) {
+            addBackgrounds(manager.getTexturePaths());
+            backgroundsAdded = true;
+        }
+        setTextures(manager, root);
+        //System.out.println("Entity Tree Structure: ");
+        //System.out.println(this);
+
+    }
+
+    private void addBackgrounds(String[] allPaths) {
         //System.out.println("Background Entities:");
         for (String s : allPaths) {
             if (s.contains("/background/")) {
@@ -87,14 +98,10 @@ public class EntityTree {
                 }
             }
         }
-        setTextures(manager, root);
-        //System.out.println("Entity Tree Structure: ");
-        //System.out.println(this);
-
     }
 
     private void setTextures(MantisAssetManager manager, ETNode node) {
-        node.texture = manager.get(node.texturePath);
+        node.texture = manager.getRegion(node.texturePath);
         if (!node.isLeaf) {
             for (ETNode e : node.children) {
                 setTextures(manager, e);
@@ -112,7 +119,7 @@ public class EntityTree {
         final String texturePath;//maybe string
         final ETNode parent;
         final boolean isLeaf;
-        Texture texture = null;
+        TextureRegion texture = null;
         ArrayList<ETNode> children;
 
         public ETNode(ETNode parent, String name, String texturePath, boolean isLeaf) {
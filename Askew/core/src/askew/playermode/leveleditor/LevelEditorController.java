@@ -31,11 +31,13 @@ import askew.playermode.leveleditor.button.Button;
 import askew.playermode.leveleditor.button.ButtonList;
 import askew.playermode.leveleditor.button.MenuArrowButton;
 import askew.playermode.leveleditor.button.ToggleButton;
+import askew.util.FrameProfiler.Phase;
 import askew.util.RecordBook;
 import askew.util.json.JSONLoaderSaver;
 import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Affine2;
 import com.badlogic.gdx.math.Vector2;
@@ -117,9 +119,9 @@ public class LevelEditorController extends WorldController {
     private LevelModel levelModel;
     private Texture background;
     private Texture grey;
-    private Texture upFolder;
-    private Texture folder;
-    private Texture placeholder;
+    private TextureRegion upFolder;
+    private TextureRegion folder;
+    private TextureRegion placeholder;
     private Texture yellowbox;
     private transient CircleShape circleShape = new CircleShape();
     private boolean pressedL, prevPressedL;
@@ -174,11 +176,10 @@ public class LevelEditorController extends WorldController {
         super.loadContent(manager);
         background = manager.get("texture/background/background1.png");
         grey = manager.get("texture/leveleditor/grey.png");
-        upFolder = manager.get("texture/leveleditor/up.png");
-        folder = manager.get("texture/leveleditor/folder.png");
-        placeholder = manager.get("texture/leveleditor/placeholder.png");
+        upFolder = manager.getRegion("texture/leveleditor/up.png");
+        folder = manager.getRegion("texture/leveleditor/folder.png");
+        placeholder = manager.getRegion("texture/leveleditor/placeholder.png");
         yellowbox = manager.get("texture/leveleditor/yellowbox.png");
-        entityTree.setTextures(manager);
         buttons.setManager(manager);
         buttons.setTextures(manager);
         levelEditorAssetState = AssetState.COMPLETE;
@@ -216,6 +217,9 @@ public class LevelEditorController extends WorldController {
      */
     public void reset() {
         Gdx.input.setCursorCatched(false);
+        // Any level piece can be placed, so the editor needs all of them
+        mantisAssetManager.loadLevelTextures(mantisAssetManager.getLevelTexturePaths());
+        entityTree.setTextures(mantisAssetManager);
         Vector2 gravity = new Vector2(world.getGravity());
 
         for (Entity obj : entities) {
@@ -430,8 +434,8 @@ public class LevelEditorController extends WorldController {
                         case ("randomize"):
                             if (selected != null) {
                                 if (selected instanceof Vine) {
-                                    ((Vine) selected).setAngle((float) (Math.random() - .5) * 30);
-                                    ((Vine) selected).setOmega((float) (Math.random() - .5) * 200);
+                                    ((Vine) selected).setAngle(random.rollFloat(-15, 15));
+                                    ((Vine) selected).setOmega(random.rollFloat(-100, 100));
                                     ((Vine) selected).rebuild();
                                 }
                             }
@@ -1034,7 +1038,7 @@ public class LevelEditorController extends WorldController {
         float mousex = mouseX * worldScale.x;
         float mousey = mouseY * worldScale.y;
 
-        Texture tex;
+        TextureRegion tex;
         float x = 0;
         float y = 0;
         String name;
@@ -1074,7 +1078,7 @@ public class LevelEditorController extends WorldController {
             if (inBounds(mousex, mousey, x, y, sizex, sizey)) {
                 canvas.draw(yellowbox, Color.WHITE, 0, 0, x - 3f, y - 3f, 0, (sizex + 6f) / yellowbox.getWidth(), (sizey + 6f) / yellowbox.getHeight());
             }
-            canvas.draw(tex, Color.WHITE, 0, 0, x, y, 0, sizex / tex.getWidth(), sizey / tex.getHeight());
+            canvas.draw(tex, Color.WHITE, 0, 0, x, y, 0, sizex / tex.getRegionWidth(), sizey / tex.getRegionHeight());
             canvas.drawTextStandard(name, x, y - 5f);
 
         }
@@ -1175,7 +1179,10 @@ public class LevelEditorController extends WorldController {
         Vector2 pos = canvas.getCampos();
         pos.set(adjustedCxCamera * worldScale.x, adjustedCyCamera * worldScale.y);
         canvas.begin(camTrans);
+        profiler.start(Phase.SORT);
         Collections.sort(entities);
+        profiler.stop(Phase.SORT);
+        profiler.start(Phase.ENTITY_DRAW);
         int s = entities.size();
         for (int i = 0; i < s; i++) {
             if (i < entities.size()) {
@@ -1187,6 +1194,7 @@ public class LevelEditorController extends WorldController {
             }
         }
         canvas.end();
+        profiler.stop(Phase.ENTITY_DRAW);
 
 
         canvas.font.setColor(Color.GOLDENROD);
@@ -8,7 +8,6 @@ import askew.playermode.WorldController;
 import askew.playermode.gamemode.GameModeController;
 import askew.util.SoundController;
 import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.Texture;
@@ -152,7 +151,6 @@ public class MainMenuController extends WorldController {
 
     // player selected another mode
     public void preLoadContent(MantisAssetManager manager) {
-        manager.load(MENU_MUSIC, Sound.class);
         super.preLoadContent(manager);
     }
 
@@ -185,7 +183,6 @@ public class MainMenuController extends WorldController {
         param.shadowOffsetY = 1;
         regina2 = generator.generateFont(param);
         generator.dispose();
-        SoundController.getInstance().allocate(manager, MENU_MUSIC);
         this.manager = manager;
     }
 
@@ -250,7 +247,7 @@ public class MainMenuController extends WorldController {
         if (playingMusic) {
             if (instance.isActive("bgmusic")) instance.stop("bgmusic");
             if (!instance.isActive("menumusic"))
-                instance.play("menumusic", MENU_MUSIC, true, GameModeController.MAX_MUSIC_VOLUME);
+                instance.playMusic("menumusic", MENU_MUSIC, GameModeController.MAX_MUSIC_VOLUME);
         }
         manager.getMenuManager().setupMainMenu();
         mode = HOME_SCREEN;
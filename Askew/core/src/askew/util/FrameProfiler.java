@@ -0,0 +1,301 @@
+package askew.util;
+
+import askew.GameCanvas;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Times the phases of every frame and keeps percentiles of them.
+ * <p>
+ * Every world controller owns one.  The game loop brackets each phase with
+ * start() and stop(), and render() closes the frame with endFrame().  A phase
+ * that runs more than once in a frame (there is a physics step per fixed step)
+ * is summed over the frame.  Nothing is allocated once the profiler is built,
+ * so it can stay on all the time without disturbing what it measures.
+ * <p>
+ * It also counts the bytes the drawing of each frame allocates, where the JVM
+ * can count them, as headless runs (and so the allocation budget) never draw.
+ * <p>
+ * The overlay shows the median, 99th percentile and worst of the last WINDOW
+ * frames.  The whole session is kept in histograms, so that it can be dumped
+ * as CSV or JSON when the controller is disposed.
+ */
+public class FrameProfiler {
+
+    /**
+     * The parts of a frame that are measured
+     */
+    public enum Phase {
+        /** All of render(), steps and drawing together */
+        FRAME("frame", true),
+        PRE_UPDATE("preUpdate", true),
+        UPDATE("update", true),
+        PHYSICS("world.step", true),
+        ENTITY_UPDATE("entity update", true),
+        SORT("sort", true),
+        ENTITY_DRAW("entity draw", true),
+        PARTICLE_DRAW("particle draw", true),
+        /** The number of times the sprite batch was flushed to the graphics card */
+        RENDER_CALLS("GL flushes", false),
+        /** The bytes allocated by drawing the frame, if the JVM can count them */
+        DRAW_ALLOCATED("draw bytes", false);
+
+        private final String label;
+        private final boolean timed;
+
+        Phase(String label, boolean timed) {
+            this.label = label;
+            this.timed = timed;
+        }
+    }
+
+    /**
+     * The number of frames the overlay percentiles cover
+     */
+    private static final int WINDOW = 256;
+    /**
+     * The number of session histogram buckets; larger samples share the last one
+     */
+    private static final int BUCKETS = 1000;
+    /**
+     * The width of a histogram bucket for timed phases, 0.1 ms
+     */
+    private static final long NANOS_PER_BUCKET = 100_000;
+    /**
+     * The number of frames between updates of the overlay text
+     */
+    private static final int OVERLAY_PERIOD = 30;
+
+    private static final Phase[] PHASES = Phase.values();
+
+    /**
+     * What counts the bytes each thread allocates, or null if the JVM cannot
+     */
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = getAllocationCounter();
+
+    /**
+     * When each phase was last started
+     */
+    private final long[] starts = new long[PHASES.length];
+    /**
+     * The totals of each phase for the frame in progress
+     */
+    private final long[] current = new long[PHASES.length];
+    /**
+     * The totals of the last WINDOW frames, by phase
+     */
+    private final long[][] window = new long[PHASES.length][WINDOW];
+    /**
+     * The totals of every frame this session, bucketed, by phase
+     */
+    private final long[][] histogram = new long[PHASES.length][BUCKETS];
+    private final long[] sessionTotal = new long[PHASES.length];
+    private final long[] sessionMax = new long[PHASES.length];
+    /**
+     * Where the window is sorted to find its percentiles
+     */
+    private final long[] sorted = new long[WINDOW];
+    private final StringBuilder overlay = new StringBuilder();
+    /**
+     * The number of frames recorded this session
+     */
+    private long frames;
+
+    /**
+     * Marks the start of a phase.
+     *
+     * @param phase the phase that is starting
+     */
+    public void start(Phase phase) {
+        starts[phase.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Marks the end of a phase, adding its time to the frame.
+     *
+     * @param phase the phase that has ended
+     */
+    public void stop(Phase phase) {
+        current[phase.ordinal()] += System.nanoTime() - starts[phase.ordinal()];
+    }
+
+    /**
+     * Adds to a counted phase for this frame.
+     *
+     * @param phase the phase to count
+     * @param count the amount to add
+     */
+    public void count(Phase phase, long count) {
+        current[phase.ordinal()] += count;
+    }
+
+    /**
+     * Returns the number of bytes this thread has allocated so far, or 0 if the
+     * JVM cannot count them.  The difference of two calls is what was allocated
+     * in between.
+     *
+     * @return the bytes allocated by this thread
+     */
+    public long getAllocatedBytes() {
+        return ALLOCATIONS == null ? 0 : ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static com.sun.management.ThreadMXBean getAllocationCounter() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean counter = (com.sun.management.ThreadMXBean) threads;
+        if (!counter.isThreadAllocatedMemorySupported()) {
+            return null;
+        }
+        counter.setThreadAllocatedMemoryEnabled(true);
+        return counter;
+    }
+
+    /**
+     * Records the frame in progress and starts a new one.
+     */
+    public void endFrame() {
+        int slot = (int) (frames % WINDOW);
+        for (int i = 0; i < PHASES.length; i++) {
+            long value = current[i];
+            window[i][slot] = value;
+            long bucket = PHASES[i].timed ? value / NANOS_PER_BUCKET : value;
+            histogram[i][(int) Math.min(bucket, BUCKETS - 1)]++;
+            sessionTotal[i] += value;
+            sessionMax[i] = Math.max(sessionMax[i], value);
+            current[i] = 0;
+        }
+        frames++;
+        if (frames % OVERLAY_PERIOD == 0) {
+            updateOverlay();
+        }
+    }
+
+    /**
+     * Returns the number of frames recorded this session.
+     *
+     * @return the number of frames recorded
+     */
+    public long getFrames() {
+        return frames;
+    }
+
+    /**
+     * Draws the percentiles of recent frames.  The canvas must have an active begin().
+     *
+     * @param canvas the canvas to draw on
+     * @param x      the left edge of the text
+     * @param y      the top edge of the text
+     */
+    public void draw(GameCanvas canvas, float x, float y) {
+        canvas.drawTextStandard(overlay, x, y);
+    }
+
+    /**
+     * Works out the overlay text for the frames in the window.
+     */
+    private void updateOverlay() {
+        int n = (int) Math.min(frames, WINDOW);
+        overlay.setLength(0);
+        overlay.append("p50 / p99 / max, last ").append(n).append(" frames (us)");
+        for (int i = 0; i < PHASES.length; i++) {
+            if (sessionMax[i] == 0) {
+                // Phases this controller never runs
+                continue;
+            }
+            System.arraycopy(window[i], 0, sorted, 0, n);
+            Arrays.sort(sorted, 0, n);
+            long scale = PHASES[i].timed ? 1000 : 1;
+            overlay.append('\n').append(PHASES[i].label).append(": ")
+                    .append(sorted[(n - 1) / 2] / scale).append(" / ")
+                    .append(sorted[(int) ((n - 1) * 0.99f)] / scale).append(" / ")
+                    .append(sorted[n - 1] / scale);
+        }
+    }
+
+    /**
+     * Returns a percentile of a phase over the whole session.
+     * <p>
+     * This is the upper edge of the histogram bucket the percentile falls in, so
+     * timed phases are rounded up to the next 0.1 ms.
+     */
+    private long getSessionPercentile(int phase, float percentile) {
+        long rank = (long) Math.ceil(frames * percentile);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS - 1; bucket++) {
+            seen += histogram[phase][bucket];
+            if (seen >= rank) {
+                long value = PHASES[phase].timed ? (bucket + 1) * NANOS_PER_BUCKET : bucket;
+                return Math.min(value, sessionMax[phase]);
+            }
+        }
+        return sessionMax[phase];
+    }
+
+    /**
+     * Writes the session percentiles of every phase, as JSON if the file name
+     * ends in .json and as CSV otherwise.  Times are in milliseconds.
+     *
+     * @param file the file to write
+     */
+    public void dump(File file) {
+        try (Writer writer = new FileWriter(file)) {
+            if (file.getName().endsWith(".json")) {
+                writeJson(writer);
+            } else {
+                writeCsv(writer);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write the frame profile to " + file);
+            e.printStackTrace();
+        }
+    }
+
+    private void writeCsv(Writer writer) throws IOException {
+        writer.write("phase,unit,frames,mean,p50,p99,max\n");
+        for (int i = 0; i < PHASES.length; i++) {
+            writer.write(PHASES[i].label + "," + getUnit(i) + "," + frames + ","
+                    + toUnit(i, (double) sessionTotal[i] / Math.max(frames, 1)) + ","
+                    + toUnit(i, getSessionPercentile(i, 0.5f)) + ","
+                    + toUnit(i, getSessionPercentile(i, 0.99f)) + ","
+                    + toUnit(i, sessionMax[i]) + "\n");
+        }
+    }
+
+    private void writeJson(Writer writer) {
+        JsonObject profile = new JsonObject();
+        profile.addProperty("frames", frames);
+        JsonArray phases = new JsonArray();
+        for (int i = 0; i < PHASES.length; i++) {
+            JsonObject phase = new JsonObject();
+            phase.addProperty("phase", PHASES[i].label);
+            phase.addProperty("unit", getUnit(i));
+            phase.addProperty("mean", toUnit(i, (double) sessionTotal[i] / Math.max(frames, 1)));
+            phase.addProperty("p50", toUnit(i, getSessionPercentile(i, 0.5f)));
+            phase.addProperty("p99", toUnit(i, getSessionPercentile(i, 0.99f)));
+            phase.addProperty("max", toUnit(i, sessionMax[i]));
+            phases.add(phase);
+        }
+        profile.add("phases", phases);
+        new GsonBuilder().setPrettyPrinting().create().toJson(profile, writer);
+    }
+
+    private String getUnit(int phase) {
+        return PHASES[phase].timed ? "ms" : "count";
+    }
+
+    private double toUnit(int phase, double value) {
+        return PHASES[phase].timed ? value / 1e6 : value;
+    }
+}
@@ -0,0 +1,196 @@
+package askew.util;
+
+import askew.InputController;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the input of every step of a session to a file, so that it can be replayed.
+ * <p>
+ * A world records its input controllers once per fixed step, right after they
+ * are read, and then whether the step was simulated (a paused world reads
+ * input without stepping).  A controller that has not changed since the last
+ * step costs a byte, so an hour of play is a few hundred kilobytes.  Each time
+ * a level is started, its name is written ahead of the next step.
+ * <p>
+ * The file starts with the seed of the world's random numbers, which the
+ * replay starts from again so that it rolls the same numbers.  See InputReplay
+ * for the format.
+ */
+public class InputRecorder {
+
+    /**
+     * The first bytes of a recording ("AIR1")
+     */
+    static final int MAGIC = 0x41495231;
+    /**
+     * What each record in the file is
+     */
+    static final int RECORD_STEP = 0;
+    static final int RECORD_LEVEL = 1;
+    /**
+     * Which parts of a controller have changed since the last step
+     */
+    static final int CHANGED_BUTTONS = 1;
+    static final int CHANGED_STICKS = 2;
+    static final int CHANGED_CROSSHAIR = 4;
+    /**
+     * Per controller: four stick axes and the crosshair
+     */
+    static final int AXES = 6;
+
+    /**
+     * Where the recording is going, or null once it has failed or been closed
+     */
+    private DataOutputStream out;
+    private final File file;
+    /**
+     * What each controller was at the last step
+     */
+    private final long[] lastButtons;
+    private final float[] lastAxes;
+    private final float[] axes = new float[AXES];
+    /**
+     * The level started since the last step, if any
+     */
+    private String pendingLevel;
+    /**
+     * The number of steps recorded
+     */
+    private int steps;
+
+    /**
+     * Starts a recording of the given number of controllers.
+     *
+     * @param file        the file to record to
+     * @param controllers the number of input controllers recorded each step
+     * @param seed        the seed of the recorded world (WorldController.getSeed())
+     * @throws IOException if the file cannot be written
+     */
+    public InputRecorder(File file, int controllers, long seed) throws IOException {
+        this.file = file;
+        lastButtons = new long[controllers];
+        lastAxes = new float[controllers * AXES];
+        out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        out.writeInt(MAGIC);
+        out.writeLong(seed);
+        out.writeByte(controllers);
+    }
+
+    /**
+     * Notes that a level was started, to be written ahead of the next step.
+     *
+     * @param level the name of the level
+     */
+    public void startLevel(String level) {
+        pendingLevel = level;
+    }
+
+    /**
+     * Records the input the controllers have read for this step.
+     *
+     * @param controllers the input controllers, which must be as many as the recording was started with
+     */
+    public void record(List<InputController> controllers) {
+        if (out == null) {
+            return;
+        }
+        try {
+            if (pendingLevel != null) {
+                out.writeByte(RECORD_LEVEL);
+                out.writeUTF(pendingLevel);
+                pendingLevel = null;
+            }
+
+            out.writeByte(RECORD_STEP);
+            for (int i = 0; i < lastButtons.length; i++) {
+                InputController input = controllers.get(i);
+                long buttons = input.getButtonState();
+                axes[0] = input.getLeftHorizontal();
+                axes[1] = input.getLeftVertical();
+                axes[2] = input.getRightHorizontal();
+                axes[3] = input.getRightVertical();
+                axes[4] = input.getCrossHair().x;
+                axes[5] = input.getCrossHair().y;
+
+                int changed = 0;
+                if (buttons != lastButtons[i]) {
+                    changed |= CHANGED_BUTTONS;
+                }
+                for (int j = 0; j < AXES; j++) {
+                    if (axes[j] != lastAxes[i * AXES + j]) {
+                        changed |= (j < 4 ? CHANGED_STICKS : CHANGED_CROSSHAIR);
+                    }
+                }
+
+                out.writeByte(changed);
+                if ((changed & CHANGED_BUTTONS) != 0) {
+                    out.writeLong(buttons);
+                }
+                if ((changed & CHANGED_STICKS) != 0) {
+                    for (int j = 0; j < 4; j++) {
+                        out.writeFloat(axes[j]);
+                    }
+                }
+                if ((changed & CHANGED_CROSSHAIR) != 0) {
+                    out.writeFloat(axes[4]);
+                    out.writeFloat(axes[5]);
+                }
+                lastButtons[i] = buttons;
+                System.arraycopy(axes, 0, lastAxes, i * AXES, AXES);
+            }
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Records whether the step whose input was just recorded was simulated.
+     *
+     * @param simulated whether the world went on to step its physics
+     */
+    public void endStep(boolean simulated) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.writeBoolean(simulated);
+            steps++;
+        } catch (IOException e) {
+            fail(e);
+        }
+    }
+
+    /**
+     * Finishes the recording.
+     */
+    public void close() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+            System.out.println("Recorded " + steps + " steps of input to " + file);
+        } catch (IOException e) {
+            System.err.println("Could not finish the input recording " + file);
+            e.printStackTrace();
+        }
+        out = null;
+    }
+
+    private void fail(IOException e) {
+        System.err.println("Could not write the input recording " + file + "; it stops here");
+        e.printStackTrace();
+        try {
+            out.close();
+        } catch (IOException ignored) {
+            // Already reported
+        }
+        out = null;
+    }
+}
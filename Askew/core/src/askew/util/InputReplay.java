@@ -0,0 +1,164 @@
+package askew.util;
+
+import askew.InputController;
+import lombok.Getter;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Reads back a recording made by InputRecorder, a record at a time.
+ * <p>
+ * The file is the magic number, the seed and the number of controllers,
+ * followed by records until the end of the file.  A level record is the byte 1
+ * and the name of the level.  A step record is the byte 0, then for each
+ * controller a byte of what changed and the parts that did (the buttons as a
+ * long, four stick floats, two crosshair floats), then whether the step was
+ * simulated.
+ * <p>
+ * Each step is given to the controllers in place of their devices, one per
+ * fixed step, so that the world sees exactly the input it saw when recorded.
+ */
+public class InputReplay {
+
+    /**
+     * What next() found
+     */
+    public static final int END = -1;
+    public static final int STEP = InputRecorder.RECORD_STEP;
+    public static final int LEVEL = InputRecorder.RECORD_LEVEL;
+
+    private DataInputStream in;
+    private final File file;
+    /**
+     * The seed of the world's random numbers when this was recorded
+     */
+    @Getter
+    private final long seed;
+    /**
+     * The number of controllers in each step
+     */
+    @Getter
+    private final int controllers;
+    /**
+     * The level of the last level record
+     */
+    @Getter
+    private String level;
+    /**
+     * Whether the world was simulated at the last step record
+     */
+    @Getter
+    private boolean simulated;
+    /**
+     * The number of step records read
+     */
+    @Getter
+    private int steps;
+    /**
+     * What each controller was at the last step
+     */
+    private final long[] buttons;
+    private final float[] axes;
+
+    /**
+     * Opens a recording to replay.
+     *
+     * @param file the recording
+     * @throws IOException if the file cannot be read or is not a recording
+     */
+    public InputReplay(File file) throws IOException {
+        this.file = file;
+        in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        if (in.readInt() != InputRecorder.MAGIC) {
+            in.close();
+            throw new IOException(file + " is not an input recording");
+        }
+        seed = in.readLong();
+        controllers = in.readUnsignedByte();
+        buttons = new long[controllers];
+        axes = new float[controllers * InputRecorder.AXES];
+    }
+
+    /**
+     * Reads the next record.
+     * <p>
+     * If it is a step, its input is given to the controllers.  Controllers that
+     * the recording has no input for are left alone, and recorded controllers
+     * beyond the list are skipped.
+     *
+     * @param inputs the controllers to give the input of a step to
+     * @return STEP, LEVEL or END
+     */
+    public int next(List<InputController> inputs) {
+        if (in == null) {
+            return END;
+        }
+        try {
+            int record = in.read();
+            if (record == LEVEL) {
+                level = in.readUTF();
+                return LEVEL;
+            } else if (record != STEP) {
+                if (record != END) {
+                    System.err.println(file + " has a record of unknown kind " + record + "; the replay stops here");
+                }
+                close();
+                return END;
+            }
+
+            for (int i = 0; i < controllers; i++) {
+                int changed = in.readUnsignedByte();
+                int base = i * InputRecorder.AXES;
+                if ((changed & InputRecorder.CHANGED_BUTTONS) != 0) {
+                    buttons[i] = in.readLong();
+                }
+                if ((changed & InputRecorder.CHANGED_STICKS) != 0) {
+                    for (int j = 0; j < 4; j++) {
+                        axes[base + j] = in.readFloat();
+                    }
+                }
+                if ((changed & InputRecorder.CHANGED_CROSSHAIR) != 0) {
+                    axes[base + 4] = in.readFloat();
+                    axes[base + 5] = in.readFloat();
+                }
+                if (i < inputs.size()) {
+                    inputs.get(i).replayInput(buttons[i], axes[base], axes[base + 1], axes[base + 2],
+                            axes[base + 3], axes[base + 4], axes[base + 5]);
+                }
+            }
+            simulated = in.readBoolean();
+            steps++;
+            return STEP;
+        } catch (EOFException e) {
+            // A recording cut off mid-step (the game was killed) ends at the last whole step
+            close();
+            return END;
+        } catch (IOException e) {
+            System.err.println("Could not read the input recording " + file + "; the replay stops here");
+            e.printStackTrace();
+            close();
+            return END;
+        }
+    }
+
+    /**
+     * Stops reading the recording.
+     */
+    public void close() {
+        if (in == null) {
+            return;
+        }
+        try {
+            in.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        in = null;
+    }
+}
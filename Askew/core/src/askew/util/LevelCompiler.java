@@ -0,0 +1,34 @@
+package askew.util;
+
+import askew.util.json.JSONLoaderSaver;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Compiles the level JSON into compiled level files.  Must be run from the assets directory.
+ * <p>
+ * The game reads a level's compiled file instead of its JSON whenever the compiled
+ * file is the newer of the two.  The desktop launcher compiles any level that has
+ * changed since the last run, and the level editor compiles a level when it saves it.
+ */
+public class LevelCompiler {
+
+    private static final String LEVEL_DIRECTORY = "levels";
+
+    public static void main(String[] args) throws Exception {
+        int count = compileLevels(true);
+        System.out.println("Compiled " + count + " levels");
+    }
+
+    /**
+     * Compiles the levels that have changed since they were last compiled.
+     *
+     * @param force whether to compile every level, changed or not
+     * @return the number of levels compiled
+     * @throws IOException if a level cannot be read or written
+     */
+    public static int compileLevels(boolean force) throws IOException {
+        return new JSONLoaderSaver(false).compileLevels(new File(LEVEL_DIRECTORY), force);
+    }
+}
@@ -1,8 +1,54 @@
 package askew.util;
 
+import askew.MantisAssetManager;
+import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.tools.texturepacker.TexturePacker;
 
-class MyPacker {
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Packs textures into atlases.  Must be run from the assets directory.
+ * <p>
+ * The animated frames are packed by hand into texture/packed/packed.atlas.  The
+ * static textures in the manifest are packed into texture/packed/static.atlas,
+ * which the desktop launcher rebuilds whenever it is older than its textures.
+ */
+public class MyPacker {
+
+    private static final String TEXTURE_MANIFEST = "texture_manifest.txt";
+
+    /**
+     * The directories whose textures are packed.  Walls are left out because they
+     * repeat, which a region of a larger page cannot do.
+     */
+    private static final String[] STATIC_DIRECTORIES = {
+            "texture/background/BackgroundStuff/",
+            "texture/background/foreground/",
+            "texture/background/topvine/",
+            "texture/branch/",
+            "texture/eye/",
+            "texture/particle/",
+            "texture/sloth/",
+            "texture/thorn/",
+            "texture/vine/",
+    };
+
+    /**
+     * Textures bigger than this on either side stay standalone, as they would
+     * mostly fill a page on their own.
+     */
+    private static final int MAX_PACKED_SIZE = 1024;
+    private static final int PAGE_SIZE = 2048;
+
     public static void main(String[] args) throws Exception {
         System.out.println("inputDir");
         String inputDir = "texture/animated";
@@ -11,5 +57,86 @@ class MyPacker {
         System.out.println("packFileName");
         String packFileName = "packed";
         TexturePacker.process(inputDir, outputDir, packFileName);
+
+        packStaticTextures(true);
+    }
+
+    /**
+     * Packs the static textures of the manifest into the static atlas.
+     *
+     * @param force whether to pack even if the atlas is newer than every texture
+     * @return true if the atlas was packed
+     * @throws IOException if the manifest or a texture cannot be read
+     */
+    public static boolean packStaticTextures(boolean force) throws IOException {
+        File root = new File(".").getCanonicalFile();
+        File manifest = new File(root, TEXTURE_MANIFEST);
+        File atlas = new File(root, MantisAssetManager.STATIC_ATLAS);
+
+        List<File> textures = new ArrayList<>();
+        long newest = manifest.lastModified();
+        for (String path : Files.readAllLines(manifest.toPath(), StandardCharsets.UTF_8)) {
+            if (!isStatic(path)) {
+                continue;
+            }
+            File texture = new File(root, path);
+            if (fits(texture)) {
+                textures.add(texture);
+                newest = Math.max(newest, texture.lastModified());
+            }
+        }
+        if (!force && atlas.lastModified() >= newest) {
+            return false;
+        }
+
+        TexturePacker.Settings settings = new TexturePacker.Settings();
+        settings.maxWidth = PAGE_SIZE;
+        settings.maxHeight = PAGE_SIZE;
+        settings.paddingX = 2;
+        settings.paddingY = 2;
+        settings.duplicatePadding = true;
+        settings.filterMin = Texture.TextureFilter.Linear;
+        settings.filterMag = Texture.TextureFilter.Linear;
+        // Region names are the texture paths, so frame numbers must stay in them
+        settings.useIndexes = false;
+        settings.silent = true;
+
+        TexturePacker packer = new TexturePacker(root, settings);
+        for (File texture : textures) {
+            packer.addImage(texture);
+        }
+        packer.pack(atlas.getParentFile(), atlas.getName());
+        return true;
+    }
+
+    private static boolean isStatic(String path) {
+        for (String directory : STATIC_DIRECTORIES) {
+            if (path.startsWith(directory) && path.indexOf('/', directory.length()) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads just the header of an image to see whether it is small enough to pack.
+     */
+    private static boolean fits(File texture) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(texture)) {
+            if (input == null) {
+                return false;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input);
+                return reader.getWidth(0) <= MAX_PACKED_SIZE && reader.getHeight(0) <= MAX_PACKED_SIZE;
+            } finally {
+                reader.dispose();
+            }
+        }
     }
-}
\ No newline at end of file
+}
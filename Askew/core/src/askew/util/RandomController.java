@@ -1,13 +1,13 @@
 /*
  * RandomController.java
  *
- * Static controller class for producing random numbers.
+ * Controller class for producing random numbers.
  *
- * Just about every part of the game needs random numbers.  If we were to
- * make this in instance class, we would have references littered throughout
- * our code.  Forunately, we usually only need one random number generator,
- * so it can be a singleton.  Once again, we have implemented the
- * singleton as a static class.
+ * Just about every part of the game needs random numbers.  Math.random() is
+ * one generator for the whole program, behind a lock, and cannot be started
+ * over, so nothing that uses it can be played back.  Instead every world owns
+ * a generator of its own, which is started from a known seed each time the
+ * level is, and hands the same numbers out in the same order every time.
  *
  * Author: Walker M. White
  * Based on original PhysicsDemo Lab by Don Holden, 2007
@@ -15,16 +15,73 @@
  */
 package askew.util;
 
-import java.util.Random;
-
 /**
- * Static class for producing random numbers.
+ * A fast, seedable generator of random numbers.
+ * <p>
+ * This is the SplitMix64 generator (as in java.util.SplittableRandom): a
+ * counter stepped by a large odd constant and scrambled.  It is not
+ * synchronized, so a generator must only be used by one thread at a time;
+ * give each user that runs on a thread of its own a generator of its own.
  */
-class RandomController {
+public class RandomController {
+    /**
+     * What the counter is stepped by; the odd number nearest 2^64 over the golden ratio
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
     /**
-     * Pseudo-random number generator
+     * The counter
+     */
+    private long state;
+
+    /**
+     * Creates a generator started from the given seed.
+     *
+     * @param seed the seed
      */
-    private static final Random generator = new Random(0); // Make it deterministic
+    public RandomController(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Starts the generator over from the given seed.
+     *
+     * @param seed the seed
+     */
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    /**
+     * Returns a random long, any of them equally likely.
+     *
+     * @return a random long
+     */
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a random float between 0 (inclusive) and 1 (exclusive).
+     *
+     * @return a random float between 0 and 1
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Returns a random int between 0 (inclusive) and bound (exclusive).
+     *
+     * @param bound the bound, which must be positive
+     * @return a random int between 0 and bound
+     */
+    public int nextInt(int bound) {
+        return (int) (((nextLong() >>> 32) * bound) >>> 32);
+    }
 
     /**
      * Returns a random int between min and max (inclusive).
@@ -33,8 +90,8 @@ class RandomController {
      * @param max Maximum value in random range
      * @return a random int between min and max (inclusive).
      */
-    public static int rollInt(int min, int max) {
-        return generator.nextInt(max - min + 1) + min;
+    public int rollInt(int min, int max) {
+        return nextInt(max - min + 1) + min;
     }
 
     /**
@@ -44,7 +101,7 @@ class RandomController {
      * @param max Maximum value in random range
      * @return a random float between min and max (inclusive).
      */
-    public static float rollFloat(float min, float max) {
-        return generator.nextFloat() * (max - min) + min;
+    public float rollFloat(float min, float max) {
+        return nextFloat() * (max - min) + min;
     }
 }
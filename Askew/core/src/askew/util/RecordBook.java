@@ -12,14 +12,14 @@ import com.google.gson.JsonPrimitive;
 public class RecordBook {
 
     private static final String TIMES_PATH = "levels/records.json";
-    private static RecordBook instance;
+    private static volatile RecordBook instance;
     private final JsonPrimitive DEFAULT_COMPLETION_TIME = new JsonPrimitive(9999999.0f);
     private final JsonPrimitive DEFAULT_NUM_GRABS = new JsonPrimitive(9999999);
 
-    private JsonObject dataBlob;
+    private final JsonObject dataBlob;
 
-    private RecordBook() {
-        dataBlob = new JsonObject();
+    private RecordBook(JsonObject dataBlob) {
+        this.dataBlob = dataBlob;
     }
 
     public static RecordBook getInstance() {
@@ -32,8 +32,7 @@ public class RecordBook {
     /* Creates a new instance populated with the current values of the records.json. */
     private static void update() {
         JsonObject newBlob = JSONLoaderSaver.loadArbitrary(TIMES_PATH).orElseThrow(RuntimeException::new);
-        instance = new RecordBook();
-        instance.dataBlob = newBlob;
+        instance = new RecordBook(newBlob);
     }
 
     public void addLevel(String lvlname) {
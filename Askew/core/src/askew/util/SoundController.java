@@ -18,9 +18,12 @@
  */
 package askew.util;
 
+import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.audio.Sound;
 import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.badlogic.gdx.utils.IdentityMap;
 
 /**
@@ -49,6 +52,12 @@ import com.badlogic.gdx.utils.IdentityMap;
  * Finally, for (3), we never actually stop a Sound.  Instead we turn its
  * volume to 0 and allow it to be garbage collected when done.  This is why
  * we never allow you to access a sound object directly.
+ * <p>
+ * Background music is different.  A Sound is decoded in full when it is
+ * loaded, which for a few minutes of music is tens of megabytes.  So music
+ * is played on streamed channels instead (see playMusic), which read the
+ * track from disk as it plays.  Channels share their keys with sounds, so
+ * stop, isActive and setVolume work the same for either.
  */
 @SuppressWarnings({"FieldCanBeLocal", "SameParameterValue"})
 public class SoundController {
@@ -82,6 +91,10 @@ public class SoundController {
      */
     private final Array<String> collection;
     private final IdentityMap<String, Sound> customVolumes;
+    /**
+     * The streamed music playing on each channel
+     */
+    private final IdentityMap<String, MusicChannel> channels;
     /**
      * The number of animation frames before a key can be reused
      */
@@ -106,6 +119,7 @@ public class SoundController {
         actives = new IdentityMap<>();
         collection = new Array<>();
         customVolumes = new IdentityMap<>();
+        channels = new IdentityMap<>();
         cooldown = DEFAULT_COOL;
         timeLimit = DEFAULT_LIMIT;
         frameLimit = DEFAULT_FRAME;
@@ -306,17 +320,62 @@ public class SoundController {
         return true;
     }
 
+    /**
+     * Streams a track on the given music channel, looping it.
+     * <p>
+     * The track is opened when it starts and closed when it stops, so only the
+     * tracks that are playing are ever in memory.  A channel plays one track at
+     * a time, and starting a new one closes the old one.  If the channel is
+     * already playing this track, it keeps playing and only its volume changes.
+     *
+     * @param key      The music channel, such as "bgmusic"
+     * @param filename The filename of the track
+     * @param volume   The music volume in the range [0,1]
+     * @return True if the track is playing
+     */
+    @SuppressWarnings("UnusedReturnValue")
+    public boolean playMusic(String key, String filename, float volume) {
+        MusicChannel channel = channels.get(key);
+        if (channel != null) {
+            if (channel.filename.equals(filename)) {
+                channel.music.setVolume(volume);
+                return true;
+            }
+            stop(key);
+        }
+
+        Music music;
+        try {
+            music = Gdx.audio.newMusic(Gdx.files.internal(filename));
+        } catch (GdxRuntimeException e) {
+            System.err.println("Could not stream " + filename + ": " + e.getMessage());
+            return false;
+        }
+        music.setLooping(true);
+        music.setVolume(volume);
+        music.play();
+        channels.put(key, new MusicChannel(filename, music));
+        return true;
+    }
+
     /**
      * Stops the sound, allowing its key to be reused.
      * <p>
      * This is the only way to stop a sound on a loop.  Otherwise it will
-     * play forever.
+     * play forever.  Stopping a music channel also closes its track.
      * <p>
      * If there is no sound instance for the key, this method does nothing.
      *
      * @param key The sound instance to stop.
      */
     public void stop(String key) {
+        MusicChannel channel = channels.remove(key);
+        if (channel != null) {
+            channel.music.stop();
+            channel.music.dispose();
+            return;
+        }
+
         // Get the active sound for the key
         if (!actives.containsKey(key)) {
             return;
@@ -338,15 +397,29 @@ public class SoundController {
      * @return true if the sound instance is currently active
      */
     public boolean isActive(String key) {
-        return actives.containsKey(key);
+        return actives.containsKey(key) || channels.containsKey(key);
     }
 
     public void setVolume(String key, float volume) {
+        MusicChannel channel = channels.get(key);
+        if (channel != null) {
+            channel.music.setVolume(volume);
+            return;
+        }
         ActiveSound activeSound = actives.get(key);
         if (activeSound == null) return;
         activeSound.sound.setVolume(activeSound.id, volume);
     }
 
+    /**
+     * Sets the pitch of a sound instance.
+     * <p>
+     * Streamed music has no pitch control in LibGDX, so this does nothing for
+     * a music channel.  Loops that need their pitch changed should be sounds.
+     *
+     * @param key   The sound instance identifier
+     * @param pitch The pitch multiplier
+     */
     public void setPitch(String key, float pitch) {
         ActiveSound activeSound = actives.get(key);
         if (activeSound == null) return;
@@ -419,4 +492,29 @@ public class SoundController {
         }
     }
 
+    /**
+     * Inner class for the track streaming on a music channel
+     */
+    private class MusicChannel {
+        /**
+         * The filename of the track
+         */
+        public final String filename;
+        /**
+         * The stream playing the track
+         */
+        public final Music music;
+
+        /**
+         * Creates a new music channel playing the given track
+         *
+         * @param f The filename of the track
+         * @param m The stream playing the track
+         */
+        public MusicChannel(String f, Music m) {
+            filename = f;
+            music = m;
+        }
+    }
+
 }
@@ -0,0 +1,65 @@
+package askew.util;
+
+/**
+ * The part of the world the camera can see, for skipping what is off screen.
+ * <p>
+ * The view is kept in world coordinates, in the plane of play.  Anything at a
+ * parallax depth is drawn at the camera plus its offset from the camera divided
+ * by its depth (see GameCanvas.drawBackgroundEntity), so it is moved the same
+ * way before it is tested.  Everything is tested as a circle, which covers any
+ * rotation; the tests only have to be conservative.
+ */
+public class ViewBounds {
+
+    private float centerX;
+    private float centerY;
+    private float halfWidth;
+    private float halfHeight;
+
+    /**
+     * Sets the area the camera can see.
+     *
+     * @param centerX the x-coordinate of the camera, in world coordinates
+     * @param centerY the y-coordinate of the camera, in world coordinates
+     * @param width   the width of the screen, in world coordinates
+     * @param height  the height of the screen, in world coordinates
+     */
+    public void set(float centerX, float centerY, float width, float height) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.halfWidth = width / 2;
+        this.halfHeight = height / 2;
+    }
+
+    /**
+     * Returns whether a circle in the plane of play can be seen.
+     *
+     * @param x      the x-coordinate of the centre of the circle
+     * @param y      the y-coordinate of the centre of the circle
+     * @param radius the radius of the circle
+     * @return whether any of the circle can be seen
+     */
+    public boolean overlaps(float x, float y, float radius) {
+        return Math.abs(x - centerX) <= halfWidth + radius && Math.abs(y - centerY) <= halfHeight + radius;
+    }
+
+    /**
+     * Returns whether a circle at a parallax depth can be seen.
+     * <p>
+     * Only the position moves with depth; things are drawn at the same size
+     * whatever their depth.
+     *
+     * @param x      the x-coordinate of the centre of the circle, before parallax
+     * @param y      the y-coordinate of the centre of the circle, before parallax
+     * @param depth  the parallax depth, where 1 is the plane of play
+     * @param radius the radius of the circle
+     * @return whether any of the circle can be seen
+     */
+    public boolean overlaps(float x, float y, float depth, float radius) {
+        if (depth <= 0) {
+            // Not a depth that draws sensibly; leave it to the canvas
+            return true;
+        }
+        return overlaps(centerX + (x - centerX) / depth, centerY + (y - centerY) / depth, radius);
+    }
+}
@@ -0,0 +1,201 @@
+package askew.util.json;
+
+import askew.MantisAssetManager;
+import askew.entity.Entity;
+import askew.entity.EntityRecord;
+import askew.playermode.leveleditor.LevelModel;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.io.*;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A level that has been read, migrated and reduced to the records its entities
+ * are built from.
+ * <p>
+ * A compiled level can build the level again and again without touching the
+ * disk or JSON, which is what lets a restart skip both.  It can also be written
+ * to a compact binary file next to the level's JSON, so the game does not have
+ * to parse the JSON at all.  Compiled files are always at the latest level
+ * model version; one written by an older version of the game is ignored.
+ */
+public class CompiledLevel {
+
+    /**
+     * The extension of compiled level files, which sit next to the JSON
+     */
+    public static final String EXTENSION = ".level";
+
+    /**
+     * Marks a compiled level file ("ASKL")
+     */
+    private static final int MAGIC = 0x41534b4c;
+    /**
+     * The layout of compiled files.  Bump this when the layout or EntityRecord changes.
+     */
+    private static final int FORMAT_VERSION = 1;
+
+    private final LevelModel header;
+    private final EntityRecord[] entities;
+
+    private CompiledLevel(LevelModel header, EntityRecord[] entities) {
+        this.header = header;
+        this.entities = entities;
+    }
+
+    /**
+     * Compiles a level from its json, which must be at the latest level model version.
+     *
+     * @param header   the level read without its entities
+     * @param rawLevel the level's json
+     * @return the compiled level, or null if it has an entity that cannot be recorded
+     */
+    static CompiledLevel compile(LevelModel header, JsonObject rawLevel) {
+        int count = rawLevel.getAsJsonArray("entities").size();
+        EntityRecord[] entities = new EntityRecord[count];
+        int i = 0;
+        for (JsonElement element : rawLevel.getAsJsonArray("entities")) {
+            JsonObject wrapped = element.getAsJsonObject();
+            entities[i] = EntityRecord.fromJson(wrapped.get("CLASSNAME").getAsString(),
+                    wrapped.getAsJsonObject("INSTANCE"));
+            if (entities[i] == null) {
+                return null;
+            }
+            i++;
+        }
+        return new CompiledLevel(header, entities);
+    }
+
+    /**
+     * Builds a fresh copy of the level.
+     *
+     * @param manager the asset manager to texture the entities with, or null
+     * @return the level
+     */
+    public LevelModel build(MantisAssetManager manager) {
+        LevelModel level = new LevelModel();
+        level.setLevelModelVersion(header.getLevelModelVersion());
+        level.setGoalTimeGold(header.getGoalTimeGold());
+        level.setGoalTimeSilver(header.getGoalTimeSilver());
+        level.setGoalTimeBronze(header.getGoalTimeBronze());
+        level.setRecordTime(header.getRecordTime());
+        level.setMaxX(header.getMaxX());
+        level.setMaxY(header.getMaxY());
+        level.setMinX(header.getMinX());
+        level.setMinY(header.getMinY());
+        level.setTitle(header.getTitle());
+        level.setBackground(header.getBackground());
+        level.setSoundtrack(header.getSoundtrack());
+        for (EntityRecord entity : entities) {
+            level.addEntity(entity.build(manager));
+        }
+        return level;
+    }
+
+    /**
+     * Builds a fresh copy of one of the level's entities.
+     *
+     * @param index   the index of the entity in the level
+     * @param manager the asset manager to texture the entity with, or null
+     * @return the entity
+     */
+    public Entity buildEntity(int index, MantisAssetManager manager) {
+        return entities[index].build(manager);
+    }
+
+    /**
+     * Returns the level background and the texture of every entity placed with one.
+     *
+     * @return the texture paths named by the level
+     */
+    public Set<String> getTexturePaths() {
+        Set<String> paths = new HashSet<>();
+        if (header.getBackground() != null) {
+            paths.add(header.getBackground());
+        }
+        for (EntityRecord entity : entities) {
+            if (entity.getTexturePath() != null) {
+                paths.add(entity.getTexturePath());
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Writes the level as a compiled level file.
+     *
+     * @param stream where to write the level
+     * @throws IOException if the level cannot be written
+     */
+    public void write(OutputStream stream) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(MAGIC);
+        out.writeShort(FORMAT_VERSION);
+        out.writeShort(header.getLevelModelVersion());
+        out.writeInt(header.getGoalTimeGold());
+        out.writeInt(header.getGoalTimeSilver());
+        out.writeInt(header.getGoalTimeBronze());
+        out.writeFloat(header.getRecordTime());
+        out.writeFloat(header.getMaxX());
+        out.writeFloat(header.getMaxY());
+        out.writeFloat(header.getMinX());
+        out.writeFloat(header.getMinY());
+        writeString(out, header.getTitle());
+        writeString(out, header.getBackground());
+        writeString(out, header.getSoundtrack());
+        out.writeInt(entities.length);
+        for (EntityRecord entity : entities) {
+            entity.write(out);
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a compiled level file.
+     *
+     * @param stream the compiled level file
+     * @return the level, or null if the file is from an older format or level version
+     * @throws IOException if the file cannot be read or is not a compiled level
+     */
+    public static CompiledLevel read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a compiled level");
+        }
+        if (in.readUnsignedShort() != FORMAT_VERSION
+                || in.readUnsignedShort() != LevelModel.LATEST_LEVEL_MODEL_VERSION) {
+            return null;
+        }
+
+        LevelModel header = new LevelModel();
+        header.setGoalTimeGold(in.readInt());
+        header.setGoalTimeSilver(in.readInt());
+        header.setGoalTimeBronze(in.readInt());
+        header.setRecordTime(in.readFloat());
+        header.setMaxX(in.readFloat());
+        header.setMaxY(in.readFloat());
+        header.setMinX(in.readFloat());
+        header.setMinY(in.readFloat());
+        header.setTitle(readString(in));
+        header.setBackground(readString(in));
+        header.setSoundtrack(readString(in));
+        EntityRecord[] entities = new EntityRecord[in.readInt()];
+        for (int i = 0; i < entities.length; i++) {
+            entities[i] = EntityRecord.read(in);
+        }
+        return new CompiledLevel(header, entities);
+    }
+
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) {
+            out.writeUTF(s);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
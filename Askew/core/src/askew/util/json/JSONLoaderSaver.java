@@ -9,16 +9,28 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.files.FileHandle;
 import com.google.gson.*;
 
-import java.io.FileWriter;
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @SuppressWarnings("SameParameterValue")
 public class JSONLoaderSaver {
 
+    /**
+     * Every level that has been loaded, by name.  This is shared by all loaders, so
+     * a level is only read from disk the first time any controller loads it.
+     */
+    private static final Map<String, CompiledLevel> compiledLevels = new ConcurrentHashMap<>();
+
     private Gson gson;
     private EntityWrapper wrapper;
     private JsonParser jsonParser;
+    private MantisAssetManager manager;
 
     public JSONLoaderSaver(boolean record) {
         if (!record) {
@@ -62,35 +74,241 @@ public class JSONLoaderSaver {
         }
     }
 
+    /**
+     * Loads a level, building fresh entities for it.
+     * <p>
+     * The first load of a level reads its compiled file if that is up to date, or
+     * its JSON otherwise.  Either way the level is kept compiled in memory, so
+     * loading it again (as every restart does) touches neither disk nor JSON.
+     *
+     * @param levelName the level to load
+     * @return the level, or null if it is missing
+     */
     public LevelModel loadLevel(String levelName) {
-        FileHandle fileHandle = Gdx.files.internal("levels/" + levelName + ".json");
-        if (fileHandle.exists() && !fileHandle.isDirectory()) {
-            String contents = fileHandle.readString();
+        CompiledLevel compiled = getCompiledLevel(levelName);
+        if (compiled != null) {
+            return compiled.build(manager);
+        }
+
+        // A level with entities that cannot be compiled has to go through Gson
+        JsonObject rawLevel = readLevel(levelName);
+        if (rawLevel == null) {
+            return null;
+        }
+        return gson.fromJson(rawLevel, LevelModel.class);
+    }
+
+    /**
+     * Returns every texture path named in a level, without building the level.
+     * <p>
+     * This is the level background and the texturePath of every entity that
+     * has one.  Textures that an entity type always uses are not included.
+     *
+     * @param levelName the level to scan
+     * @return the texture paths, empty if the level is missing
+     */
+    public Set<String> loadTexturePaths(String levelName) {
+        CompiledLevel compiled = getCompiledLevel(levelName);
+        if (compiled != null) {
+            return compiled.getTexturePaths();
+        }
+
+        Set<String> paths = new HashSet<>();
+        JsonObject rawLevel = readLevel(levelName);
+        if (rawLevel != null) {
+            addTexturePaths(rawLevel, paths);
+        }
+        return paths;
+    }
+
+    private static void addTexturePaths(JsonElement element, Set<String> paths) {
+        if (element.isJsonArray()) {
+            for (JsonElement child : element.getAsJsonArray()) {
+                addTexturePaths(child, paths);
+            }
+        } else if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> field : element.getAsJsonObject().entrySet()) {
+                JsonElement value = field.getValue();
+                if (value.isJsonPrimitive()) {
+                    if (field.getKey().equals("texturePath") || field.getKey().equals("background")) {
+                        paths.add(value.getAsString());
+                    }
+                } else {
+                    addTexturePaths(value, paths);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the compiled level, compiling it if this is its first load.
+     * <p>
+     * The same level is returned until it is saved again, so this can also tell
+     * whether a level has changed.
+     *
+     * @param levelName the level to compile
+     * @return the compiled level, or null if it is missing or cannot be compiled
+     */
+    public CompiledLevel getCompiledLevel(String levelName) {
+        CompiledLevel compiled = compiledLevels.get(levelName);
+        if (compiled != null) {
+            return compiled;
+        }
+
+        FileHandle jsonFile = Gdx.files.internal("levels/" + levelName + ".json");
+        FileHandle compiledFile = Gdx.files.internal("levels/" + levelName + CompiledLevel.EXTENSION);
+        if (compiledFile.exists() && compiledFile.lastModified() >= jsonFile.lastModified()) {
+            try (InputStream in = compiledFile.read()) {
+                compiled = CompiledLevel.read(in);
+            } catch (IOException e) {
+                System.err.println("Could not read " + compiledFile.path() + ", reading the json instead");
+                e.printStackTrace();
+            }
+        }
+        if (compiled == null && jsonFile.exists() && !jsonFile.isDirectory()) {
+            compiled = compile(parseLevel(jsonFile.readString()));
+        }
+        if (compiled != null) {
+            compiledLevels.put(levelName, compiled);
+        }
+        return compiled;
+    }
 
-            // Scan the raw level in case we need to perform conversions
+    /**
+     * Compiles a level from json at the latest level version.
+     *
+     * @param rawLevel the level's json
+     * @return the compiled level, or null if it cannot be compiled
+     */
+    private CompiledLevel compile(JsonObject rawLevel) {
+        // Everything but the entities goes through Gson, so missing fields get their defaults
+        JsonObject header = new JsonObject();
+        for (Map.Entry<String, JsonElement> field : rawLevel.entrySet()) {
+            if (!field.getKey().equals("entities")) {
+                header.add(field.getKey(), field.getValue());
+            }
+        }
+        return CompiledLevel.compile(gson.fromJson(header, LevelModel.class), rawLevel);
+    }
+
+    /**
+     * Compiles every level in a directory that has changed since it was last compiled.
+     * <p>
+     * This does not need Gdx, so it can be run as a build step.
+     *
+     * @param directory the levels directory
+     * @param force     whether to compile levels whose compiled file is up to date
+     * @return the number of levels compiled
+     * @throws IOException if a level cannot be read or written
+     */
+    public int compileLevels(File directory, boolean force) throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".json"));
+        if (files == null) {
+            throw new IOException("Missing levels directory " + directory);
+        }
+
+        int count = 0;
+        for (File jsonFile : files) {
+            String name = jsonFile.getName();
+            File compiledFile = new File(directory,
+                    name.substring(0, name.length() - ".json".length()) + CompiledLevel.EXTENSION);
+            if (!force && compiledFile.lastModified() >= jsonFile.lastModified()) {
+                continue;
+            }
+
+            String contents = new String(Files.readAllBytes(jsonFile.toPath()), StandardCharsets.UTF_8);
             JsonObject rawLevel = jsonParser.parse(contents).getAsJsonObject();
-            int levelVersion = rawLevel.get("levelModelVersion").getAsInt();
-            if (levelVersion < LevelModel.LATEST_LEVEL_MODEL_VERSION) {
-                // Convert!
-                contents = convertLevel(rawLevel);
+            if (!rawLevel.has("levelModelVersion")) {
+                // Not a level (the records live in here too)
+                continue;
+            }
+            CompiledLevel compiled;
+            try {
+                upgradeLevel(rawLevel);
+                compiled = compile(rawLevel);
+            } catch (RuntimeException e) {
+                // A broken level should not stop the others from compiling
+                e.printStackTrace();
+                compiled = null;
             }
-            return gson.fromJson(contents, LevelModel.class);
+            if (compiled == null) {
+                System.err.println("Could not compile " + name);
+                continue;
+            }
+            try (OutputStream out = new FileOutputStream(compiledFile)) {
+                compiled.write(out);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Reads a level file and brings it up to the latest level version.
+     *
+     * @param levelName the level to read
+     * @return the level's json, or null if the level is missing
+     */
+    private JsonObject readLevel(String levelName) {
+        FileHandle fileHandle = Gdx.files.internal("levels/" + levelName + ".json");
+        if (fileHandle.exists() && !fileHandle.isDirectory()) {
+            return parseLevel(fileHandle.readString());
         }
 
         System.err.println("Missing: " + levelName);
         return null;
     }
 
+    /**
+     * Parses a level and brings it up to the latest level version.
+     *
+     * @param contents the level file
+     * @return the level's json
+     */
+    private JsonObject parseLevel(String contents) {
+        JsonObject rawLevel = jsonParser.parse(contents).getAsJsonObject();
+        upgradeLevel(rawLevel);
+        return rawLevel;
+    }
+
+    /**
+     * Brings a level up to the latest level version, in place.
+     *
+     * @param rawLevel the level's json
+     */
+    private void upgradeLevel(JsonObject rawLevel) {
+        // Scan the raw level in case we need to perform conversions
+        int levelVersion = rawLevel.get("levelModelVersion").getAsInt();
+        if (levelVersion < LevelModel.LATEST_LEVEL_MODEL_VERSION) {
+            // Convert! This updates rawLevel in place
+            convertLevel(rawLevel);
+        }
+    }
+
     public boolean saveLevel(LevelModel toSave, String levelName) {
+        JsonObject rawLevel = gsonToJsonObject(toSave);
         try {
             FileWriter fw = new FileWriter("levels/" + levelName + ".json");
-            gson.toJson(toSave, fw);
+            gson.toJson(rawLevel, fw);
             fw.flush();
             fw.close();
         } catch (IOException e) {
             e.printStackTrace();
             return false;
         }
+
+        // Written after the json, so the compiled file is the newer of the two
+        compiledLevels.remove(levelName);
+        CompiledLevel compiled = compile(rawLevel);
+        if (compiled != null) {
+            try (OutputStream out = new FileOutputStream("levels/" + levelName + CompiledLevel.EXTENSION)) {
+                compiled.write(out);
+            } catch (IOException e) {
+                // The json is saved, and is read instead when this is stale
+                e.printStackTrace();
+            }
+            compiledLevels.put(levelName, compiled);
+        }
         return true;
     }
 
@@ -125,6 +343,7 @@ public class JSONLoaderSaver {
 
 
     public void setManager(MantisAssetManager manager) {
+        this.manager = manager;
         wrapper.setManager(manager);
     }
 
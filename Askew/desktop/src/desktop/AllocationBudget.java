@@ -0,0 +1,145 @@
+/*
+ * AllocationBudget.java
+ *
+ * Checks that the game loop does not allocate once a level is running.  Garbage
+ * made every frame is collected every few seconds, and the pauses show up as
+ * hitches, so this is meant to be run on a build machine like runHeadless.
+ */
+package desktop;
+
+import askew.playermode.gamemode.HeadlessRunner;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs levels headless and fails if a step allocates more than a budget.
+ * <p>
+ * Each level is stepped for a while first, so that lazily built caches and the
+ * JIT have settled, and then stepped again with the bytes allocated by this
+ * thread (ThreadMXBean.getThreadAllocatedBytes) read around every step.  The
+ * average and the worst step are reported.  Steps in which the level restarts
+ * (the sloth fell, say) are left out, since a restart rebuilds part of the level
+ * and is not part of playing it; the number left out is reported too.  The
+ * process exits with status 1 if the average of any level is over the budget,
+ * if a level cannot be loaded, or if a level restarts more than MAX_RESTARTS
+ * times (it would otherwise be measured mostly on the steps between deaths, or
+ * never finish measuring at all).
+ * <p>
+ * The arguments are the number of steps to measure, the budget in bytes per
+ * step, and then level names; with no levels, every level is run.  This must be
+ * started from the assets directory (checkAllocations does this).  Headless runs
+ * do not draw, so this covers the update, physics and game logic, not drawing;
+ * the frame profiler counts the bytes drawing allocates in the game itself
+ * ("draw bytes" in the debug overlay and in frameProfileDump).
+ */
+class AllocationBudget {
+
+    /**
+     * Ten seconds of game time
+     */
+    private static final int DEFAULT_STEPS = 60 * 10;
+    /**
+     * The steps run before measuring, to settle caches and the JIT
+     */
+    private static final int WARMUP_STEPS = 60 * 5;
+    /**
+     * Allows for the few bytes the JVM itself can charge to a thread now and then
+     */
+    private static final long DEFAULT_BUDGET = 64;
+    /**
+     * The most restarts a level may have while it is measured
+     */
+    private static final int MAX_RESTARTS = 100;
+
+    public static void main(String[] args) {
+        final int steps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STEPS;
+        final long budget = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_BUDGET;
+        final List<String> levels = new ArrayList<>();
+        if (args.length > 2) {
+            levels.addAll(Arrays.asList(args).subList(2, args.length));
+        }
+
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threads.isThreadAllocatedMemorySupported()) {
+            System.err.println("This JVM cannot count the memory allocated by a thread");
+            System.exit(2);
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        final boolean[] failed = {false};
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                if (levels.isEmpty()) {
+                    for (FileHandle file : Gdx.files.internal("levels").list(".json")) {
+                        if (!file.nameWithoutExtension().equals("records")) {
+                            levels.add(file.nameWithoutExtension());
+                        }
+                    }
+                    levels.sort(String::compareTo);
+                }
+
+                long thread = Thread.currentThread().getId();
+                for (String level : levels) {
+                    HeadlessRunner runner;
+                    try {
+                        runner = new HeadlessRunner(level);
+                    } catch (RuntimeException e) {
+                        System.err.println(level + ": could not be loaded (" + e + ")");
+                        failed[0] = true;
+                        continue;
+                    }
+                    for (int i = 0; i < WARMUP_STEPS; i++) {
+                        runner.step();
+                    }
+
+                    long total = 0;
+                    long worst = 0;
+                    int measured = 0;
+                    int restarts = 0;
+                    while (measured < steps && restarts <= MAX_RESTARTS) {
+                        int resets = runner.getController().getResets();
+                        long before = threads.getThreadAllocatedBytes(thread);
+                        runner.step();
+                        long bytes = threads.getThreadAllocatedBytes(thread) - before;
+                        if (runner.getController().getResets() != resets) {
+                            restarts++;
+                            continue;
+                        }
+                        total += bytes;
+                        worst = Math.max(worst, bytes);
+                        measured++;
+                    }
+                    long average = measured == 0 ? 0 : total / measured;
+                    boolean over = average > budget;
+                    boolean unstable = restarts > MAX_RESTARTS;
+                    failed[0] |= over || unstable;
+                    System.out.println(String.format("%-20s %7d steps %9d B/step %9d B worst %4d restarts%s%s",
+                            level, measured, average, worst, restarts, over ? "  OVER BUDGET" : "",
+                            unstable ? "  TOO MANY RESTARTS" : ""));
+                    runner.dispose();
+                }
+                Gdx.app.exit();
+            }
+
+            @Override
+            public void dispose() {
+                if (failed[0]) {
+                    System.err.println("A level could not be measured or is over the budget of "
+                            + budget + " bytes per step");
+                    System.exit(1);
+                }
+            }
+        }, config);
+    }
+}
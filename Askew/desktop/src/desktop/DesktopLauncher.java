@@ -13,10 +13,14 @@
 package desktop;
 
 import askew.GDXRoot;
+import askew.util.LevelCompiler;
+import askew.util.MyPacker;
 import com.badlogic.gdx.Files;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
 
+import java.io.IOException;
+
 /**
  * The main class of the game.
  * <p>
@@ -34,6 +38,27 @@ class DesktopLauncher {
      * @param arg Command line arguments
      */
     public static void main(String[] arg) {
+        // Repack the static textures if any have changed since the last run
+        try {
+            if (MyPacker.packStaticTextures(false)) {
+                System.out.println("Packed static textures");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not pack static textures, loading them one by one");
+            e.printStackTrace();
+        }
+
+        // Likewise the compiled levels, which are read instead of the json
+        try {
+            int compiled = LevelCompiler.compileLevels(false);
+            if (compiled > 0) {
+                System.out.println("Compiled " + compiled + " levels");
+            }
+        } catch (IOException e) {
+            System.err.println("Could not compile levels, reading the json instead");
+            e.printStackTrace();
+        }
+
         LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
         config.width = 1600;
         config.height = 900;
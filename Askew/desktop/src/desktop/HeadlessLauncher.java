@@ -0,0 +1,72 @@
+/*
+ * HeadlessLauncher.java
+ *
+ * Runs levels without a window or a GPU.  This is for batch simulating levels
+ * on a build machine, for regression and tuning work.
+ */
+package desktop;
+
+import askew.playermode.gamemode.HeadlessRunner;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Simulates levels headless and reports how fast each one steps.
+ * <p>
+ * The first argument is the number of steps to run each level for.  Any further
+ * arguments are level names; with none, every level in the levels directory is
+ * run.  This must be started from the assets directory (runHeadless does this).
+ */
+class HeadlessLauncher {
+
+    /**
+     * One minute of game time
+     */
+    private static final int DEFAULT_STEPS = 60 * 60;
+
+    public static void main(String[] args) {
+        final int steps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STEPS;
+        final List<String> levels = new ArrayList<>();
+        if (args.length > 1) {
+            levels.addAll(Arrays.asList(args).subList(1, args.length));
+        }
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                if (levels.isEmpty()) {
+                    for (FileHandle file : Gdx.files.internal("levels").list(".json")) {
+                        if (!file.nameWithoutExtension().equals("records")) {
+                            levels.add(file.nameWithoutExtension());
+                        }
+                    }
+                    levels.sort(String::compareTo);
+                }
+
+                for (String level : levels) {
+                    HeadlessRunner runner;
+                    try {
+                        runner = new HeadlessRunner(level);
+                    } catch (RuntimeException e) {
+                        System.err.println(level + ": could not be loaded (" + e + ")");
+                        continue;
+                    }
+                    boolean complete = runner.run(steps);
+                    System.out.println(String.format("%-20s %7d steps %9.1f ms %9.0f steps/s%s",
+                            level, runner.getSteps(), runner.getElapsedNanos() / 1e6f,
+                            runner.getStepsPerSecond(), complete ? "  complete" : ""));
+                    runner.dispose();
+                }
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+}
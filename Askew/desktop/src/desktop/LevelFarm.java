@@ -0,0 +1,189 @@
+/*
+ * LevelFarm.java
+ *
+ * Simulates many levels at once, one world per thread, without a window or a
+ * GPU.  This is for sweeping every level against a set of inputs on a build
+ * machine, in a fraction of the time running them one after another takes.
+ */
+package desktop;
+
+import askew.InputController;
+import askew.playermode.WorldController;
+import askew.playermode.gamemode.GameModeController;
+import askew.playermode.gamemode.HeadlessRunner;
+import askew.util.InputReplay;
+import askew.util.RandomController;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Simulates every pairing of levels and inputs headless, in parallel, and
+ * reports how each run went.
+ * <p>
+ * The arguments are the number of steps to run each level for, the number of
+ * threads, a comma separated list of inputs and then level names; with no
+ * levels, every level in the levels directory is run.  An input is one of
+ * <ul>
+ * <li>idle: nothing is pressed, which shows how a level settles</li>
+ * <li>swing:seed: the sloth flails, grabbing and letting go at random, with
+ * the random numbers (and so the whole run) fixed by the seed</li>
+ * <li>the path of an input recording, whose own levels are replayed as
+ * replayInput does (the level names are not used for it)</li>
+ * </ul>
+ * Each run builds its world on the thread it runs on and shares nothing with
+ * the others, so a run reports the same whatever the number of threads.  The
+ * report is in the order of the arguments.  Its time is the game time
+ * simulated (steps of WORLD_STEP, restarts included), not the level clock of
+ * the game, which counts each step twice.  This must be started from the
+ * assets directory (levelFarm does this).
+ */
+class LevelFarm {
+
+    /**
+     * One minute of game time
+     */
+    private static final int DEFAULT_STEPS = 60 * 60;
+    /**
+     * How many steps the flailing input holds each move for
+     */
+    static final int SWING_STEPS = 20;
+
+    public static void main(String[] args) {
+        final int steps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STEPS;
+        final int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        final List<String> inputs = Arrays.asList((args.length > 2 ? args[2] : "idle").split(","));
+        final List<String> levels = new ArrayList<>();
+        if (args.length > 3) {
+            levels.addAll(Arrays.asList(args).subList(3, args.length));
+        }
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                if (levels.isEmpty()) {
+                    for (FileHandle file : Gdx.files.internal("levels").list(".json")) {
+                        if (!file.nameWithoutExtension().equals("records")) {
+                            levels.add(file.nameWithoutExtension());
+                        }
+                    }
+                    levels.sort(String::compareTo);
+                }
+                farm(steps, threads, inputs, levels);
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+
+    private static void farm(int steps, int threads, List<String> inputs, List<String> levels) {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<ForkJoinTask<List<String>>> runs = new ArrayList<>();
+        long start = System.nanoTime();
+        for (String input : inputs) {
+            if (input.equals("idle") || input.startsWith("swing:")) {
+                for (String level : levels) {
+                    runs.add(pool.submit(() -> script(level, input, steps)));
+                }
+            } else {
+                runs.add(pool.submit(() -> replay(input)));
+            }
+        }
+
+        System.out.println(String.format("%-20s %-16s %7s %9s %8s %6s %6s", "level", "input", "steps",
+                "us/step", "time", "grabs", "deaths"));
+        int count = 0;
+        for (ForkJoinTask<List<String>> run : runs) {
+            for (String line : run.join()) {
+                System.out.println(line);
+                count++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+        System.out.println(String.format("%d runs on %d threads in %.1f ms", count, threads, elapsed / 1e6f));
+    }
+
+    /**
+     * Runs a level with scripted input.
+     */
+    private static List<String> script(String level, String input, int steps) {
+        List<String> report = new ArrayList<>();
+        HeadlessRunner runner;
+        try {
+            runner = new HeadlessRunner(level);
+        } catch (RuntimeException e) {
+            report.add(String.format("%-20s %-16s could not be loaded (%s)", level, input, e));
+            return report;
+        }
+
+        RandomController random = input.startsWith("swing:")
+                ? new RandomController(Long.parseLong(input.substring("swing:".length())))
+                : null;
+        InputController player = runner.getInput(0);
+        while (runner.getSteps() < steps) {
+            if (random != null && runner.getSteps() % SWING_STEPS == 0) {
+                swing(player, random);
+            }
+            if (!runner.step()) {
+                break;
+            }
+        }
+        report.add(report(runner, input));
+        runner.dispose();
+        return report;
+    }
+
+    /**
+     * Starts a new flailing move: both arms swung a random way, with one hand
+     * or both holding on.
+     */
+    static void swing(InputController player, RandomController random) {
+        float left = random.rollFloat(0, (float) (2 * Math.PI));
+        float right = random.rollFloat(0, (float) (2 * Math.PI));
+        player.setSticks((float) Math.cos(left), (float) Math.sin(left),
+                (float) Math.cos(right), (float) Math.sin(right));
+        int hands = random.nextInt(3);
+        player.setGrabs(hands != 1, hands != 0);
+    }
+
+    /**
+     * Replays an input recording.
+     */
+    private static List<String> replay(String file) {
+        List<String> report = new ArrayList<>();
+        InputReplay replay;
+        try {
+            replay = new InputReplay(new File(file));
+        } catch (IOException e) {
+            report.add(String.format("%-20s %-16s could not be opened (%s)", "", file, e));
+            return report;
+        }
+        String name = new File(file).getName();
+        ReplayLauncher.replay(replay, runner -> {
+            report.add(report(runner, name));
+            runner.dispose();
+        });
+        return report;
+    }
+
+    private static String report(HeadlessRunner runner, String input) {
+        GameModeController controller = runner.getController();
+        return String.format("%-20s %-16s %7d %9.1f %7.1fs %6d %6d%s",
+                runner.getLevel(), input, runner.getSteps(),
+                runner.getSteps() == 0 ? 0 : runner.getElapsedNanos() / 1e3f / runner.getSteps(),
+                runner.getSteps() * WorldController.WORLD_STEP, controller.getCurrentGrabs(), controller.getResets() - 1,
+                controller.isComplete() ? "  complete" : "");
+    }
+}
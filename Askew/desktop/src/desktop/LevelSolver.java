@@ -0,0 +1,356 @@
+/*
+ * LevelSolver.java
+ *
+ * Searches for a way through a level without a window or a GPU.  This proves
+ * that a level can be finished at all, and finds a grab count for its record
+ * that a player then has to beat.
+ */
+package desktop;
+
+import askew.InputController;
+import askew.InputControllerManager;
+import askew.entity.sloth.SlothModel;
+import askew.playermode.gamemode.GameModeController;
+import askew.playermode.gamemode.HeadlessRunner;
+import askew.util.InputRecorder;
+import askew.util.InputReplay;
+import askew.util.RandomController;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.Vector2;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Beam search over short input macros, from the start of a level to the owl.
+ * <p>
+ * A plan is a list of macros, each held for MACRO_STEPS steps: a way to push
+ * each arm's stick and which hands grab.  Every round, each plan in the beam is
+ * extended by a number of random macros, and every extended plan is played out
+ * on a thread pool.  The plans that did not get the sloth killed are ranked by
+ * how close they left it to the owl, and the best are kept for the next round.
+ * A plan whose world threw is counted as dead rather than ending the search.
+ * The search stops at the first round in which some plan finishes the level,
+ * taking the one with the fewest grabs.
+ * <p>
+ * Box2D cannot copy a world, so a plan is played out from the start of the
+ * level every time.  The cost of a search is therefore quadratic in the length
+ * of the plans: round r steps r * MACRO_STEPS per plan, so R rounds step
+ * beam * branch * MACRO_STEPS * R * (R + 1) / 2 in all.  Each pool thread keeps
+ * one world and restarts it for every plan (HeadlessRunner.restart), which
+ * only rebuilds the sloth, owl and ghosts, rather than building a world per
+ * plan.  A restarted world is close to a fresh one but not bit for bit, so a
+ * search with more than one thread may rank plans a little differently from
+ * run to run.  The plan found is always recorded and checked in a fresh world.
+ * <p>
+ * The arguments are the level, and optionally the number of threads, the beam
+ * width, the number of macros each plan is extended by, the most macros in a
+ * plan, the recording to write and the seed of the search.  The plan found is
+ * written as an input recording (which replayInput plays back) and checked by
+ * replaying it, and its time and grabs are printed as an entry for records.json.
+ * This must be started from the assets directory (solveLevel does this).
+ */
+class LevelSolver {
+
+    /**
+     * How many steps each macro is held for (a quarter of a second)
+     */
+    private static final int MACRO_STEPS = 15;
+    /**
+     * How many ways a stick can be pushed, evenly around the circle
+     */
+    private static final int DIRECTIONS = 8;
+    /**
+     * What each macro does with the hands: hold with the left, the right or
+     * both (letting go with both is falling, which is never worth searching)
+     */
+    private static final int GRABS = 3;
+    /**
+     * How much a grab costs in the ranking, in world units of distance
+     */
+    private static final float GRAB_COST = 0.01f;
+    /**
+     * How much ending a plan without holding on costs in the ranking; such a
+     * sloth is falling and is likely to die in the next few macros
+     */
+    private static final float FALLING_COST = 1000;
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: LevelSolver <level> [threads] [beam] [branch] [depth] [recording] [seed]");
+            System.exit(2);
+        }
+        final String level = args[0];
+        final int threads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+        final int beam = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        final int branch = args.length > 3 ? Integer.parseInt(args[3]) : 16;
+        final int depth = args.length > 4 ? Integer.parseInt(args[4]) : 240;
+        final File file = new File(args.length > 5 ? args[5] : level + ".air");
+        final long seed = args.length > 6 ? Long.parseLong(args[6]) : 0;
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                Rollout best = search(pool, level, seed, beam, branch, depth);
+                pool.shutdown();
+                if (best != null && best.complete) {
+                    save(level, seed, best, file);
+                }
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+
+    /**
+     * The outcome of playing a plan out.
+     */
+    private static class Rollout {
+        final int[] plan;
+        /**
+         * Whether the plan finished the level
+         */
+        boolean complete;
+        /**
+         * Whether the sloth died (the level restarted) along the way, or the
+         * world threw
+         */
+        boolean dead;
+        /**
+         * Whether the world threw while the plan was played out
+         */
+        boolean failed;
+        /**
+         * How far the sloth ended from the owl
+         */
+        float distance;
+        /**
+         * Whether the sloth ended holding on to something
+         */
+        boolean holding;
+        int grabs;
+        int steps;
+        float time;
+
+        Rollout(int[] plan) {
+            this.plan = plan;
+        }
+
+        float score() {
+            return distance + grabs * GRAB_COST + (holding ? 0 : FALLING_COST);
+        }
+    }
+
+    private static Rollout search(ForkJoinPool pool, String level, long seed, int beam, int branch,
+                                  int depth) {
+        RandomController random = new RandomController(seed);
+        List<Rollout> parents = new ArrayList<>();
+        parents.add(new Rollout(new int[0]));
+        List<ForkJoinTask<Rollout>> tasks = new ArrayList<>();
+        List<Rollout> children = new ArrayList<>();
+        ThreadLocal<HeadlessRunner> worlds = new ThreadLocal<>();
+        List<HeadlessRunner> built = Collections.synchronizedList(new ArrayList<>());
+        long rollouts = 0;
+        long failures = 0;
+        long steps = 0;
+        long start = System.nanoTime();
+        try {
+
+            for (int round = 1; round <= depth; round++) {
+                tasks.clear();
+                for (Rollout parent : parents) {
+                    for (int i = 0; i < branch; i++) {
+                        int[] plan = Arrays.copyOf(parent.plan, parent.plan.length + 1);
+                        plan[parent.plan.length] = random.nextInt(DIRECTIONS * DIRECTIONS * GRABS);
+                        tasks.add(pool.submit(() -> rollout(level, seed, plan, worlds, built)));
+                    }
+                }
+
+                children.clear();
+                Rollout solved = null;
+                for (ForkJoinTask<Rollout> task : tasks) {
+                    Rollout child = task.join();
+                    rollouts++;
+                    steps += child.steps;
+                    if (child.failed) {
+                        failures++;
+                    }
+                    if (child.complete) {
+                        if (solved == null || child.grabs < solved.grabs
+                                || (child.grabs == solved.grabs && child.steps < solved.steps)) {
+                            solved = child;
+                        }
+                    } else if (!child.dead) {
+                        children.add(child);
+                    }
+                }
+
+                float seconds = (System.nanoTime() - start) / 1e9f;
+                if (solved != null) {
+                    report(level, round, rollouts, failures, steps, seconds, "solved");
+                    System.out.println(String.format("%s: %d macros, %d steps, %.2fs, %d grabs", level,
+                            solved.plan.length, solved.steps, solved.time, solved.grabs));
+                    return solved;
+                }
+                if (children.isEmpty()) {
+                    report(level, round, rollouts, failures, steps, seconds, "every plan died");
+                    return null;
+                }
+
+                children.sort((a, b) -> Float.compare(a.score(), b.score()));
+                parents = new ArrayList<>(children.subList(0, Math.min(beam, children.size())));
+                if (round % 10 == 0) {
+                    report(level, round, rollouts, failures, steps, seconds,
+                            String.format("closest %.2f from the owl", parents.get(0).distance));
+                }
+            }
+            report(level, depth, rollouts, failures, steps, (System.nanoTime() - start) / 1e9f, "not solved");
+            return null;
+        } finally {
+            for (HeadlessRunner runner : built) {
+                try {
+                    runner.dispose();
+                } catch (RuntimeException e) {
+                    // A world that threw may not come apart cleanly either
+                    System.err.println("Could not dispose of a search world (" + e + ")");
+                }
+            }
+        }
+    }
+
+    private static void report(String level, int round, long rollouts, long failures, long steps,
+                               float seconds, String state) {
+        System.out.println(String.format("%-20s round %4d %9d rollouts %8.0f rollouts/min %9.0f steps/s %5d failed  %s",
+                level, round, rollouts, rollouts * 60 / seconds, steps / seconds, failures, state));
+    }
+
+    /**
+     * Plays a plan out from the start of the level in this thread's world,
+     * building the world first if the thread has none.  If the world throws,
+     * the plan counts as dead and the thread builds a new world next time.
+     *
+     * @param worlds the world of each thread
+     * @param built  every world built, to be disposed of when the search is done
+     */
+    private static Rollout rollout(String level, long seed, int[] plan, ThreadLocal<HeadlessRunner> worlds,
+                                   List<HeadlessRunner> built) {
+        try {
+            HeadlessRunner runner = worlds.get();
+            if (runner == null) {
+                runner = new HeadlessRunner(level, seed);
+                built.add(runner);
+                worlds.set(runner);
+            } else {
+                runner.restart();
+            }
+            return play(runner, plan);
+        } catch (RuntimeException e) {
+            worlds.remove();
+            Rollout rollout = new Rollout(plan);
+            rollout.dead = true;
+            rollout.failed = true;
+            return rollout;
+        }
+    }
+
+    /**
+     * Plays a plan out in a world that is at the start of the level.
+     */
+    private static Rollout play(HeadlessRunner runner, int[] plan) {
+        Rollout rollout = new Rollout(plan);
+        GameModeController controller = runner.getController();
+        int resets = controller.getResets();
+        InputController player = runner.getInput(0);
+
+        play:
+        for (int macro : plan) {
+            apply(player, macro);
+            for (int i = 0; i < MACRO_STEPS; i++) {
+                boolean running = runner.step();
+                if (controller.getResets() != resets) {
+                    rollout.dead = true;
+                    break play;
+                }
+                if (!running) {
+                    rollout.complete = true;
+                    break play;
+                }
+            }
+        }
+
+        rollout.steps = runner.getSteps();
+        rollout.time = controller.getCurrentTime();
+        // Grabbing the owl counts as a grab, as it does for the game's records
+        rollout.grabs = rollout.complete ? controller.getCurrentGrabs() - 1 : controller.getCurrentGrabs();
+        if (!rollout.dead && !rollout.complete) {
+            SlothModel sloth = controller.getSloth();
+            Vector2 owl = controller.getOwl().getPosition();
+            rollout.distance = sloth.getMainBody().getPosition().dst(owl);
+            rollout.holding = sloth.isActualLeftGrab() || sloth.isActualRightGrab();
+        }
+        return rollout;
+    }
+
+    /**
+     * Sets the input of a macro: where each stick is pushed and which hands grab.
+     */
+    private static void apply(InputController player, int macro) {
+        int grabs = macro % GRABS + 1;
+        int right = macro / GRABS % DIRECTIONS;
+        int left = macro / GRABS / DIRECTIONS;
+        double leftAngle = left * 2 * Math.PI / DIRECTIONS;
+        double rightAngle = right * 2 * Math.PI / DIRECTIONS;
+        player.setSticks((float) Math.cos(leftAngle), (float) Math.sin(leftAngle),
+                (float) Math.cos(rightAngle), (float) Math.sin(rightAngle));
+        player.setGrabs((grabs & 1) != 0, (grabs & 2) != 0);
+    }
+
+    /**
+     * Records the plan to a file, checks that the recording finishes the level,
+     * and prints its entry for records.json.
+     */
+    private static void save(String level, long seed, Rollout best, File file) {
+        Rollout recorded;
+        try {
+            InputRecorder recorder = new InputRecorder(file, InputControllerManager.NUM_CONTROLLERS, seed);
+            HeadlessRunner runner = new HeadlessRunner(level, seed);
+            runner.getController().setInputRecorder(recorder);
+            recorder.startLevel(level);
+            recorded = play(runner, best.plan);
+            runner.dispose();
+            recorder.close();
+        } catch (IOException e) {
+            System.err.println("Could not record the solution to " + file);
+            e.printStackTrace();
+            return;
+        }
+
+        boolean[] complete = new boolean[1];
+        try {
+            ReplayLauncher.replay(new InputReplay(file), runner -> {
+                complete[0] |= runner.getController().isComplete();
+                runner.dispose();
+            });
+        } catch (IOException e) {
+            System.err.println("Could not read back the solution " + file);
+            e.printStackTrace();
+            return;
+        }
+        if (!complete[0]) {
+            System.err.println("The recorded solution " + file + " did not finish " + level + " when replayed");
+            return;
+        }
+        System.out.println(String.format("  \"%s\": [%.1f, %d]", level, recorded.time, recorded.grabs));
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * ParallelLoadCheck.java
+ *
+ * Checks that levels build and run the same on many threads at once as on one,
+ * which the world farm and the level solver rely on.  This needs no window, so
+ * it is meant to be run on a build machine like checkAllocations.
+ */
+package desktop;
+
+import askew.InputController;
+import askew.playermode.gamemode.HeadlessRunner;
+import askew.util.RandomController;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.physics.box2d.Body;
+import com.badlogic.gdx.physics.box2d.Fixture;
+import com.badlogic.gdx.physics.box2d.PolygonShape;
+import com.badlogic.gdx.physics.box2d.Shape;
+import com.badlogic.gdx.utils.Array;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Loads every level once on this thread and then many times on a thread pool,
+ * and fails if any copy differs from the first.
+ * <p>
+ * A copy is compared by two fingerprints of its Box2D world: one taken as soon
+ * as the level is built (every body's transform and every fixture's shape, so
+ * the triangulated walls too) and one after it has been played for a while
+ * with the flailing input of the world farm.  The copies of all levels are
+ * interleaved, so that the same level is being built on several threads at
+ * once.  Anything shared between the threads that level building writes to
+ * shows up as a copy that differs or that threw.  The process exits with status
+ * 1 if one does.  Levels that cannot be loaded even on one thread are reported
+ * and left out.
+ * <p>
+ * The arguments are the number of threads, the copies of each level, the steps
+ * each copy is played for, and then level names; with no levels, every level is
+ * checked.  This must be started from the assets directory (checkParallelLoad
+ * does this).
+ */
+class ParallelLoadCheck {
+
+    /**
+     * Two seconds of game time
+     */
+    private static final int DEFAULT_STEPS = 60 * 2;
+    /**
+     * What the flailing input of every copy is started from
+     */
+    private static final long SEED = 1;
+
+    public static void main(String[] args) {
+        final int threads = args.length > 0 ? Integer.parseInt(args[0])
+                : Math.max(4, Runtime.getRuntime().availableProcessors());
+        final int copies = args.length > 1 ? Integer.parseInt(args[1]) : threads * 2;
+        final int steps = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_STEPS;
+        final List<String> levels = new ArrayList<>();
+        if (args.length > 3) {
+            levels.addAll(Arrays.asList(args).subList(3, args.length));
+        }
+
+        final boolean[] failed = {false};
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                if (levels.isEmpty()) {
+                    for (FileHandle file : Gdx.files.internal("levels").list(".json")) {
+                        if (!file.nameWithoutExtension().equals("records")) {
+                            levels.add(file.nameWithoutExtension());
+                        }
+                    }
+                    levels.sort(String::compareTo);
+                }
+                failed[0] = !check(threads, copies, steps, levels);
+                Gdx.app.exit();
+            }
+
+            @Override
+            public void dispose() {
+                if (failed[0]) {
+                    System.err.println("A level built or ran differently on many threads than on one");
+                    System.exit(1);
+                }
+            }
+        }, config);
+    }
+
+    /**
+     * Loads the levels on this thread and then on the pool, and reports how
+     * the copies compared.
+     *
+     * @return whether every copy matched
+     */
+    private static boolean check(int threads, int copies, int steps, List<String> levels) {
+        List<String> loaded = new ArrayList<>();
+        List<long[]> expected = new ArrayList<>();
+        for (String level : levels) {
+            try {
+                expected.add(play(level, steps));
+                loaded.add(level);
+            } catch (RuntimeException e) {
+                System.out.println(String.format("%-20s could not be loaded on one thread (%s), left out",
+                        level, e));
+            }
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        List<ForkJoinTask<long[]>> runs = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int copy = 0; copy < copies; copy++) {
+            for (String level : loaded) {
+                runs.add(pool.submit(() -> play(level, steps)));
+            }
+        }
+
+        boolean passed = true;
+        int[] differ = new int[loaded.size()];
+        int[] threw = new int[loaded.size()];
+        for (int i = 0; i < runs.size(); i++) {
+            int level = i % loaded.size();
+            try {
+                if (!Arrays.equals(runs.get(i).join(), expected.get(level))) {
+                    differ[level]++;
+                }
+            } catch (RuntimeException e) {
+                if (threw[level] == 0) {
+                    System.err.println(loaded.get(level) + ": a copy failed");
+                    e.printStackTrace();
+                }
+                threw[level]++;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        for (int i = 0; i < loaded.size(); i++) {
+            boolean same = differ[i] == 0 && threw[i] == 0;
+            passed &= same;
+            System.out.println(String.format("%-20s %5d copies %5d differ %5d failed%s", loaded.get(i),
+                    copies, differ[i], threw[i], same ? "" : "  MISMATCH"));
+        }
+        System.out.println(String.format("%d copies on %d threads in %.1f ms", runs.size(), threads,
+                elapsed / 1e6f));
+        return passed;
+    }
+
+    /**
+     * Builds a level, fingerprints it, plays it and fingerprints it again.
+     *
+     * @return the fingerprints of the world as built and as played
+     */
+    private static long[] play(String level, int steps) {
+        HeadlessRunner runner = new HeadlessRunner(level);
+        long built = fingerprint(runner);
+        RandomController random = new RandomController(SEED);
+        InputController player = runner.getInput(0);
+        while (runner.getSteps() < steps) {
+            if (runner.getSteps() % LevelFarm.SWING_STEPS == 0) {
+                LevelFarm.swing(player, random);
+            }
+            if (!runner.step()) {
+                break;
+            }
+        }
+        long played = fingerprint(runner);
+        runner.dispose();
+        return new long[]{built, played, runner.getSteps(), runner.getController().getResets()};
+    }
+
+    /**
+     * Hashes the transform of every body in the world and the shape of every
+     * fixture.  The bodies are hashed in no particular order, as the order Box2D
+     * keeps them in can change from one load to the next.
+     */
+    private static long fingerprint(HeadlessRunner runner) {
+        Array<Body> bodies = new Array<>();
+        runner.getController().getWorld().getBodies(bodies);
+        Vector2 vertex = new Vector2();
+        long[] hashes = new long[bodies.size];
+        for (int b = 0; b < bodies.size; b++) {
+            Body body = bodies.get(b);
+            long hash = mix(body.getType().ordinal(), body.getPosition().x);
+            hash = mix(hash, body.getPosition().y);
+            hash = mix(hash, body.getAngle());
+            for (Fixture fixture : body.getFixtureList()) {
+                Shape shape = fixture.getShape();
+                hash = mix(hash, shape.getRadius());
+                if (shape instanceof PolygonShape) {
+                    PolygonShape polygon = (PolygonShape) shape;
+                    // PolygonShape reads vertices through a static array
+                    synchronized (PolygonShape.class) {
+                        for (int i = 0; i < polygon.getVertexCount(); i++) {
+                            polygon.getVertex(i, vertex);
+                            hash = mix(hash, vertex.x);
+                            hash = mix(hash, vertex.y);
+                        }
+                    }
+                }
+            }
+            hashes[b] = hash;
+        }
+        Arrays.sort(hashes);
+        return Arrays.hashCode(hashes);
+    }
+
+    private static long mix(long hash, float value) {
+        return hash * 31 + Float.floatToIntBits(value);
+    }
+}
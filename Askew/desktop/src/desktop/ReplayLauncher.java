@@ -0,0 +1,111 @@
+/*
+ * ReplayLauncher.java
+ *
+ * Replays a recording of real play without a window or a GPU.  This turns a
+ * session that hit a bug, or that stresses a level, into something that can be
+ * run again and again on a build machine.
+ */
+package desktop;
+
+import askew.InputController;
+import askew.playermode.gamemode.HeadlessRunner;
+import askew.util.InputReplay;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Steps the levels of an input recording headless, with the recorded input.
+ * <p>
+ * The argument is the recording, as written by the game when the configuration
+ * names a file for inputRecording.  Each level in the recording is simulated
+ * by a HeadlessRunner, a fixed step for every step the game simulated, and is
+ * reported like runHeadless reports levels.  A level that restarted itself (the
+ * sloth fell) is expected to restart in the replay at the same step; a level
+ * started again from the menus gets a new runner.  This must be started from
+ * the assets directory (replayInput does this).
+ */
+class ReplayLauncher {
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: ReplayLauncher <recording>");
+            System.exit(2);
+        }
+        final File file = new File(args[0]);
+
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                try {
+                    InputReplay replay = new InputReplay(file);
+                    replay(replay, ReplayLauncher::finish);
+                    System.out.println("Replayed " + replay.getSteps() + " steps of input");
+                } catch (IOException e) {
+                    System.err.println("Could not open the input recording " + file);
+                    e.printStackTrace();
+                }
+                Gdx.app.exit();
+            }
+        }, config);
+    }
+
+    /**
+     * Steps each level of a recording with its input.
+     * <p>
+     * Each runner is handed to finish once its level is over, and finish must
+     * dispose of it.
+     *
+     * @param replay the recording
+     * @param finish what to do with the runner of each level
+     */
+    static void replay(InputReplay replay, Consumer<HeadlessRunner> finish) {
+        List<InputController> none = Collections.emptyList();
+        HeadlessRunner runner = null;
+        int resets = 0;
+
+        int record;
+        while ((record = replay.next(runner != null ? runner.getInputs() : none)) != InputReplay.END) {
+            if (record == InputReplay.LEVEL) {
+                if (runner != null && runner.getLevel().equals(replay.getLevel())
+                        && runner.getController().getResets() != resets) {
+                    // The level restarted itself, as it did when recorded
+                    resets = runner.getController().getResets();
+                    continue;
+                }
+                if (runner != null) {
+                    finish.accept(runner);
+                }
+                try {
+                    runner = new HeadlessRunner(replay.getLevel(), replay.getSeed());
+                } catch (RuntimeException e) {
+                    System.err.println(replay.getLevel() + ": could not be loaded (" + e + ")");
+                    runner = null;
+                    continue;
+                }
+                resets = runner.getController().getResets();
+            } else if (runner != null && replay.isSimulated() && !runner.getController().isComplete()) {
+                runner.step();
+            }
+        }
+        if (runner != null) {
+            finish.accept(runner);
+        }
+    }
+
+    private static void finish(HeadlessRunner runner) {
+        System.out.println(String.format("%-20s %7d steps %9.1f ms %9.0f steps/s %4d restarts%s",
+                runner.getLevel(), runner.getSteps(), runner.getElapsedNanos() / 1e6f,
+                runner.getStepsPerSecond(), runner.getController().getResets() - 1,
+                runner.getController().isComplete() ? "  complete" : ""));
+        runner.dispose();
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * SnapshotCheck.java
+ *
+ * Checks that drawing from a snapshot never sees the physics being stepped on
+ * another thread, as the simulation thread relies on.  This needs no window,
+ * so it is meant to be run on a build machine like checkAllocations.
+ */
+package desktop;
+
+import askew.entity.obstacle.Obstacle;
+import askew.entity.sloth.SlothModel;
+import askew.playermode.gamemode.GameModeController;
+import askew.playermode.gamemode.HeadlessRunner;
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Steps levels on a second thread while reading the draw transforms of the
+ * sloth and the owl from a snapshot, and fails if a read is not the snapshot.
+ * <p>
+ * Before every step the snapshot is captured and its transforms noted.  The
+ * step then runs on a worker thread, as postUpdate does on the simulation
+ * thread, while this thread reads the draw transforms over and over.  Each read
+ * must be the noted one, during the step and after it.  Once the step is done
+ * the snapshot is released, and the draw transforms must be the live ones
+ * again.  The number of steps in which something moved is reported too, as a
+ * run in which nothing moved shows nothing.  The process exits with status 1
+ * on any mismatch, or if a level cannot be loaded.
+ * <p>
+ * The arguments are the number of steps and then level names (level1 if there
+ * are none).  This must be started from the assets directory (checkSnapshots
+ * does this).
+ */
+class SnapshotCheck {
+
+    /**
+     * Ten seconds of game time
+     */
+    private static final int DEFAULT_STEPS = 60 * 10;
+
+    public static void main(String[] args) {
+        final int steps = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STEPS;
+        final List<String> levels = new ArrayList<>();
+        if (args.length > 1) {
+            levels.addAll(Arrays.asList(args).subList(1, args.length));
+        } else {
+            levels.add("level1");
+        }
+
+        final boolean[] failed = {false};
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                ExecutorService worker = Executors.newSingleThreadExecutor();
+                for (String level : levels) {
+                    HeadlessRunner runner;
+                    try {
+                        runner = new HeadlessRunner(level);
+                    } catch (RuntimeException e) {
+                        System.err.println(level + ": could not be loaded (" + e + ")");
+                        failed[0] = true;
+                        continue;
+                    }
+                    failed[0] |= !check(runner, worker, steps);
+                    runner.dispose();
+                }
+                worker.shutdown();
+                Gdx.app.exit();
+            }
+
+            @Override
+            public void dispose() {
+                if (failed[0]) {
+                    System.err.println("Drawing from a snapshot did not match the snapshot or the physics");
+                    System.exit(1);
+                }
+            }
+        }, config);
+    }
+
+    /**
+     * Steps a level with its snapshot captured, and reports how it went.
+     *
+     * @return whether every read was the snapshot while it was held, and the
+     * live transform once it was released
+     */
+    private static boolean check(HeadlessRunner runner, ExecutorService worker, int steps) {
+        GameModeController controller = runner.getController();
+        List<Obstacle> parts = new ArrayList<>();
+        SlothModel sloth = controller.getSloth();
+        parts.add(sloth);
+        for (Obstacle part : sloth.getBodies()) {
+            parts.add(part);
+        }
+        parts.add(controller.getOwl());
+        float[] noted = new float[parts.size() * 3];
+
+        int stale = 0;
+        int unreleased = 0;
+        int moved = 0;
+        long reads = 0;
+        for (int step = 0; step < steps && !controller.isComplete(); step++) {
+            for (int i = 0; i < parts.size(); i++) {
+                Obstacle part = parts.get(i);
+                part.captureSnapshot();
+                noted[i * 3] = part.getDrawX();
+                noted[i * 3 + 1] = part.getDrawY();
+                noted[i * 3 + 2] = part.getDrawAngle();
+            }
+
+            Future<Boolean> stepping = worker.submit(runner::step);
+            boolean done;
+            do {
+                done = stepping.isDone();
+                for (int i = 0; i < parts.size(); i++) {
+                    if (!isAt(parts.get(i), noted, i)) {
+                        stale++;
+                    }
+                }
+                reads++;
+            } while (!done);
+            try {
+                stepping.get();
+            } catch (InterruptedException | ExecutionException e) {
+                System.err.println(runner.getLevel() + ": the step failed");
+                e.printStackTrace();
+                return false;
+            }
+
+            boolean anyMoved = false;
+            for (int i = 0; i < parts.size(); i++) {
+                Obstacle part = parts.get(i);
+                part.releaseSnapshot();
+                if (part.getDrawX() != part.getX() || part.getDrawY() != part.getY()
+                        || part.getDrawAngle() != part.getAngle()) {
+                    unreleased++;
+                }
+                anyMoved |= !isAt(part, noted, i);
+            }
+            if (anyMoved) {
+                moved++;
+            }
+        }
+
+        boolean passed = stale == 0 && unreleased == 0;
+        System.out.println(String.format("%-20s %7d steps %6d moved %9d reads %6d stale %6d unreleased%s",
+                runner.getLevel(), runner.getSteps(), moved, reads, stale, unreleased, passed ? "" : "  FAILED"));
+        return passed;
+    }
+
+    private static boolean isAt(Obstacle part, float[] noted, int i) {
+        return part.getDrawX() == noted[i * 3] && part.getDrawY() == noted[i * 3 + 1]
+                && part.getDrawAngle() == noted[i * 3 + 2];
+    }
+}